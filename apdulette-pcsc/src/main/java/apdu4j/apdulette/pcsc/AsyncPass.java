@@ -0,0 +1,134 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.apdulette.pcsc;
+
+import apdu4j.apdulette.Dish;
+import apdu4j.prefs.Preferences;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+// Consumer stage of a pipelined kitchenPass: dishes are handed over by the reader thread and
+// consumed on virtual threads, so the reader is ready for the next tap while the previous
+// dish is still being written somewhere. Dishes of one reader are consumed one at a time, in
+// serving order; different readers are consumed concurrently.
+//
+// At most `capacity` dishes wait or are being consumed. When full, the reader thread blocks
+// in accept() - backpressure on card I/O instead of an unbounded backlog. After close(),
+// accept() fails with RejectedExecutionException.
+public final class AsyncPass<T> implements AutoCloseable {
+    // lag = time from serving a dish to the start of its consumption
+    public record Stats(long served, long consumed, long failed, int queued, int capacity, Duration lag, Duration maxLag) {
+    }
+
+    private record Ticket<T>(Dish<T> dish, Preferences prefs, long served) {
+    }
+
+    private final Consumer<Dish<T>> consumer;
+    private final BiConsumer<Preferences, Exception> onError;
+    private final int capacity;
+    private final Semaphore slots;
+    private final ExecutorService stage = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, ArrayDeque<Ticket<T>>> lines = new HashMap<>(); // guarded by this, present while draining
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong lag = new AtomicLong(); // total nanos
+    private final AtomicLong maxLag = new AtomicLong();
+
+    AsyncPass(Consumer<Dish<T>> consumer, BiConsumer<Preferences, Exception> onError, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.consumer = consumer;
+        this.onError = onError;
+        this.capacity = capacity;
+        this.slots = new Semaphore(capacity);
+    }
+
+    // On the reader thread; blocks while the stage is full
+    void accept(String reader, Dish<T> dish, Preferences prefs) throws InterruptedException {
+        if (stage.isShutdown()) {
+            throw new RejectedExecutionException("AsyncPass closed");
+        }
+        slots.acquire();
+        served.incrementAndGet();
+        var ticket = new Ticket<>(dish, prefs, System.nanoTime());
+        boolean start;
+        synchronized (this) {
+            var line = lines.get(reader);
+            start = line == null;
+            if (start) {
+                line = new ArrayDeque<>();
+                lines.put(reader, line);
+            }
+            line.add(ticket);
+        }
+        if (start) {
+            try {
+                stage.execute(() -> drain(reader));
+            } catch (RejectedExecutionException e) {
+                // Closed while waiting for a slot. Only this reader's thread adds to its line.
+                synchronized (this) {
+                    lines.remove(reader);
+                }
+                served.decrementAndGet();
+                slots.release();
+                throw e;
+            }
+        }
+    }
+
+    private void drain(String reader) {
+        while (true) {
+            Ticket<T> ticket;
+            synchronized (this) {
+                ticket = lines.get(reader).poll();
+                if (ticket == null) {
+                    lines.remove(reader);
+                    return;
+                }
+            }
+            var waited = System.nanoTime() - ticket.served();
+            lag.addAndGet(waited);
+            maxLag.accumulateAndGet(waited, Math::max);
+            try {
+                consumer.accept(ticket.dish());
+                consumed.incrementAndGet();
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                try {
+                    onError.accept(ticket.prefs(), e);
+                } catch (RuntimeException e2) {
+                    // Reported, but must not stall the rest of this reader's dishes
+                    var t = Thread.currentThread();
+                    t.getUncaughtExceptionHandler().uncaughtException(t, e2);
+                }
+            } finally {
+                slots.release();
+            }
+        }
+    }
+
+    public Stats stats() {
+        var done = consumed.get() + failed.get();
+        var queued = capacity - slots.availablePermits();
+        return new Stats(served.get(), consumed.get(), failed.get(), queued, capacity,
+                done == 0 ? Duration.ZERO : Duration.ofNanos(lag.get() / done), Duration.ofNanos(maxLag.get()));
+    }
+
+    // Waits for the dishes already handed over to be consumed
+    @Override
+    public void close() {
+        stage.close();
+    }
+}
@@ -6,19 +6,28 @@ import apdu4j.apdulette.Dish;
 import apdu4j.apdulette.KitchenManager;
 import apdu4j.apdulette.Recipe;
 import apdu4j.apdulette.SousChef;
+import apdu4j.pcsc.FanOut;
+import apdu4j.pcsc.ReaderPool;
 import apdu4j.pcsc.ReaderSelector;
 import apdu4j.pcsc.Readers;
 import apdu4j.prefs.Preferences;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 // PC/SC implementation of KitchenManager.
 // Bridges apdulette recipes with PC/SC reader management.
 public final class PCSCKitchenManager implements KitchenManager {
     private final ReaderSelector selector;
     private final Preferences prefs;
+    private ReaderPool pool; // lazy, guarded by this
+    private final List<AsyncPass<?>> passes = new ArrayList<>(); // guarded by this
 
     public PCSCKitchenManager(ReaderSelector selector, Preferences prefs) {
         this.selector = selector.with(prefs);
@@ -37,20 +46,74 @@ public final class PCSCKitchenManager implements KitchenManager {
     public <T> void kitchenPass(Recipe<T> recipe,
                                 Consumer<Dish<T>> consumer,
                                 BiConsumer<Preferences, Exception> onError) {
+        pass(recipe, onError, (reader, dish, sessionPrefs) -> consumer.accept(dish));
+    }
+
+    // Pipelined kitchenPass: dishes are consumed on a separate stage, in order per reader, while
+    // the reader takes the next tap. At most `capacity` dishes are pending, then the reader waits.
+    public <T> AsyncPass<T> kitchenPass(Recipe<T> recipe,
+                                        Consumer<Dish<T>> consumer,
+                                        BiConsumer<Preferences, Exception> onError,
+                                        int capacity) {
+        var stage = new AsyncPass<>(consumer, onError, capacity);
+        synchronized (this) {
+            passes.add(stage);
+        }
+        pass(recipe, onError, stage::accept);
+        return stage;
+    }
+
+    @FunctionalInterface
+    private interface Hand<T> {
+        void accept(String reader, Dish<T> dish, Preferences sessionPrefs) throws InterruptedException;
+    }
+
+    private <T> void pass(Recipe<T> recipe, BiConsumer<Preferences, Exception> onError, Hand<T> hand) {
         selector.onCard((reader, apdubibo) -> {
             var sessionPrefs = prefs.with(Readers.READER_NAME, reader.name());
             try {
                 var chef = new SousChef(apdubibo);
                 var dish = chef.serve(recipe, sessionPrefs);
-                consumer.accept(dish);
+                hand.accept(reader.name(), dish, sessionPrefs);
+            } catch (InterruptedException e) {
+                // The reader thread outlives the tap: report it, do not leave the thread interrupted
+                onError.accept(sessionPrefs, e);
             } catch (Exception e) {
+                selector.traced(reader.name(), e);
                 onError.accept(sessionPrefs, e);
             }
         });
     }
 
+    // Farm mode: the recipe is served on the next reader with a fresh card, one card per order
+    public <T> CompletableFuture<Dish<T>> order(Recipe<T> recipe) {
+        return pool().submit(bibosa -> new SousChef(bibosa).serve(recipe, bibosa.preferences()));
+    }
+
+    // Rack mode: the recipe on every matching reader with a card at once, dishes as they are served.
+    // At most `parallel` readers at a time; readers without a dish after the timeout fail with
+    // TimeoutException (Duration.ZERO = no timeout).
+    public <T> Stream<FanOut.Result<Dish<T>>> fanOut(Recipe<T> recipe, int parallel, Duration timeout) {
+        return selector.fanOut(parallel, timeout, bibosa -> new SousChef(bibosa).serve(recipe, bibosa.preferences()));
+    }
+
+    // Reader pool behind order(), for queue depth and throughput
+    public synchronized ReaderPool pool() {
+        if (pool == null) {
+            pool = selector.pool();
+        }
+        return pool;
+    }
+
     @Override
-    public void close() {
-        // ReaderSelector doesn't own TerminalManager lifecycle
+    public synchronized void close() {
+        // ReaderSelector doesn't own TerminalManager lifecycle, only the pool is ours
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+        // Pending dishes are still consumed
+        passes.forEach(AsyncPass::close);
+        passes.clear();
     }
 }
@@ -0,0 +1,203 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.apdulette.pcsc;
+
+import apdu4j.apdulette.Dish;
+import apdu4j.apdulette.Recipe;
+import apdu4j.core.MockBIBO;
+import apdu4j.pcsc.Readers;
+import apdu4j.pcsc.TerminalManager;
+import apdu4j.pcsc.sim.SynthesizedCardTerminal;
+import apdu4j.prefs.Preferences;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.testng.Assert.*;
+
+public class AsyncPassTest {
+
+    private static Dish<Integer> dish(int value) {
+        return new Dish<>(value, Preferences.of());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testDishesOfOneReaderInServingOrder() throws Exception {
+        var consumed = new ConcurrentHashMap<String, List<Integer>>();
+        try (var pass = new AsyncPass<Integer>(d -> {
+            sleep(d.value() % 3);
+            consumed.computeIfAbsent(d.preferences().valueOf(Readers.READER_NAME).orElseThrow(), k -> Collections.synchronizedList(new ArrayList<>())).add(d.value());
+        }, (p, e) -> fail("no errors", e), 4)) {
+            // Two reader threads, interleaved on the stage
+            var a = Thread.ofPlatform().start(() -> serve(pass, "Reader A"));
+            var b = Thread.ofPlatform().start(() -> serve(pass, "Reader B"));
+            a.join();
+            b.join();
+        }
+        var expected = new ArrayList<Integer>();
+        for (var i = 0; i < 20; i++) {
+            expected.add(i);
+        }
+        assertEquals(consumed.get("Reader A"), expected);
+        assertEquals(consumed.get("Reader B"), expected);
+    }
+
+    private static void serve(AsyncPass<Integer> pass, String reader) {
+        var prefs = Preferences.of().with(Readers.READER_NAME, reader);
+        try {
+            for (var i = 0; i < 20; i++) {
+                pass.accept(reader, new Dish<>(i, prefs), prefs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testReaderWaitsWhenFull() throws Exception {
+        var gate = new CountDownLatch(1);
+        try (var pass = new AsyncPass<Integer>(d -> {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, (p, e) -> {
+        }, 2)) {
+            pass.accept("Reader A", dish(1), Preferences.of());
+            pass.accept("Reader B", dish(2), Preferences.of());
+            assertEquals(pass.stats().queued(), 2);
+
+            var third = CompletableFuture.runAsync(() -> {
+                try {
+                    pass.accept("Reader A", dish(3), Preferences.of());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            Thread.sleep(200);
+            assertFalse(third.isDone(), "accept() should wait for a free slot");
+
+            gate.countDown();
+            third.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void testStatsAndLag() throws Exception {
+        var errors = new LinkedBlockingQueue<Exception>();
+        var pass = new AsyncPass<Integer>(d -> {
+            sleep(100);
+            if (d.value() == 2) {
+                throw new IllegalStateException("Printer out of paper");
+            }
+        }, (p, e) -> errors.add(e), 4);
+        for (var i = 1; i <= 3; i++) {
+            pass.accept("Reader A", dish(i), Preferences.of());
+        }
+        pass.close();
+
+        var stats = pass.stats();
+        assertEquals(stats.served(), 3);
+        assertEquals(stats.consumed(), 2);
+        assertEquals(stats.failed(), 1);
+        assertEquals(stats.queued(), 0);
+        assertEquals(stats.capacity(), 4);
+        // The third dish waited for the two before it, sleep granularity aside
+        assertTrue(stats.maxLag().toMillis() >= 150, stats.toString());
+        assertTrue(stats.lag().compareTo(stats.maxLag()) <= 0, stats.toString());
+        assertEquals(errors.poll().getMessage(), "Printer out of paper");
+    }
+
+    @Test
+    void testCloseConsumesHandedOverDishes() throws Exception {
+        var consumed = new LinkedBlockingQueue<Integer>();
+        var pass = new AsyncPass<Integer>(d -> {
+            sleep(100);
+            consumed.add(d.value());
+        }, (p, e) -> {
+        }, 4);
+        pass.accept("Reader A", dish(1), Preferences.of());
+        pass.accept("Reader A", dish(2), Preferences.of());
+        pass.close();
+        assertEquals(List.copyOf(consumed), List.of(1, 2));
+
+        // Refused after close, without taking a slot
+        assertThrows(RejectedExecutionException.class, () -> pass.accept("Reader A", dish(3), Preferences.of()));
+        assertEquals(pass.stats().queued(), 0);
+        assertEquals(pass.stats().served(), 2);
+    }
+
+    @Test
+    void testInterruptedHandOverIsReported() throws Exception {
+        var terminal = new SynthesizedCardTerminal("Kitchen Reader");
+        try (var mgr = TerminalManager.managerOf(terminal)) {
+            assertTrue(mgr.awaitInitialScan(Duration.ofSeconds(5)));
+            var kitchen = new PCSCKitchenManager(Readers.select(mgr), Preferences.of());
+            var gate = new CountDownLatch(1);
+            var errors = new LinkedBlockingQueue<Exception>();
+            var pass = kitchen.kitchenPass(Recipe.premade(1), d -> {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, (p, e) -> errors.add(e), 1);
+            var executor = mgr.executor("Kitchen Reader");
+            var reader = new AtomicReference<Thread>();
+            executor.run(() -> reader.set(Thread.currentThread())).get(5, TimeUnit.SECONDS);
+
+            // First tap fills the stage, the second waits in accept() on the reader thread
+            terminal.presentFactory(n -> MockBIBO.of(), SynthesizedCardTerminal.defaultAtr());
+            awaitTrue(() -> pass.stats().served() == 1);
+            terminal.yank();
+            assertTrue(mgr.awaitReaders(l -> !l.get(0).present(), Duration.ofSeconds(5)));
+            terminal.presentFactory(n -> MockBIBO.of(), SynthesizedCardTerminal.defaultAtr());
+            // The first tap may still be handing over (the stage starts its thread): wait for the second session
+            awaitTrue(() -> mgr.taps().counts().dispatched() == 2 && inAccept(reader.get()));
+            reader.get().interrupt();
+
+            assertTrue(errors.poll(5, TimeUnit.SECONDS) instanceof InterruptedException);
+            // The reader thread keeps working
+            assertNull(executor.run(() -> {
+            }).get(5, TimeUnit.SECONDS));
+            gate.countDown();
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static boolean inAccept(Thread thread) {
+        for (var frame : thread.getStackTrace()) {
+            if (frame.getClassName().equals(AsyncPass.class.getName()) && frame.getMethodName().equals("accept")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
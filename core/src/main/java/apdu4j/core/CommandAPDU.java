@@ -108,28 +108,33 @@ public record CommandAPDU(byte[] apdu) {
     // === formatting ===
 
     public String toLogString() {
-        var sb = new StringBuilder();
+        return appendLogString(new StringBuilder(apdu.length * 2 + 3), apdu).toString();
+    }
+
+    // Appends the log form of raw APDU bytes (header, Lc, data, Le separated by spaces) without copying ranges.
+    // Throws IllegalArgumentException on malformed APDUs, before anything is appended.
+    public static StringBuilder appendLogString(StringBuilder sb, byte[] apdu) {
         int[] fields = parseFields(apdu);
         var nc = fields[0];
         var ne = fields[1];
         var dataOffset = fields[2];
         // Header always first
-        sb.append(HexUtils.bin2hex(Arrays.copyOfRange(apdu, 0, 4)));
+        HexUtils.appendHex(sb, apdu, 0, 4);
         if (apdu.length == 4) {
-            return sb.toString(); // case 1
+            return sb; // case 1
         }
         // Length encoding: everything between header and data (or end if no data)
         if (nc > 0) {
-            sb.append(' ').append(HexUtils.bin2hex(Arrays.copyOfRange(apdu, 4, dataOffset)));
-            sb.append(' ').append(HexUtils.bin2hex(Arrays.copyOfRange(apdu, dataOffset, dataOffset + nc)));
+            HexUtils.appendHex(sb.append(' '), apdu, 4, dataOffset - 4);
+            HexUtils.appendHex(sb.append(' '), apdu, dataOffset, nc);
             if (ne > 0) {
-                sb.append(' ').append(HexUtils.bin2hex(Arrays.copyOfRange(apdu, dataOffset + nc, apdu.length)));
+                HexUtils.appendHex(sb.append(' '), apdu, dataOffset + nc, apdu.length - dataOffset - nc);
             }
         } else {
             // case 2s or 2e: Le encoding after header
-            sb.append(' ').append(HexUtils.bin2hex(Arrays.copyOfRange(apdu, 4, apdu.length)));
+            HexUtils.appendHex(sb.append(' '), apdu, 4, apdu.length - 4);
         }
-        return sb.toString();
+        return sb;
     }
 
     // === equals / hashCode / toString ===
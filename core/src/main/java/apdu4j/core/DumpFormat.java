@@ -6,11 +6,15 @@ import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Pattern;
 
 public final class DumpFormat {
 
+    private static final Pattern TIMING = Pattern.compile("# (?:Received in )?(\\d+)ms");
+
     private DumpFormat() {
     }
 
@@ -38,6 +42,18 @@ public final class DumpFormat {
             }
             throw new IllegalStateException("No PROTOCOL found in dump comments");
         }
+
+        // Response times from "# 12ms" (DumpingBIBO) and "# Received in 12ms" (legacy) comments
+        public List<Duration> timings() {
+            var result = new ArrayList<Duration>();
+            for (var c : comments) {
+                var m = TIMING.matcher(c);
+                if (m.lookingAt()) {
+                    result.add(Duration.ofMillis(Long.parseLong(m.group(1))));
+                }
+            }
+            return result;
+        }
     }
 
     public static DumpData parse(InputStream in) {
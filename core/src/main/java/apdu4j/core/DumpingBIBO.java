@@ -5,10 +5,13 @@ package apdu4j.core;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 public final class DumpingBIBO implements BIBO {
     private final BIBO bibo;
     private final PrintStream out;
+    // Reused ASCII line buffer: hex goes straight from the APDU into it, no Strings in between
+    private byte[] line = new byte[512];
 
     private DumpingBIBO(BIBO bibo, PrintStream out) {
         this.bibo = bibo;
@@ -21,23 +24,46 @@ public final class DumpingBIBO implements BIBO {
         return new DumpingBIBO(bibo, ps);
     }
 
+    // The command is written with its timing and response, so that sessions of other readers
+    // sharing the stream do not land in between
     @Override
     public byte[] transceive(byte[] bytes) throws BIBOException {
-        out.println(HexUtils.bin2hex(bytes));
+        var command = encode(bytes, 0);
         var start = System.nanoTime();
         try {
             var response = bibo.transceive(bytes);
             var elapsed = (System.nanoTime() - start) / 1_000_000;
-            out.println("# %dms".formatted(elapsed));
-            out.println(HexUtils.bin2hex(response));
+            var length = encode(response, command);
+            synchronized (out) {
+                writeLine(0, command);
+                out.println("# %dms".formatted(elapsed));
+                writeLine(command, length);
+            }
             return response;
         } catch (BIBOException e) {
             var elapsed = (System.nanoTime() - start) / 1_000_000;
-            out.println("# %dms %s".formatted(elapsed, e.getMessage()));
+            synchronized (out) {
+                writeLine(0, command);
+                out.println("# %dms %s".formatted(elapsed, e.getMessage()));
+            }
             throw e;
         }
     }
 
+    // Hex of bytes into the line buffer at offset, returns its length
+    private int encode(byte[] bytes, int offset) {
+        var len = offset + bytes.length * 2;
+        if (line.length < len) {
+            line = Arrays.copyOf(line, Math.max(len, line.length * 2));
+        }
+        return HexUtils.encodeHex(bytes, 0, bytes.length, line, offset) - offset;
+    }
+
+    private void writeLine(int offset, int length) {
+        out.write(line, offset, length);
+        out.println();
+    }
+
     @Override
     public void close() {
         out.flush();
@@ -0,0 +1,167 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.core;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+import java.util.random.RandomGenerator;
+
+// Degrades a transport for capacity planning: per-APDU delay from a distribution, error status
+// words, transport exceptions and card removal mid-session, each at a configured rate.
+//
+//   var flaky = FaultInjectionBIBO.wrap(card, Faults.seeded(42)
+//           .withDelay(Delay.normal(Duration.ofMillis(20), Duration.ofMillis(5)))
+//           .withStatusWords(0.01, 0x6F00)
+//           .withErrors(0.001)
+//           .withRemoval(0.0005));
+//
+// The same seed and command sequence give the same faults. Injected status words and errors
+// replace the exchange - the wrapped BIBO does not see the command. After a removal every
+// further transceive fails, like a card that has left the field.
+public final class FaultInjectionBIBO implements BIBO {
+    private final BIBO bibo;
+    private final Faults faults;
+    private final RandomGenerator rng;
+    private boolean removed;
+
+    // Delay distribution, sampled once per APDU
+    @FunctionalInterface
+    public interface Delay {
+        long nanos(RandomGenerator rng);
+
+        static Delay none() {
+            return rng -> 0;
+        }
+
+        static Delay fixed(Duration delay) {
+            var nanos = delay.toNanos();
+            return rng -> nanos;
+        }
+
+        // Gaussian, clamped at zero
+        static Delay normal(Duration mean, Duration stddev) {
+            var m = mean.toNanos();
+            var s = stddev.toNanos();
+            return rng -> Math.max(0, Math.round(m + rng.nextGaussian() * s));
+        }
+
+        // Uniform pick from observed samples
+        static Delay empirical(List<Duration> samples) {
+            if (samples.isEmpty()) {
+                throw new IllegalArgumentException("No samples");
+            }
+            var nanos = samples.stream().mapToLong(Duration::toNanos).toArray();
+            return rng -> nanos[rng.nextInt(nanos.length)];
+        }
+
+        // Response times recorded in a dump ("# 12ms" lines)
+        static Delay fromDump(DumpFormat.DumpData dump) {
+            return empirical(dump.timings());
+        }
+    }
+
+    // Fault rates are probabilities per APDU, 0.0 .. 1.0
+    public record Faults(long seed, Delay delay, double swRate, int sw, double errorRate, double removalRate) {
+        public Faults {
+            Objects.requireNonNull(delay, "delay");
+            checkRate(swRate);
+            checkRate(errorRate);
+            checkRate(removalRate);
+            if (sw < 0 || sw > 0xFFFF || (sw & 0xF000) == 0x9000 || (sw & 0xFF00) == 0x6100) {
+                throw new IllegalArgumentException("Injected SW must be an error status, got %04X".formatted(sw));
+            }
+        }
+
+        public static Faults seeded(long seed) {
+            return new Faults(seed, Delay.none(), 0, 0x6F00, 0, 0);
+        }
+
+        public Faults withSeed(long seed) {
+            return new Faults(seed, delay, swRate, sw, errorRate, removalRate);
+        }
+
+        public Faults withDelay(Delay delay) {
+            return new Faults(seed, delay, swRate, sw, errorRate, removalRate);
+        }
+
+        public Faults withStatusWords(double rate, int sw) {
+            return new Faults(seed, delay, rate, sw, errorRate, removalRate);
+        }
+
+        public Faults withErrors(double rate) {
+            return new Faults(seed, delay, swRate, sw, rate, removalRate);
+        }
+
+        public Faults withRemoval(double rate) {
+            return new Faults(seed, delay, swRate, sw, errorRate, rate);
+        }
+
+        private static void checkRate(double rate) {
+            if (!(rate >= 0.0 && rate <= 1.0)) {
+                throw new IllegalArgumentException("Rate must be 0.0..1.0, got " + rate);
+            }
+        }
+    }
+
+    private FaultInjectionBIBO(BIBO bibo, Faults faults) {
+        this.bibo = bibo;
+        this.faults = faults;
+        this.rng = new SplittableRandom(faults.seed());
+    }
+
+    public static FaultInjectionBIBO wrap(BIBO bibo, Faults faults) {
+        return new FaultInjectionBIBO(bibo, faults);
+    }
+
+    // Factory form, for SynthesizedCardTerminal.presentFactory() and friends. Each BIBO gets
+    // its own generator, seeded from the profile seed and a running index.
+    public static UnaryOperator<BIBO> injector(Faults faults) {
+        var sessions = new AtomicLong();
+        return bibo -> new FaultInjectionBIBO(bibo, faults.withSeed(faults.seed() + sessions.getAndIncrement()));
+    }
+
+    public boolean isRemoved() {
+        return removed;
+    }
+
+    @Override
+    public byte[] transceive(byte[] bytes) throws BIBOException {
+        if (removed) {
+            throw new BIBOException("Card removed");
+        }
+        // Always draw all samples, so one fault does not shift the sequence of the others
+        var delay = faults.delay().nanos(rng);
+        var remove = rng.nextDouble() < faults.removalRate();
+        var error = rng.nextDouble() < faults.errorRate();
+        var sw = rng.nextDouble() < faults.swRate();
+        if (remove) {
+            removed = true;
+            throw new BIBOException("Card removed");
+        }
+        if (delay > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BIBOException("Interrupted", e);
+            }
+        }
+        if (error) {
+            throw new BIBOException("Injected transport error");
+        }
+        if (sw) {
+            return new byte[]{(byte) (faults.sw() >> 8), (byte) faults.sw()};
+        }
+        return bibo.transceive(bytes);
+    }
+
+    @Override
+    public void close() {
+        bibo.close();
+    }
+}
@@ -0,0 +1,196 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Serial;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+// Always-on ring buffer of the last exchanges: raw command and response bytes, time and
+// error, copied into preallocated slots. Nothing is formatted until dump(), which writes
+// DumpFormat (failed commands as comments, so that the dump still parses). Longer APDUs
+// are truncated to the slot size.
+//
+// A failure can carry the dump of the current session (since the last session() mark):
+// attachTo() adds it as a suppressed Trace, so it shows up wherever the exception is logged.
+public final class FlightRecorder {
+    public static final int DEFAULT_SLOTS = 64;
+    public static final int DEFAULT_SLOT_BYTES = 512;
+
+    // Kind of slot
+    private static final byte EXCHANGE = 0;
+    private static final byte FAILURE = 1;
+    private static final byte SESSION = 2; // command = ATR, error = protocol
+
+    private final String name;
+    private final int slotBytes;
+    // Guarded by this
+    private final byte[] kinds;
+    private final byte[][] commands;
+    private final int[] commandLengths;
+    private final byte[][] responses;
+    private final int[] responseLengths;
+    private final long[] times; // epoch millis
+    private final long[] elapsed; // nanos
+    private final String[] errors;
+    private long count;
+    private long since; // where the current session starts
+
+    public FlightRecorder(String name) {
+        this(name, DEFAULT_SLOTS, DEFAULT_SLOT_BYTES);
+    }
+
+    public FlightRecorder(String name, int slots, int slotBytes) {
+        if (slots < 1 || slotBytes < 4) {
+            throw new IllegalArgumentException("Need at least 1 slot of 4 bytes, got %d of %d".formatted(slots, slotBytes));
+        }
+        this.name = name;
+        this.slotBytes = slotBytes;
+        kinds = new byte[slots];
+        commands = new byte[slots][slotBytes];
+        commandLengths = new int[slots];
+        responses = new byte[slots][slotBytes];
+        responseLengths = new int[slots];
+        times = new long[slots];
+        elapsed = new long[slots];
+        errors = new String[slots];
+    }
+
+    // Dump text of a recorder, attached to a failure
+    public static final class Trace extends RuntimeException {
+        @Serial
+        private static final long serialVersionUID = 2918364457093211635L;
+
+        Trace(String dump) {
+            super(dump, null, false, false);
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    // Records every exchange of the wrapped BIBO; a failing exchange carries the session
+    public BIBO wrap(BIBO bibo) {
+        return wrap(bibo, true);
+    }
+
+    // attach = false only records, the caller decides which failures carry the session
+    public BIBO wrap(BIBO bibo, boolean attach) {
+        return new BIBO() {
+            @Override
+            public byte[] transceive(byte[] bytes) throws BIBOException {
+                var start = System.nanoTime();
+                try {
+                    var response = bibo.transceive(bytes);
+                    record(EXCHANGE, bytes, response, System.nanoTime() - start, null);
+                    return response;
+                } catch (BIBOException e) {
+                    record(FAILURE, bytes, null, System.nanoTime() - start, e.getMessage());
+                    throw attach ? attachTo(e) : e;
+                }
+            }
+
+            @Override
+            public void close() {
+                bibo.close();
+            }
+        };
+    }
+
+    // Marks the start of a session; the dump shows ATR and protocol like DumpingBIBO
+    public synchronized void session(byte[] atr, String protocol) {
+        since = count;
+        record(SESSION, atr, null, 0, protocol);
+    }
+
+    public synchronized long count() {
+        return count;
+    }
+
+    public synchronized void clear() {
+        count = 0;
+        since = 0;
+    }
+
+    // Adds the dump of the current session to the failure, unless it (or a cause) already carries one
+    public <T extends Throwable> T attachTo(T failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            for (var s : t.getSuppressed()) {
+                if (s instanceof Trace) {
+                    return failure;
+                }
+            }
+        }
+        var out = new ByteArrayOutputStream();
+        synchronized (this) {
+            dump(out, since);
+        }
+        failure.addSuppressed(new Trace(out.toString(StandardCharsets.UTF_8)));
+        return failure;
+    }
+
+    public synchronized void dump(OutputStream out) {
+        dump(out, 0);
+    }
+
+    private synchronized void dump(OutputStream out, long from) {
+        var ps = new PrintStream(out, false, StandardCharsets.UTF_8);
+        var slots = kinds.length;
+        var first = Math.max(from, count - slots);
+        ps.println("# Flight recorder %s: last %d of %d".formatted(name, count - first, count));
+        for (var n = first; n < count; n++) {
+            var i = (int) (n % slots);
+            switch (kinds[i]) {
+                case SESSION -> {
+                    ps.println("# Session at " + Instant.ofEpochMilli(times[i]));
+                    println(ps, commands[i], commandLengths[i], "# ATR: ");
+                    ps.println("# PROTOCOL: " + errors[i]);
+                    ps.println("#");
+                }
+                case EXCHANGE -> {
+                    println(ps, commands[i], commandLengths[i], "");
+                    ps.println("# %dms".formatted(elapsed[i] / 1_000_000));
+                    println(ps, responses[i], responseLengths[i], "");
+                }
+                default -> {
+                    println(ps, commands[i], commandLengths[i], "# ");
+                    ps.println("# %dms %s at %s".formatted(elapsed[i] / 1_000_000, errors[i], Instant.ofEpochMilli(times[i])));
+                }
+            }
+        }
+        ps.flush();
+    }
+
+    private synchronized void record(byte kind, byte[] command, byte[] response, long nanos, String error) {
+        var i = (int) (count++ % kinds.length);
+        kinds[i] = kind;
+        commandLengths[i] = copy(command, commands[i]);
+        responseLengths[i] = response == null ? 0 : copy(response, responses[i]);
+        times[i] = System.currentTimeMillis();
+        elapsed[i] = nanos;
+        errors[i] = error;
+    }
+
+    // Returns the original length; only slotBytes are kept
+    private int copy(byte[] from, byte[] slot) {
+        System.arraycopy(from, 0, slot, 0, Math.min(from.length, slotBytes));
+        return from.length;
+    }
+
+    private String hex(byte[] slot, int length) {
+        return HexUtils.bin2hex(Arrays.copyOf(slot, Math.min(length, slotBytes)));
+    }
+
+    // Truncation note goes on its own line, hex lines stay parseable
+    private void println(PrintStream ps, byte[] slot, int length, String prefix) {
+        if (length > slotBytes) {
+            ps.println("# %d bytes, first %d kept".formatted(length, slotBytes));
+        }
+        ps.println(prefix + hex(slot, length));
+    }
+}
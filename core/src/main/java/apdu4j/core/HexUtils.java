@@ -2,13 +2,16 @@
 // SPDX-License-Identifier: MIT
 package apdu4j.core;
 
+import java.util.Arrays;
 import java.util.HexFormat;
+import java.util.Objects;
 
 public final class HexUtils {
     private HexUtils() {
     }
 
     private static final HexFormat HEX = HexFormat.of().withUpperCase();
+    private static final char[] DIGITS = "0123456789ABCDEF".toCharArray();
 
     public static byte[] hex2bin(final String hex) {
         return HEX.parseHex(hex);
@@ -18,10 +21,73 @@ public final class HexUtils {
         return HEX.formatHex(bin);
     }
 
+    public static String bin2hex(final byte[] bin, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, bin.length);
+        return HEX.formatHex(bin, offset, offset + length);
+    }
+
+    // Appends uppercase hex of a range straight into the builder - no intermediate copies or Strings
+    public static StringBuilder appendHex(StringBuilder sb, byte[] bin, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, bin.length);
+        sb.ensureCapacity(sb.length() + length * 2);
+        for (int i = offset; i < offset + length; i++) {
+            sb.append(DIGITS[(bin[i] >> 4) & 0x0F]).append(DIGITS[bin[i] & 0x0F]);
+        }
+        return sb;
+    }
+
+    public static StringBuilder appendHex(StringBuilder sb, byte[] bin) {
+        return appendHex(sb, bin, 0, bin.length);
+    }
+
+    // Byte sink variant: writes ASCII hex of a range into dst at dstOffset, returns the offset after the last digit
+    public static int encodeHex(byte[] bin, int offset, int length, byte[] dst, int dstOffset) {
+        Objects.checkFromIndexSize(offset, length, bin.length);
+        Objects.checkFromIndexSize(dstOffset, length * 2, dst.length);
+        var p = dstOffset;
+        for (int i = offset; i < offset + length; i++) {
+            dst[p++] = (byte) DIGITS[(bin[i] >> 4) & 0x0F];
+            dst[p++] = (byte) DIGITS[bin[i] & 0x0F];
+        }
+        return p;
+    }
+
+    // Tolerant single-pass parser for copy-pasted hex: skips whitespace, ':' and ',' separators,
+    // "0x" prefixes and Java "(byte)" casts, in any case.
     public static byte[] stringToBin(String s) {
-        s = s.toUpperCase().replace(" ", "").replace(":", "").replace(",", "");
-        s = s.replace("(BYTE)", "").replace("0X", "");
-        s = s.replace("\n", "").replace("\t", "").replace("\r", "");
-        return HEX.parseHex(s);
+        var out = new byte[s.length() / 2];
+        var n = 0;
+        var high = -1;
+        var i = 0;
+        while (i < s.length()) {
+            var c = s.charAt(i);
+            if (Character.isWhitespace(c) || c == ':' || c == ',') {
+                i++;
+                continue;
+            }
+            if (c == '(' && s.regionMatches(true, i, "(byte)", 0, 6)) {
+                i += 6;
+                continue;
+            }
+            if (c == '0' && i + 1 < s.length() && (s.charAt(i + 1) == 'x' || s.charAt(i + 1) == 'X')) {
+                i += 2;
+                continue;
+            }
+            if (!HexFormat.isHexDigit(c)) {
+                throw new IllegalArgumentException("Invalid hex character '%c' at index %d".formatted(c, i));
+            }
+            var d = HexFormat.fromHexDigit(c);
+            if (high < 0) {
+                high = d;
+            } else {
+                out[n++] = (byte) ((high << 4) | d);
+                high = -1;
+            }
+            i++;
+        }
+        if (high >= 0) {
+            throw new IllegalArgumentException("Odd number of hex digits");
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
     }
 }
@@ -34,35 +34,46 @@ public final class LoggingBIBO implements BIBO {
 
     @Override
     public byte[] transceive(byte[] bytes) throws BIBOException {
-        String cmdLog;
+        var sb = new StringBuilder(prefix.length() + bytes.length * 2 + 16).append(prefix).append(">> ");
+        var mark = sb.length();
         try {
-            cmdLog = new CommandAPDU(bytes).toLogString();
+            CommandAPDU.appendLogString(sb, bytes);
         } catch (IllegalArgumentException e) {
             // Malformed APDU is logged via sink with [malformed] tag, not as exception
-            cmdLog = HexUtils.bin2hex(bytes) + " [malformed]";
+            HexUtils.appendHex(sb.delete(mark, sb.length()), bytes).append(" [malformed]");
         }
-        sink.accept("%s>> %s".formatted(prefix, cmdLog));
+        sink.accept(sb.toString());
         var start = System.nanoTime();
+        sb.setLength(0);
+        sb.append(prefix).append("<< ");
         try {
             var response = bibo.transceive(bytes);
-            sink.accept("%s<< %s (%s)".formatted(prefix, new ResponseAPDU(response).toLogString(), nanoTime(System.nanoTime() - start)));
+            ResponseAPDU.appendLogString(sb, response).append(" (");
+            sink.accept(appendNanoTime(sb, System.nanoTime() - start).append(')').toString());
             return response;
         } catch (BIBOException e) {
-            sink.accept("%s<< [error] %s (%s)".formatted(prefix, e.getMessage(), nanoTime(System.nanoTime() - start)));
+            sb.append("[error] ").append(e.getMessage()).append(" (");
+            sink.accept(appendNanoTime(sb, System.nanoTime() - start).append(')').toString());
             throw e;
         }
     }
 
     public static String nanoTime(long nanos) {
+        return appendNanoTime(new StringBuilder(12), nanos).toString();
+    }
+
+    // Same as nanoTime(), appending to an existing builder
+    public static StringBuilder appendNanoTime(StringBuilder sb, long nanos) {
         long ms = nanos / 1_000_000;
         if (ms > 1000) {
-            return "%ds%dms".formatted(ms / 1000, ms % 1000);
+            return sb.append(ms / 1000).append('s').append(ms % 1000).append("ms");
         }
         if (ms < 3) {
             long us = nanos / 10_000;
-            return "%d.%02dms".formatted(us / 100, us % 100);
+            long frac = us % 100;
+            return sb.append(us / 100).append('.').append(frac < 10 ? "0" : "").append(frac).append("ms");
         }
-        return ms + "ms";
+        return sb.append(ms).append("ms");
     }
 
     @Override
@@ -71,9 +71,17 @@ public record ResponseAPDU(byte[] apdu) {
     }
 
     public String toLogString() {
+        return appendLogString(new StringBuilder(apdu.length * 2 + 1), apdu).toString();
+    }
+
+    // Appends "DATA SW" (or just "SW") of raw response bytes without copying ranges
+    public static StringBuilder appendLogString(StringBuilder sb, byte[] apdu) {
+        if (apdu.length < 2 || apdu.length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Response APDU length must be 2..%d, got %d".formatted(MAX_LENGTH, apdu.length));
+        }
         if (apdu.length > 2) {
-            return HexUtils.bin2hex(getData()) + " " + HexUtils.bin2hex(getSWBytes());
+            HexUtils.appendHex(sb, apdu, 0, apdu.length - 2).append(' ');
         }
-        return HexUtils.bin2hex(apdu);
+        return HexUtils.appendHex(sb, apdu, apdu.length - 2, 2);
     }
 }
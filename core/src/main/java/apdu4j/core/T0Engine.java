@@ -0,0 +1,87 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.core;
+
+import java.util.Arrays;
+
+// T=0 transport in one loop: strips Le from short Case 4 (see T0Stripper), re-issues on
+// 6C XX with the right Le and accumulates 61 XX GET RESPONSE chains into a single buffer.
+// Equivalent to
+//
+//   stack.compose(GetResponseWrapper::wrap, RetryWithRightLengthWrapper::wrap, T0Stripper::wrap)
+//
+// but without parsing every response into ResponseAPDU, rebuilding CommandAPDU for 6C XX
+// retries or concatenating on every 61 XX round. A response that needs no chaining is
+// returned as-is (no copy).
+//
+// 6C XX is only acted upon for Case 1 and Case 2 short commands (including GET RESPONSE),
+// where ISO 7816-3 allows it; anything else is returned to the caller unchanged.
+public final class T0Engine implements BIBO {
+    private final BIBO wrapped;
+
+    public static T0Engine wrap(BIBO bibo) {
+        return new T0Engine(bibo);
+    }
+
+    private T0Engine(BIBO bibo) {
+        this.wrapped = bibo;
+    }
+
+    @Override
+    public byte[] transceive(byte[] command) throws BIBOException {
+        var cmd = T0Stripper.strip(command);
+        var owned = cmd != command; // true when cmd may be patched in place
+        byte[] buffer = null; // accumulated 61 XX data, followed by the final response
+        var length = 0;
+        for (int i = 0; i < GetResponseWrapper.MAX_CHAIN_ROUNDS; i++) {
+            var response = wrapped.transceive(cmd);
+            if (response.length < 2) {
+                throw new BIBOException("Invalid response APDU: " + HexUtils.bin2hex(response));
+            }
+            var sw1 = Byte.toUnsignedInt(response[response.length - 2]);
+            var sw2 = response[response.length - 1];
+            if (sw1 == 0x6C && cmd.length <= 5) {
+                // Wrong length: same command again, with Le from SW2
+                if (cmd.length == 4) {
+                    cmd = Arrays.copyOf(cmd, 5);
+                } else if (!owned) {
+                    cmd = cmd.clone();
+                }
+                owned = true;
+                cmd[4] = sw2;
+                continue;
+            }
+            var dataLength = response.length - 2;
+            if (sw1 == 0x61) {
+                // More data: keep it and fetch the next part. Size for the announced part + SW.
+                var announced = sw2 == 0 ? 256 : Byte.toUnsignedInt(sw2);
+                buffer = ensure(buffer, length + dataLength + announced + 2);
+                System.arraycopy(response, 0, buffer, length, dataLength);
+                length += dataLength;
+                cmd = new byte[]{command[0], (byte) 0xC0, 0x00, 0x00, sw2};
+                owned = true;
+                continue;
+            }
+            if (buffer == null) {
+                return response;
+            }
+            buffer = ensure(buffer, length + response.length);
+            System.arraycopy(response, 0, buffer, length, response.length);
+            length += response.length;
+            return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+        }
+        throw new BIBOException("GET RESPONSE chaining exceeded %d rounds".formatted(GetResponseWrapper.MAX_CHAIN_ROUNDS));
+    }
+
+    private static byte[] ensure(byte[] buffer, int capacity) {
+        if (buffer == null) {
+            return new byte[capacity];
+        }
+        return buffer.length >= capacity ? buffer : Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+    }
+
+    @Override
+    public void close() {
+        wrapped.close();
+    }
+}
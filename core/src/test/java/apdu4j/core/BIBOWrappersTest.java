@@ -6,6 +6,7 @@ import org.testng.annotations.Test;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertThrows;
 
 public class BIBOWrappersTest {
 
@@ -94,4 +95,56 @@ public class BIBOWrappersTest {
                 .transceive(HexUtils.hex2bin("00A4040002AABB00")), HexUtils.hex2bin("CCDD9000"));
     }
 
+    // --- T0Engine ---
+
+    @Test
+    void testT0EngineCase4Chaining() {
+        // Case 4s stripped to Case 3s, 61 XX chained with CLA preserved, data accumulated
+        var mock = MockBIBO.with("80A4040002AABB", "6102")
+                .then("80C0000002", "CCDD6101")
+                .then("80C0000001", "EE9000");
+        assertEquals(T0Engine.wrap(mock).transceive(HexUtils.hex2bin("80A4040002AABB00")),
+                HexUtils.hex2bin("CCDDEE9000"));
+    }
+
+    @Test
+    void testT0EngineWrongLength() {
+        // 6C XX on Case 2s: same command with corrected Le, then 61 XX chaining
+        var mock = MockBIBO.with("00CA9F7F00", "6C05")
+                .then("00CA9F7F05", "01020304056102")
+                .then("00C0000002", "06079000");
+        var command = HexUtils.hex2bin("00CA9F7F00");
+        assertEquals(T0Engine.wrap(mock).transceive(command), HexUtils.hex2bin("010203040506079000"));
+        assertEquals(command, HexUtils.hex2bin("00CA9F7F00"), "caller's command must not be patched");
+
+        // 6C XX in reply to GET RESPONSE is corrected too
+        mock = MockBIBO.with("00B0000000", "AA6110")
+                .then("00C0000010", "6C02")
+                .then("00C0000002", "BBCC9000");
+        assertEquals(T0Engine.wrap(mock).transceive(HexUtils.hex2bin("00B0000000")), HexUtils.hex2bin("AABBCC9000"));
+
+        // 6C XX for Case 3 is not retried
+        assertEquals(T0Engine.wrap(MockBIBO.of("6C10")).transceive(HexUtils.hex2bin("00D6000001AA")), HexUtils.hex2bin("6C10"));
+    }
+
+    @Test
+    void testT0EngineNoCopies() {
+        // Plain response is handed through without copying
+        var response = HexUtils.hex2bin("AABB9000");
+        assertSame(T0Engine.wrap(MockBIBO.of(response)).transceive(HexUtils.hex2bin("00B0000002")), response);
+
+        // Same wire traffic as the composed stack
+        var composed = new BIBOSA(MockBIBO.with("00A4040002AABB", "6102").then("00C0000002", "CCDD9000"))
+                .compose(GetResponseWrapper::wrap, RetryWithRightLengthWrapper::wrap, T0Stripper::wrap);
+        var engine = T0Engine.wrap(MockBIBO.with("00A4040002AABB", "6102").then("00C0000002", "CCDD9000"));
+        assertEquals(engine.transceive(HexUtils.hex2bin("00A4040002AABB00")),
+                composed.transceive(HexUtils.hex2bin("00A4040002AABB00")));
+    }
+
+    @Test
+    void testT0EngineChainLimit() {
+        BIBO endless = bytes -> HexUtils.hex2bin("AA6101");
+        assertThrows(BIBOException.class, () -> T0Engine.wrap(endless).transceive(HexUtils.hex2bin("00B0000000")));
+        assertThrows(BIBOException.class, () -> T0Engine.wrap(bytes -> new byte[1]).transceive(HexUtils.hex2bin("00B0000000")));
+    }
 }
@@ -5,6 +5,9 @@ package apdu4j.core;
 import org.testng.annotations.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
@@ -42,4 +45,38 @@ public class DumpingBIBOTest {
         assertEquals(lines.get(5), "6A88");
     }
 
+    @Test
+    void testSharedStreamKeepsPairsTogether() throws Exception {
+        var out = new ByteArrayOutputStream();
+        var shared = new PrintStream(out, true, StandardCharsets.UTF_8);
+        // Echoes the command with 9000, slowly, so that the two sessions overlap
+        BIBO echo = cmd -> {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return HexUtils.hex2bin(HexUtils.bin2hex(cmd) + "9000");
+        };
+        var threads = new ArrayList<Thread>();
+        for (var reader = 0; reader < 2; reader++) {
+            var ins = reader;
+            var dumping = DumpingBIBO.wrap(echo, shared);
+            threads.add(new Thread(() -> {
+                for (var i = 0; i < 50; i++) {
+                    dumping.transceive(new byte[]{0x00, (byte) ins, 0x00, (byte) i});
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (var t : threads) {
+            t.join();
+        }
+        var lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(lines.size(), 2 * 50 * 3);
+        for (var i = 0; i < lines.size(); i += 3) {
+            assertTrue(lines.get(i + 1).startsWith("# "), lines.get(i + 1));
+            assertEquals(lines.get(i + 2), lines.get(i) + "9000");
+        }
+    }
 }
@@ -0,0 +1,132 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.core;
+
+import apdu4j.core.FaultInjectionBIBO.Delay;
+import apdu4j.core.FaultInjectionBIBO.Faults;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+public class FaultInjectionBIBOTest {
+    static final byte[] CMD = HexUtils.hex2bin("00B0000000");
+
+    // Outcome per APDU: response hex, "E" for exception, "R" for removal
+    static List<String> run(Faults faults, int n) {
+        var bibo = FaultInjectionBIBO.wrap(bytes -> HexUtils.hex2bin("9000"), faults);
+        var result = new ArrayList<String>();
+        for (int i = 0; i < n; i++) {
+            try {
+                result.add(HexUtils.bin2hex(bibo.transceive(CMD)));
+            } catch (BIBOException e) {
+                result.add(bibo.isRemoved() ? "R" : "E");
+            }
+        }
+        return result;
+    }
+
+    // === Positive: passthrough and reproducibility ===
+
+    @Test
+    void testNoFaultsPassesThrough() {
+        var mock = MockBIBO.with("00B0000000", "AABB9000");
+        assertEquals(FaultInjectionBIBO.wrap(mock, Faults.seeded(1)).transceive(CMD), HexUtils.hex2bin("AABB9000"));
+    }
+
+    @Test
+    void testSeededFaultsAreReproducible() {
+        var faults = Faults.seeded(42).withStatusWords(0.2, 0x6F00).withErrors(0.1);
+        var first = run(faults, 500);
+        assertEquals(run(faults, 500), first);
+        assertTrue(first.contains("6F00"));
+        assertTrue(first.contains("E"));
+        assertTrue(first.contains("9000"));
+        var sw = first.stream().filter("6F00"::equals).count();
+        assertTrue(sw > 60 && sw < 140, "~20% injected, got " + sw);
+        assertFalse(run(faults.withSeed(43), 500).equals(first));
+    }
+
+    @Test
+    void testRemovalIsSticky() {
+        var outcomes = run(Faults.seeded(7).withRemoval(0.05), 300);
+        var removed = outcomes.indexOf("R");
+        assertTrue(removed >= 0);
+        assertTrue(outcomes.subList(removed, outcomes.size()).stream().allMatch("R"::equals));
+    }
+
+    // === Delay distributions ===
+
+    @Test
+    void testDelays() {
+        var rng = new SplittableRandom(1);
+        assertEquals(Delay.fixed(Duration.ofMillis(3)).nanos(rng), 3_000_000);
+        var normal = Delay.normal(Duration.ofMillis(10), Duration.ofMillis(20));
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(normal.nanos(rng) >= 0);
+        }
+        var dump = DumpFormat.parse(new ByteArrayInputStream("""
+                # ATR: 3B00
+                00A4040000
+                # Received in 40ms
+                9000
+                00B0000000
+                # 7ms
+                6A82
+                """.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(dump.timings(), List.of(Duration.ofMillis(40), Duration.ofMillis(7)));
+        var empirical = Delay.fromDump(dump);
+        for (int i = 0; i < 100; i++) {
+            var n = empirical.nanos(rng);
+            assertTrue(n == 40_000_000 || n == 7_000_000);
+        }
+        // Delay is applied before the exchange
+        var slow = FaultInjectionBIBO.wrap(MockBIBO.of("9000"), Faults.seeded(1).withDelay(Delay.fixed(Duration.ofMillis(20))));
+        var start = System.nanoTime();
+        slow.transceive(CMD);
+        assertTrue(System.nanoTime() - start >= 20_000_000);
+    }
+
+    // === Negative: configuration ===
+
+    @Test
+    void testInvalidFaults() {
+        assertThrows(IllegalArgumentException.class, () -> Faults.seeded(1).withErrors(1.5));
+        assertThrows(IllegalArgumentException.class, () -> Faults.seeded(1).withRemoval(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> Faults.seeded(1).withStatusWords(0.1, 0x9000));
+        assertThrows(IllegalArgumentException.class, () -> Delay.empirical(List.of()));
+    }
+
+    @Test
+    void testInjectorSeedsPerSession() {
+        var injector = FaultInjectionBIBO.injector(Faults.seeded(5).withErrors(0.5));
+        BIBO ok = bytes -> HexUtils.hex2bin("9000");
+        var a = injector.apply(ok);
+        var b = injector.apply(ok);
+        var outcomesA = new ArrayList<Boolean>();
+        var outcomesB = new ArrayList<Boolean>();
+        for (int i = 0; i < 64; i++) {
+            outcomesA.add(succeeds(a));
+            outcomesB.add(succeeds(b));
+        }
+        assertFalse(outcomesA.equals(outcomesB));
+    }
+
+    static boolean succeeds(BIBO bibo) {
+        try {
+            bibo.transceive(CMD);
+            return true;
+        } catch (BIBOException e) {
+            return false;
+        }
+    }
+}
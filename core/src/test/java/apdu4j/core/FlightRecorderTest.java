@@ -0,0 +1,96 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.core;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import static org.testng.Assert.*;
+
+public class FlightRecorderTest {
+
+    @Test
+    void testDumpParsesAsDumpFormat() {
+        var recorder = new FlightRecorder("Reader");
+        recorder.session(HexUtils.hex2bin("3B00"), "T=1");
+        var bibo = recorder.wrap(MockBIBO.of("9000", "6A82"));
+        bibo.transceive(HexUtils.hex2bin("00A40400"));
+        bibo.transceive(HexUtils.hex2bin("00B00000"));
+
+        var out = new ByteArrayOutputStream();
+        recorder.dump(out);
+        var dump = DumpFormat.parse(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(dump.atr(), HexUtils.hex2bin("3B00"));
+        assertEquals(dump.protocol(), "T=1");
+        assertEquals(dump.commands().size(), 2);
+        assertEquals(dump.responses().get(1), HexUtils.hex2bin("6A82"));
+        assertEquals(dump.timings().size(), 2);
+    }
+
+    @Test
+    void testRingKeepsLastSlots() {
+        var recorder = new FlightRecorder("Reader", 4, 8);
+        var bibo = recorder.wrap(MockBIBO.of("9000", "9000", "9000", "9000", "9000", "9000"));
+        for (int i = 0; i < 6; i++) {
+            bibo.transceive(new byte[]{0x00, (byte) 0xB0, 0x00, (byte) i});
+        }
+        assertEquals(recorder.count(), 6);
+        var out = new ByteArrayOutputStream();
+        recorder.dump(out);
+        var dump = DumpFormat.parse(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(dump.commands().size(), 4);
+        assertEquals(dump.commands().get(0), HexUtils.hex2bin("00B00002"));
+        assertTrue(out.toString().startsWith("# Flight recorder Reader: last 4 of 6"));
+
+        // Longer APDUs keep the first slot bytes
+        var longer = recorder.wrap(MockBIBO.of("9000"));
+        var command = new byte[20];
+        Arrays.fill(command, (byte) 0x11);
+        longer.transceive(command);
+        out.reset();
+        recorder.dump(out);
+        assertTrue(out.toString().contains("# 20 bytes, first 8 kept\n1111111111111111\n"));
+    }
+
+    @Test
+    void testFailureCarriesTrace() {
+        var recorder = new FlightRecorder("Reader");
+        var bibo = recorder.wrap(MockBIBO.with("00A40400", "9000").then("00B00000", "9000"));
+        bibo.transceive(HexUtils.hex2bin("00A40400"));
+        var e = expectThrows(BIBOException.class, () -> bibo.transceive(HexUtils.hex2bin("00CA0000")));
+        assertEquals(e.getSuppressed().length, 1);
+        var trace = e.getSuppressed()[0].getMessage();
+        assertTrue(trace.contains("00A40400\n"));
+        assertTrue(trace.contains("# 00CA0000\n"), trace);
+
+        // Once per failure, also when wrapped
+        var wrapped = new IllegalStateException("session failed", e);
+        assertSame(recorder.attachTo(wrapped), wrapped);
+        assertEquals(wrapped.getSuppressed().length, 0);
+    }
+
+    @Test
+    void testFailureCarriesOnlyItsSession() {
+        var recorder = new FlightRecorder("Reader");
+        recorder.session(HexUtils.hex2bin("3B01"), "T=1");
+        recorder.wrap(MockBIBO.of("9000")).transceive(HexUtils.hex2bin("00A40401"));
+        recorder.session(HexUtils.hex2bin("3B02"), "T=1");
+        var bibo = recorder.wrap(MockBIBO.with("00A40402", "9000"), false);
+        bibo.transceive(HexUtils.hex2bin("00A40402"));
+        var e = expectThrows(BIBOException.class, () -> bibo.transceive(HexUtils.hex2bin("00CA0000")));
+        assertEquals(e.getSuppressed().length, 0); // left to the caller
+
+        var trace = recorder.attachTo(new IllegalStateException("failed")).getSuppressed()[0].getMessage();
+        assertTrue(trace.contains("# ATR: 3B02\n"), trace);
+        assertTrue(trace.contains("# 00CA0000\n"), trace);
+        assertFalse(trace.contains("00A40401"), trace);
+
+        // The on-demand dump has both
+        var out = new ByteArrayOutputStream();
+        recorder.dump(out);
+        assertTrue(out.toString().contains("00A40401\n"));
+    }
+}
@@ -0,0 +1,61 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.core;
+
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+
+public class HexUtilsTest {
+
+    // === Positive: range encoders ===
+
+    @Test
+    void testAppendHexRange() {
+        var bin = HexUtils.hex2bin("00A4040007A0000000628101");
+        var sb = new StringBuilder(">> ");
+        HexUtils.appendHex(sb, bin, 5, 7);
+        assertEquals(sb.toString(), ">> A0000000628101");
+        assertEquals(HexUtils.appendHex(new StringBuilder(), new byte[]{(byte) 0xFF, 0x0F}).toString(), "FF0F");
+        assertEquals(HexUtils.bin2hex(bin, 0, 4), "00A40400");
+    }
+
+    @Test
+    void testEncodeHexByteSink() {
+        var dst = new byte[8];
+        dst[0] = '#';
+        var end = HexUtils.encodeHex(HexUtils.hex2bin("CAFE9000"), 1, 2, dst, 1);
+        assertEquals(end, 5);
+        assertEquals(new String(dst, 0, end, StandardCharsets.US_ASCII), "#FE90");
+        assertThrows(IndexOutOfBoundsException.class, () -> HexUtils.encodeHex(new byte[4], 0, 4, new byte[7], 0));
+    }
+
+    // === Tolerant parser ===
+
+    @Test
+    void testStringToBin() {
+        assertEquals(HexUtils.stringToBin("0xCA, 0xfe :90\t00\r\n"), HexUtils.hex2bin("CAFE9000"));
+        assertEquals(HexUtils.stringToBin("(BYTE)0X00,(byte) 0xA4"), HexUtils.hex2bin("00A4"));
+        assertEquals(HexUtils.stringToBin(""), new byte[0]);
+        assertThrows(IllegalArgumentException.class, () -> HexUtils.stringToBin("ABC"));
+        assertThrows(IllegalArgumentException.class, () -> HexUtils.stringToBin("GG"));
+    }
+
+    // === Log strings match the copying implementation ===
+
+    @Test
+    void testLogStrings() {
+        assertEquals(CommandAPDU.of("00A4040007A000000062810100").toLogString(), "00A40400 07 A0000000628101 00");
+        assertEquals(CommandAPDU.of("00B00000000002DEAD0100").toLogString(), "00B00000 000002 DEAD 0100");
+        assertEquals(CommandAPDU.of("00CA0000000100").toLogString(), "00CA0000 000100");
+        assertEquals(ResponseAPDU.of("AABB9000").toLogString(), "AABB 9000");
+        assertEquals(ResponseAPDU.of(0x6A82).toLogString(), "6A82");
+        assertThrows(IllegalArgumentException.class, () -> ResponseAPDU.appendLogString(new StringBuilder(), new byte[1]));
+        assertEquals(LoggingBIBO.nanoTime(1_234_567), "1.23ms");
+        assertEquals(LoggingBIBO.nanoTime(1_050_000), "1.05ms");
+        assertEquals(LoggingBIBO.nanoTime(2_500_000_000L), "2s500ms");
+    }
+}
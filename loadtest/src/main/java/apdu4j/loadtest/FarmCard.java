@@ -0,0 +1,32 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.loadtest;
+
+import apdu4j.core.BIBO;
+import apdu4j.core.BIBOException;
+
+import java.util.concurrent.locks.LockSupport;
+
+// Simulated card: a FileSystemCard of the farm image that answers after a fixed latency.
+// Parks instead of sleeping so sub-millisecond latencies are honored.
+final class FarmCard implements BIBO {
+    private final BIBO card;
+    private final long latencyNanos;
+
+    FarmCard(BIBO card, long latencyNanos) {
+        this.card = card;
+        this.latencyNanos = latencyNanos;
+    }
+
+    @Override
+    public byte[] transceive(byte[] command) throws BIBOException {
+        if (latencyNanos > 0) {
+            var deadline = System.nanoTime() + latencyNanos;
+            long left;
+            while ((left = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(left);
+            }
+        }
+        return card.transceive(command);
+    }
+}
@@ -0,0 +1,37 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.loadtest;
+
+import java.util.Arrays;
+
+// Collects nanosecond samples into a growable array; percentiles are computed once at the end.
+// Synchronized: samples arrive at card speed (milliseconds), contention is not a concern.
+final class LatencyRecorder {
+    private long[] samples = new long[1024];
+    private int count;
+
+    synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    synchronized Summary summary() {
+        var sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new Summary(count, at(sorted, 0.50), at(sorted, 0.90), at(sorted, 0.99), count == 0 ? 0 : sorted[count - 1]);
+    }
+
+    private static long at(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        var index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    // Nanoseconds
+    record Summary(int count, long p50, long p90, long p99, long max) {
+    }
+}
@@ -0,0 +1,81 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.loadtest;
+
+import apdu4j.core.HexUtils;
+
+import java.time.Duration;
+
+// One load test run: farm size, card behavior and tap rate.
+// Every reader gets a tap every tapInterval (if the previous card has left); each tap runs
+// one session of apdus READ BINARY commands of a file with data, every command answered after
+// apduLatency. With a dwell the card is pulled that long after the tap, done or not;
+// Duration.ZERO leaves it until the session ends.
+public record LoadProfile(int readers, Mode mode, Duration duration, Duration warmup, Duration tapInterval,
+                          Duration dwell, int apdus, Duration apduLatency, String protocol, byte[] atr, byte[] data) {
+
+    // Which public API drives the sessions
+    public enum Mode {
+        ONCARD,  // ReaderSelector.onCard with raw BIBO
+        KITCHEN  // PCSCKitchenManager.kitchenPass with a recipe
+    }
+
+    public LoadProfile {
+        if (readers < 1) {
+            throw new IllegalArgumentException("Need at least one reader");
+        }
+        if (apdus < 1) {
+            throw new IllegalArgumentException("Sessions must send at least one APDU");
+        }
+        if (tapInterval.isNegative() || tapInterval.isZero()) {
+            throw new IllegalArgumentException("Tap interval must be positive");
+        }
+        if (dwell.isNegative()) {
+            throw new IllegalArgumentException("Dwell must not be negative");
+        }
+        if (data.length < 1 || data.length > 256) {
+            throw new IllegalArgumentException("File data must be 1..256 bytes");
+        }
+        atr = atr.clone();
+        data = data.clone();
+    }
+
+    public static LoadProfile defaults() {
+        return new LoadProfile(8, Mode.ONCARD, Duration.ofSeconds(10), Duration.ofSeconds(2), Duration.ofMillis(200),
+                Duration.ZERO, 4, Duration.ofMillis(1), "T=1", HexUtils.hex2bin("3B00"), HexUtils.hex2bin("0102030405060708"));
+    }
+
+    public LoadProfile withReaders(int readers) {
+        return new LoadProfile(readers, mode, duration, warmup, tapInterval, dwell, apdus, apduLatency, protocol, atr, data);
+    }
+
+    public LoadProfile withMode(Mode mode) {
+        return new LoadProfile(readers, mode, duration, warmup, tapInterval, dwell, apdus, apduLatency, protocol, atr, data);
+    }
+
+    public LoadProfile withDuration(Duration duration, Duration warmup) {
+        return new LoadProfile(readers, mode, duration, warmup, tapInterval, dwell, apdus, apduLatency, protocol, atr, data);
+    }
+
+    public LoadProfile withTaps(Duration tapInterval, int apdus) {
+        return new LoadProfile(readers, mode, duration, warmup, tapInterval, dwell, apdus, apduLatency, protocol, atr, data);
+    }
+
+    public LoadProfile withDwell(Duration dwell) {
+        return new LoadProfile(readers, mode, duration, warmup, tapInterval, dwell, apdus, apduLatency, protocol, atr, data);
+    }
+
+    public LoadProfile withCard(Duration apduLatency, String protocol, byte[] atr, byte[] data) {
+        return new LoadProfile(readers, mode, duration, warmup, tapInterval, dwell, apdus, apduLatency, protocol, atr, data);
+    }
+
+    @Override
+    public byte[] atr() {
+        return atr.clone();
+    }
+
+    @Override
+    public byte[] data() {
+        return data.clone();
+    }
+}
@@ -0,0 +1,75 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.loadtest;
+
+import apdu4j.loadtest.LatencyRecorder.Summary;
+
+import java.time.Duration;
+
+// Measurements of one run, taken over the measurement window (warmup excluded).
+// Latencies: tap -> handler entry, or the first recipe step with KITCHEN (dispatch), tap -> session
+// done (session), single command through the API, a recipe step with KITCHEN (apdu). APDU-s are
+// those of completed sessions. pulled = cards taken out after the dwell of the profile.
+// allocatedBytes is the heap allocation of the whole JVM, harness and exited threads included
+// (com.sun.management.ThreadMXBean total), -1 where the JVM does not measure it.
+public record LoadReport(LoadProfile profile, Duration elapsed, long sessions, long apdus, long errors,
+                         long taps, long missed, long pulled, Summary dispatch, Summary session, Summary apdu,
+                         int peakThreads, int liveThreads, long allocatedBytes, long gcCount) {
+
+    public double sessionsPerSecond() {
+        return perSecond(sessions);
+    }
+
+    public double apdusPerSecond() {
+        return perSecond(apdus);
+    }
+
+    public double allocatedMBPerSecond() {
+        return allocatedBytes < 0 ? -1 : perSecond(allocatedBytes) / (1024 * 1024);
+    }
+
+    // Share of taps that found the reader still busy with the previous card
+    public double missedRatio() {
+        return taps == 0 ? 0 : (double) missed / taps;
+    }
+
+    private double perSecond(long n) {
+        var nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : n * 1e9 / nanos;
+    }
+
+    public static String header() {
+        return "%7s %9s %9s %7s %8s %8s %8s %8s %8s %7s %10s %6s".formatted(
+                "readers", "sess/s", "apdu/s", "miss%", "disp p50", "disp p99", "sess p50", "sess p99", "sess max",
+                "threads", "alloc MB/s", "errors");
+    }
+
+    public String row() {
+        return "%7d %9.1f %9.1f %6.1f%% %8s %8s %8s %8s %8s %7d %10.1f %6d".formatted(
+                profile.readers(), sessionsPerSecond(), apdusPerSecond(), missedRatio() * 100,
+                ms(dispatch.p50()), ms(dispatch.p99()), ms(session.p50()), ms(session.p99()), ms(session.max()),
+                peakThreads, allocatedMBPerSecond(), errors);
+    }
+
+    static String ms(long nanos) {
+        return "%.2fms".formatted(nanos / 1e6);
+    }
+
+    @Override
+    public String toString() {
+        return """
+                %d readers, %s mode, %d APDU-s per tap every %dms, %s APDU latency, %dms dwell
+                sessions: %d (%.1f/s), APDU-s: %d (%.1f/s), errors: %d, missed taps: %d of %d, pulled: %d
+                dispatch: p50 %s p90 %s p99 %s max %s
+                session:  p50 %s p90 %s p99 %s max %s
+                apdu:     p50 %s p90 %s p99 %s max %s
+                threads: %d peak, %d live; allocated %.1f MB/s; %d GC-s""".formatted(
+                profile.readers(), profile.mode(), profile.apdus(), profile.tapInterval().toMillis(), ms(profile.apduLatency().toNanos()),
+                profile.dwell().toMillis(),
+                sessions, sessionsPerSecond(), apdus, apdusPerSecond(), errors, missed, taps, pulled,
+                ms(dispatch.p50()), ms(dispatch.p90()), ms(dispatch.p99()), ms(dispatch.max()),
+                ms(session.p50()), ms(session.p90()), ms(session.p99()), ms(session.max()),
+                ms(apdu.p50()), ms(apdu.p90()), ms(apdu.p99()), ms(apdu.max()),
+                peakThreads, liveThreads, allocatedMBPerSecond(), gcCount);
+    }
+}
@@ -0,0 +1,154 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.loadtest;
+
+import apdu4j.apdulette.Cookbook;
+import apdu4j.apdulette.Recipe;
+import apdu4j.apdulette.pcsc.PCSCKitchenManager;
+import apdu4j.core.BIBOException;
+import apdu4j.core.CommandAPDU;
+import apdu4j.core.ResponseAPDU;
+import apdu4j.pcsc.Readers;
+import apdu4j.pcsc.TerminalManager;
+import apdu4j.prefs.Preferences;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs one LoadProfile against a fresh ReaderFarm through the public TerminalManager/ReaderSelector API.
+// Everything - sessions, APDU-s, errors, latencies - is counted only inside the measurement window.
+public final class LoadRunner {
+    private final LoadProfile profile;
+    private final CommandAPDU command;
+    private final LatencyRecorder dispatch = new LatencyRecorder();
+    private final LatencyRecorder session = new LatencyRecorder();
+    private final LatencyRecorder apdu = new LatencyRecorder();
+    private final AtomicLong sessions = new AtomicLong();
+    private final AtomicLong apdus = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private volatile boolean measuring;
+
+    private LoadRunner(LoadProfile profile) {
+        this.profile = profile;
+        this.command = ReaderFarm.command(profile);
+    }
+
+    public static LoadReport run(LoadProfile profile) throws InterruptedException {
+        return new LoadRunner(profile).run();
+    }
+
+    private LoadReport run() throws InterruptedException {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var allocation = threads.isThreadAllocatedMemorySupported();
+        if (allocation) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+        try (var farm = new ReaderFarm(profile); var mgr = new TerminalManager(farm.factory());
+             var kitchen = new PCSCKitchenManager(Readers.select(mgr), Preferences.of())) {
+            switch (profile.mode()) {
+                case ONCARD -> Readers.select(mgr).onCard((reader, bibo) -> {
+                    dispatched(farm.sinceTap(reader.name(), System.nanoTime()));
+                    var bytes = command.getBytes();
+                    try {
+                        for (int i = 0; i < profile.apdus(); i++) {
+                            var t = System.nanoTime();
+                            bibo.transceive(bytes);
+                            sent(t);
+                        }
+                        done(farm.sinceTap(reader.name(), System.nanoTime()), profile.apdus());
+                    } catch (BIBOException e) {
+                        failed();
+                    }
+                });
+                case KITCHEN -> {
+                    // Steps are prepared as the chef gets to them: the first one is the dispatch
+                    var steps = Collections.nCopies(profile.apdus(), command).stream().map(this::timed).toList();
+                    var recipe = Cookbook.deferred(prefs -> {
+                        dispatched(farm.sinceTap(prefs.valueOf(Readers.READER_NAME).orElse(""), System.nanoTime()));
+                        return Cookbook.sequence(steps);
+                    });
+                    kitchen.kitchenPass(recipe, dish -> {
+                        var reader = dish.preferences().valueOf(Readers.READER_NAME).orElse("");
+                        done(farm.sinceTap(reader, System.nanoTime()), dish.value().size());
+                    }, (prefs, e) -> failed());
+                }
+            }
+            if (!mgr.awaitInitialScan(Duration.ofSeconds(10))) {
+                throw new IllegalStateException("Monitor did not complete initial scan");
+            }
+            farm.start();
+            TimeUnit.NANOSECONDS.sleep(profile.warmup().toNanos());
+
+            // Measurement window
+            var taps = farm.taps.get();
+            var missed = farm.missed.get();
+            var pulled = farm.pulled.get();
+            threads.resetPeakThreadCount();
+            var allocated = allocation ? threads.getTotalThreadAllocatedBytes() : 0;
+            var gcs = gcCount();
+            var start = System.nanoTime();
+            measuring = true;
+            TimeUnit.NANOSECONDS.sleep(profile.duration().toNanos());
+            measuring = false;
+            var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            return new LoadReport(profile, elapsed, sessions.get(), apdus.get(), errors.get(),
+                    farm.taps.get() - taps, farm.missed.get() - missed, farm.pulled.get() - pulled,
+                    dispatch.summary(), session.summary(), apdu.summary(),
+                    threads.getPeakThreadCount(), threads.getThreadCount(),
+                    allocation ? threads.getTotalThreadAllocatedBytes() - allocated : -1, gcCount() - gcs);
+        }
+    }
+
+    // One command of a recipe, timed from when the chef gets to it until its response is tasted
+    private Recipe<ResponseAPDU> timed(CommandAPDU command) {
+        return Cookbook.deferred(prefs -> {
+            var t = System.nanoTime();
+            return Cookbook.send(command, Cookbook.any()).map(response -> {
+                sent(t);
+                return response;
+            });
+        });
+    }
+
+    private void dispatched(long nanos) {
+        if (measuring && nanos >= 0) {
+            dispatch.record(nanos);
+        }
+    }
+
+    private void sent(long start) {
+        if (measuring) {
+            apdu.record(System.nanoTime() - start);
+        }
+    }
+
+    // APDU-s are those the session got responses to
+    private void done(long sessionNanos, int commands) {
+        if (!measuring) {
+            return;
+        }
+        sessions.incrementAndGet();
+        apdus.addAndGet(commands);
+        if (sessionNanos >= 0) {
+            session.record(sessionNanos);
+        }
+    }
+
+    private void failed() {
+        if (measuring) {
+            errors.incrementAndGet();
+        }
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .filter(c -> c > 0)
+                .sum();
+    }
+}
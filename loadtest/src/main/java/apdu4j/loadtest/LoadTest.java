@@ -0,0 +1,67 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.loadtest;
+
+import apdu4j.core.HexUtils;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+// Sweeps reader counts over a simulated farm to find where the monitor/executor design stops scaling.
+// Watch for the row where sess/s stops growing with readers while miss% and dispatch latency climb.
+@Command(name = "apdu4j-loadtest", mixinStandardHelpOptions = true,
+        description = "Load test apdu4j against simulated reader farms")
+public final class LoadTest implements Callable<Integer> {
+    @Option(names = {"-n", "--readers"}, split = ",", description = "Reader counts to sweep (default: ${DEFAULT-VALUE})", defaultValue = "1,2,4,8,16,32,64")
+    List<Integer> readers = new ArrayList<>();
+    @Option(names = {"-m", "--mode"}, description = "Session driver: ${COMPLETION-CANDIDATES} (default: ${DEFAULT-VALUE})", defaultValue = "ONCARD")
+    LoadProfile.Mode mode;
+    @Option(names = {"-t", "--duration"}, description = "Measurement seconds per step (default: ${DEFAULT-VALUE})", defaultValue = "10")
+    int duration;
+    @Option(names = {"-w", "--warmup"}, description = "Warmup seconds per step (default: ${DEFAULT-VALUE})", defaultValue = "2")
+    int warmup;
+    @Option(names = {"-i", "--tap-interval"}, description = "Milliseconds between taps on a reader (default: ${DEFAULT-VALUE})", defaultValue = "200")
+    long tapInterval;
+    @Option(names = {"-d", "--dwell"}, description = "Milliseconds a card stays in the reader, 0 = until its session ends (default: ${DEFAULT-VALUE})", defaultValue = "0")
+    long dwell;
+    @Option(names = {"-a", "--apdus"}, description = "APDU-s per session (default: ${DEFAULT-VALUE})", defaultValue = "4")
+    int apdus;
+    @Option(names = {"-l", "--latency"}, description = "Card latency per APDU in microseconds (default: ${DEFAULT-VALUE})", defaultValue = "1000")
+    long latency;
+    @Option(names = {"-p", "--protocol"}, description = "Protocol reported by readers (default: ${DEFAULT-VALUE})", defaultValue = "T=1")
+    String protocol;
+    @Option(names = {"--atr"}, description = "Card ATR (default: ${DEFAULT-VALUE})", defaultValue = "3B00")
+    String atr;
+    @Option(names = {"--data"}, description = "Content of the file every command reads, 1..256 bytes (default: ${DEFAULT-VALUE})", defaultValue = "0102030405060708")
+    String data;
+    @Option(names = {"-v", "--verbose"}, description = "Print full report per step")
+    boolean verbose;
+
+    public static void main(String[] args) {
+        System.exit(new CommandLine(new LoadTest()).execute(args));
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        var base = LoadProfile.defaults()
+                .withMode(mode)
+                .withDuration(Duration.ofSeconds(duration), Duration.ofSeconds(warmup))
+                .withTaps(Duration.ofMillis(tapInterval), apdus)
+                .withDwell(Duration.ofMillis(dwell))
+                .withCard(Duration.ofNanos(latency * 1000), protocol, HexUtils.hex2bin(atr), HexUtils.hex2bin(data));
+        System.out.println(LoadReport.header());
+        for (var n : readers) {
+            var report = LoadRunner.run(base.withReaders(n));
+            System.out.println(report.row());
+            if (verbose) {
+                System.out.println(report);
+            }
+        }
+        return 0;
+    }
+}
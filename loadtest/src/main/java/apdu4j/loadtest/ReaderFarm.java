@@ -0,0 +1,131 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.loadtest;
+
+import apdu4j.core.CommandAPDU;
+import apdu4j.pcsc.sim.FileSystemCard;
+import apdu4j.pcsc.sim.SynthesizedCardTerminal;
+import apdu4j.pcsc.sim.SynthesizedCardTerminals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.smartcardio.TerminalFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// N synthesized readers plus a "hand" that taps a fresh card on every reader once per tap interval.
+// A tap that finds the previous card still in the reader counts as missed - the farm is saturated.
+// Cards are single-session: the simulator removes them on disconnect(reset), which ends the session,
+// or the hand pulls them after the dwell of the profile. Every card is a FileSystemCard of one image.
+final class ReaderFarm implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ReaderFarm.class);
+    // Transparent EF with SFI 1 in the MF, holding the data of the profile
+    static final int FILE = 0x0101;
+
+    private final LoadProfile profile;
+    private final FileSystemCard.Image image;
+    private final SynthesizedCardTerminals terminals = new SynthesizedCardTerminals();
+    private final Map<String, Slot> slots = new HashMap<>(); // read-only after construction
+    private final ScheduledExecutorService hand = Executors.newSingleThreadScheduledExecutor(r -> {
+        var t = new Thread(r, "Farm hand");
+        t.setDaemon(true);
+        return t;
+    });
+
+    final AtomicLong taps = new AtomicLong();
+    final AtomicLong missed = new AtomicLong();
+    final AtomicLong pulled = new AtomicLong();
+
+    // Tap time of the card currently in the reader
+    static final class Slot {
+        final SynthesizedCardTerminal terminal;
+        volatile long tappedAt;
+
+        Slot(SynthesizedCardTerminal terminal) {
+            this.terminal = terminal;
+        }
+    }
+
+    ReaderFarm(LoadProfile profile) {
+        this.profile = profile;
+        this.image = FileSystemCard.builder().binary(FILE, profile.data()).build();
+        for (int i = 0; i < profile.readers(); i++) {
+            var t = new SynthesizedCardTerminal("Farm Reader %04d".formatted(i), profile.protocol());
+            terminals.addTerminal(t);
+            slots.put(t.getName(), new Slot(t));
+        }
+    }
+
+    TerminalFactory factory() {
+        return terminals.toFactory();
+    }
+
+    // READ BINARY of the whole file by SFI, what every session sends
+    static CommandAPDU command(LoadProfile profile) {
+        return new CommandAPDU(0x00, 0xB0, 0x80 | (FILE & 0x1F), 0x00, profile.data().length);
+    }
+
+    // Starts tapping, spreading first taps over one interval so readers don't fire in lockstep
+    void start() {
+        var interval = profile.tapInterval().toNanos();
+        var latency = profile.apduLatency().toNanos();
+        for (var slot : slots.values()) {
+            var offset = ThreadLocalRandom.current().nextLong(interval);
+            hand.scheduleAtFixedRate(() -> tap(slot, latency), offset, interval, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void tap(Slot slot, long latency) {
+        taps.incrementAndGet();
+        try {
+            if (slot.terminal.isCardPresent()) {
+                missed.incrementAndGet();
+                return;
+            }
+            var tappedAt = System.nanoTime();
+            slot.tappedAt = tappedAt;
+            slot.terminal.present(new FarmCard(image.newCard(), latency), profile.atr());
+            if (profile.dwell().isPositive()) {
+                hand.schedule(() -> pull(slot, tappedAt), profile.dwell().toNanos(), TimeUnit.NANOSECONDS);
+            }
+        } catch (IllegalStateException e) {
+            missed.incrementAndGet();
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the periodic task
+            logger.warn("Tap on {} failed: {}", slot.terminal.getName(), e.getMessage(), e);
+        }
+    }
+
+    // The card of that tap, if still in the reader
+    private void pull(Slot slot, long tappedAt) {
+        if (slot.tappedAt == tappedAt && slot.terminal.isCardPresent()) {
+            slot.terminal.yank();
+            pulled.incrementAndGet();
+        }
+    }
+
+    // Nanoseconds since the card in the named reader was tapped, or -1 if unknown
+    long sinceTap(String reader, long now) {
+        var slot = slots.get(reader);
+        if (slot == null || slot.tappedAt == 0) {
+            return -1;
+        }
+        return now - slot.tappedAt;
+    }
+
+    @Override
+    public void close() {
+        hand.shutdownNow();
+        try {
+            hand.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        slots.values().forEach(s -> s.terminal.yank());
+    }
+}
@@ -0,0 +1,14 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+module apdu4j.loadtest {
+    requires apdu4j.pcsc;
+    requires apdu4j.pcsc.sim;
+    requires apdu4j.apdulette.pcsc;
+    requires java.management;
+    requires jdk.management;
+    requires org.slf4j;
+    requires info.picocli;
+
+    exports apdu4j.loadtest;
+    opens apdu4j.loadtest to info.picocli;
+}
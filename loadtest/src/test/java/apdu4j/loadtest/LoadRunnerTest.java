@@ -0,0 +1,70 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.loadtest;
+
+import apdu4j.core.HexUtils;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class LoadRunnerTest {
+
+    private static LoadProfile quick(LoadProfile.Mode mode) {
+        return LoadProfile.defaults()
+                .withReaders(4)
+                .withMode(mode)
+                .withDuration(Duration.ofMillis(1500), Duration.ofMillis(300))
+                .withTaps(Duration.ofMillis(50), 3);
+    }
+
+    @Test
+    void testOnCardFarm() throws Exception {
+        var report = LoadRunner.run(quick(LoadProfile.Mode.ONCARD));
+        assertTrue(report.sessions() > 0, report.toString());
+        assertEquals(report.errors(), 0);
+        assertEquals(report.apdus(), report.sessions() * 3);
+        assertTrue(report.session().p50() >= report.dispatch().p50());
+        assertTrue(report.apdu().p50() >= Duration.ofMillis(1).toNanos());
+        assertTrue(report.taps() > 0);
+    }
+
+    @Test
+    void testKitchenFarm() throws Exception {
+        var report = LoadRunner.run(quick(LoadProfile.Mode.KITCHEN));
+        assertTrue(report.sessions() > 0, report.toString());
+        assertEquals(report.errors(), 0);
+        assertEquals(report.apdus(), report.sessions() * 3);
+        assertTrue(report.dispatch().count() > 0, report.toString());
+        assertTrue(report.apdu().p50() >= Duration.ofMillis(1).toNanos(), report.toString());
+        assertTrue(report.row().startsWith("      4"));
+    }
+
+    @Test
+    void testCardsPulledMidSession() throws Exception {
+        // Sessions need 3 x 20ms, cards leave after 10ms
+        var profile = quick(LoadProfile.Mode.ONCARD)
+                .withDwell(Duration.ofMillis(10))
+                .withCard(Duration.ofMillis(20), "T=1", HexUtils.hex2bin("3B00"), HexUtils.hex2bin("CAFE"));
+        var report = LoadRunner.run(profile);
+        assertEquals(report.sessions(), 0, report.toString());
+        assertTrue(report.pulled() > 0, report.toString());
+        assertTrue(report.errors() > 0, report.toString());
+    }
+
+    @Test
+    void testPercentiles() {
+        var recorder = new LatencyRecorder();
+        for (int i = 2000; i >= 1; i--) {
+            recorder.record(i);
+        }
+        var summary = recorder.summary();
+        assertEquals(summary.count(), 2000);
+        assertEquals(summary.p50(), 1000);
+        assertEquals(summary.p99(), 1980);
+        assertEquals(summary.max(), 2000);
+        assertEquals(new LatencyRecorder().summary().max(), 0);
+    }
+}
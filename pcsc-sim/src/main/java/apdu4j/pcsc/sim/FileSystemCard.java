@@ -0,0 +1,653 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.pcsc.sim;
+
+import apdu4j.core.BIBO;
+import apdu4j.core.BIBOException;
+import apdu4j.core.CommandAPDU;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// In-JVM ISO 7816-4 card: MF/DF/EF file system with SELECT (FID, path, DF name), READ/UPDATE BINARY,
+// READ RECORD, MANAGE CHANNEL, GET RESPONSE and configurable command/response size limits.
+//
+// The file system is built once into an immutable Image that any number of cards share:
+//
+//   var image = FileSystemCard.builder()
+//       .binary(0x2F00, dir)
+//       .df(0x5000, aid, app -> app.binary(0x5001, data).records(0x5002, List.of(r1, r2)))
+//       .build();
+//   terminal.presentFactory(p -> image.newCard(), atr);
+//
+// Each card keeps only its channel state and copy-on-write contents of EF-s it has updated,
+// so thousands of instances cost a few objects each. A card is a BIBO: single-threaded by contract.
+public final class FileSystemCard implements BIBO {
+    static final int MF = 0x3F00;
+
+    private static final byte[] SW_OK = {(byte) 0x90, 0x00};
+
+    private final Image image;
+    private final Channel[] channels;
+    private final Map<Binary, byte[]> written = new IdentityHashMap<>();
+    // Response data waiting for GET RESPONSE
+    private byte[] pending;
+    private int pendingOffset;
+    private int pendingSW;
+
+    private FileSystemCard(Image image) {
+        this.image = image;
+        this.channels = new Channel[image.channels];
+        this.channels[0] = new Channel(image.mf);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // --- File system model (immutable once built) ---
+
+    abstract static sealed class Node permits DF, Binary, Records {
+        final int fid;
+        final DF parent;
+
+        Node(int fid, DF parent) {
+            this.fid = fid;
+            this.parent = parent;
+        }
+    }
+
+    static final class DF extends Node {
+        final byte[] aid; // null if the DF has no name
+        Map<Integer, Node> children = new LinkedHashMap<>(); // unmodifiable once in an Image
+
+        DF(int fid, byte[] aid, DF parent) {
+            super(fid, parent);
+            this.aid = aid;
+        }
+
+        EF sfi(int sfi) {
+            for (var child : children.values()) {
+                if (child instanceof EF ef && ef.sfi() == sfi) {
+                    return ef;
+                }
+            }
+            return null;
+        }
+    }
+
+    sealed interface EF permits Binary, Records {
+        // Short EF identifier defaults to the low 5 bits of the FID
+        default int sfi() {
+            return ((Node) this).fid & 0x1F;
+        }
+    }
+
+    static final class Binary extends Node implements EF {
+        final byte[] data;
+
+        Binary(int fid, byte[] data, DF parent) {
+            super(fid, parent);
+            this.data = data;
+        }
+    }
+
+    static final class Records extends Node implements EF {
+        final List<byte[]> records;
+
+        Records(int fid, List<byte[]> records, DF parent) {
+            super(fid, parent);
+            this.records = records;
+        }
+    }
+
+    // Shared, immutable card template: a copy of the tree, so the builder may go on without
+    // changing cards made from it
+    public static final class Image {
+        final DF mf;
+        final List<DF> named; // DF-s with AID-s, in build order
+        final int channels;
+        final int maxCommandData;
+        final int maxResponseData;
+        final boolean t0;
+
+        private Image(Builder b) {
+            var copies = new IdentityHashMap<DF, DF>();
+            this.mf = freeze(b.mf, null, copies);
+            this.named = b.named.stream().map(copies::get).toList();
+            this.channels = b.channels;
+            this.maxCommandData = b.maxCommandData;
+            this.maxResponseData = b.maxResponseData;
+            this.t0 = b.t0;
+        }
+
+        public FileSystemCard newCard() {
+            return new FileSystemCard(this);
+        }
+
+        // File contents are never changed after add(), only the maps are copied
+        private static DF freeze(DF source, DF parent, Map<DF, DF> copies) {
+            var df = new DF(source.fid, source.aid, parent);
+            copies.put(source, df);
+            var children = new LinkedHashMap<Integer, Node>();
+            for (var child : source.children.values()) {
+                Node copy;
+                if (child instanceof DF d) {
+                    copy = freeze(d, df, copies);
+                } else if (child instanceof Binary bin) {
+                    copy = new Binary(bin.fid, bin.data, df);
+                } else {
+                    var rec = (Records) child;
+                    copy = new Records(rec.fid, rec.records, df);
+                }
+                children.put(child.fid, copy);
+            }
+            df.children = Collections.unmodifiableMap(children);
+            return df;
+        }
+    }
+
+    // Builds files under a DF (MF for the root builder)
+    public static class Folder {
+        final DF df;
+        final List<DF> named;
+
+        Folder(DF df, List<DF> named) {
+            this.df = df;
+            this.named = named;
+        }
+
+        public Folder binary(int fid, byte[] data) {
+            return add(new Binary(checkFid(fid), data.clone(), df));
+        }
+
+        public Folder records(int fid, List<byte[]> records) {
+            if (records.size() > 254) {
+                throw new IllegalArgumentException("At most 254 records");
+            }
+            return add(new Records(checkFid(fid), records.stream().map(byte[]::clone).toList(), df));
+        }
+
+        public Folder df(int fid, byte[] aid, Consumer<Folder> contents) {
+            if (aid != null && (aid.length < 1 || aid.length > 16)) {
+                throw new IllegalArgumentException("DF name must be 1..16 bytes");
+            }
+            var child = new DF(checkFid(fid), aid == null ? null : aid.clone(), df);
+            add(child);
+            if (aid != null) {
+                named.add(child);
+            }
+            contents.accept(new Folder(child, named));
+            return this;
+        }
+
+        private Folder add(Node node) {
+            if (df.children.putIfAbsent(node.fid, node) != null) {
+                throw new IllegalArgumentException("Duplicate FID %04X".formatted(node.fid));
+            }
+            return this;
+        }
+
+        private static int checkFid(int fid) {
+            if (fid < 0 || fid > 0xFFFF || fid == MF || fid == 0x3FFF || fid == 0xFFFF) {
+                throw new IllegalArgumentException("Invalid FID %04X".formatted(fid));
+            }
+            return fid;
+        }
+    }
+
+    public static final class Builder extends Folder {
+        final DF mf;
+        int channels = 4;
+        int maxCommandData = 255;
+        int maxResponseData = 256;
+        boolean t0;
+
+        private Builder() {
+            this(new DF(MF, null, null));
+        }
+
+        private Builder(DF mf) {
+            super(mf, new ArrayList<>());
+            this.mf = mf;
+        }
+
+        @Override
+        public Builder binary(int fid, byte[] data) {
+            super.binary(fid, data);
+            return this;
+        }
+
+        @Override
+        public Builder records(int fid, List<byte[]> records) {
+            super.records(fid, records);
+            return this;
+        }
+
+        @Override
+        public Builder df(int fid, byte[] aid, Consumer<Folder> contents) {
+            super.df(fid, aid, contents);
+            return this;
+        }
+
+        // Number of logical channels, including the basic channel (1..20)
+        public Builder channels(int channels) {
+            if (channels < 1 || channels > 20) {
+                throw new IllegalArgumentException("Channels must be 1..20");
+            }
+            this.channels = channels;
+            return this;
+        }
+
+        // Largest accepted Nc; over 255 enables extended length commands
+        public Builder maxCommandData(int max) {
+            if (max < 1 || max > 65535) {
+                throw new IllegalArgumentException("Max command data must be 1..65535");
+            }
+            this.maxCommandData = max;
+            return this;
+        }
+
+        // Largest response data sent at once; the rest is announced with 61 XX for GET RESPONSE
+        public Builder maxResponseData(int max) {
+            if (max < 1 || max > 65536) {
+                throw new IllegalArgumentException("Max response data must be 1..65536");
+            }
+            this.maxResponseData = max;
+            return this;
+        }
+
+        // T=0 behavior: Case 4 commands answer 61 XX and data must be fetched with GET RESPONSE
+        public Builder t0(boolean t0) {
+            this.t0 = t0;
+            return this;
+        }
+
+        public Image build() {
+            return new Image(this);
+        }
+    }
+
+    // --- Card ---
+
+    // Selection state of a logical channel
+    private static final class Channel {
+        DF df;
+        Node ef;
+
+        Channel(DF df) {
+            this.df = df;
+        }
+
+        Channel(Channel other) {
+            this.df = other.df;
+            this.ef = other.ef;
+        }
+    }
+
+    @Override
+    public byte[] transceive(byte[] bytes) throws BIBOException {
+        final CommandAPDU c;
+        try {
+            c = new CommandAPDU(bytes);
+        } catch (IllegalArgumentException e) {
+            return sw(0x6700);
+        }
+        var cla = c.getCLA();
+        var ins = c.getINS();
+        if (cla == 0xFF) {
+            return sw(0x6E00);
+        }
+        if (ins != 0xC0) {
+            pending = null;
+        }
+        if ((cla & 0x80) == 0 && (cla & 0x10) != 0) {
+            return sw(0x6884); // command chaining not supported
+        }
+        var extended = bytes.length >= 7 && bytes[4] == 0;
+        if (extended && image.maxCommandData <= 255 && image.maxResponseData <= 256) {
+            return sw(0x6700);
+        }
+        if (c.getNc() > image.maxCommandData) {
+            return sw(0x6700);
+        }
+        var n = (cla & 0x40) != 0 ? 4 + (cla & 0x0F) : cla & 0x03;
+        if (n >= channels.length || channels[n] == null) {
+            return sw(0x6881);
+        }
+        var ch = channels[n];
+        return switch (ins) {
+            case 0xA4 -> select(ch, c);
+            case 0xB0 -> readBinary(ch, c);
+            case 0xD6 -> updateBinary(ch, c);
+            case 0xB2 -> readRecord(ch, c);
+            case 0xC0 -> getResponse(c);
+            case 0x70 -> manageChannel(n, c);
+            default -> sw(0x6D00);
+        };
+    }
+
+    // --- SELECT ---
+
+    private byte[] select(Channel ch, CommandAPDU c) {
+        var p1 = c.getP1();
+        var p2 = c.getP2();
+        if (p2 != 0x00 && p2 != 0x04 && p2 != 0x0C) {
+            return sw(0x6A86);
+        }
+        if (p1 > 0x09 || (p1 > 0x04 && p1 < 0x08)) {
+            return sw(0x6A86);
+        }
+        var data = c.getData();
+        var node = switch (p1) {
+            case 0x00 -> data.length == 0 ? image.mf : data.length == 2 ? byFid(ch.df, fid(data, 0)) : null;
+            case 0x01 -> data.length == 2 && ch.df.children.get(fid(data, 0)) instanceof DF df ? df : null;
+            case 0x02 -> data.length == 2 && ch.df.children.get(fid(data, 0)) instanceof EF ef ? (Node) ef : null;
+            case 0x03 -> ch.df.parent;
+            case 0x04 -> byName(data);
+            case 0x08 -> byPath(image.mf, data);
+            default -> byPath(ch.df, data);
+        };
+        if (node == null) {
+            return sw(0x6A82);
+        }
+        if (node instanceof DF df) {
+            ch.df = df;
+            ch.ef = null;
+        } else {
+            ch.df = node.parent;
+            ch.ef = node;
+        }
+        if (p2 == 0x0C) {
+            return sw(0x9000);
+        }
+        return respond(fcp(node, p2 == 0x00 ? 0x6F : 0x62), c);
+    }
+
+    // MF, children of the current DF, the current DF itself, its parent and siblings
+    private static Node byFid(DF current, int fid) {
+        if (fid == MF) {
+            var mf = current;
+            while (mf.parent != null) {
+                mf = mf.parent;
+            }
+            return mf;
+        }
+        var node = current.children.get(fid);
+        if (node != null) {
+            return node;
+        }
+        if (current.fid == fid) {
+            return current;
+        }
+        if (current.parent != null) {
+            return current.parent.fid == fid ? current.parent : current.parent.children.get(fid);
+        }
+        return null;
+    }
+
+    // Partial DF name match, first occurrence
+    private Node byName(byte[] name) {
+        if (name.length == 0) {
+            return image.mf;
+        }
+        for (var df : image.named) {
+            if (df.aid.length >= name.length && Arrays.equals(df.aid, 0, name.length, name, 0, name.length)) {
+                return df;
+            }
+        }
+        return null;
+    }
+
+    private static Node byPath(DF from, byte[] path) {
+        if (path.length == 0 || path.length % 2 != 0) {
+            return null;
+        }
+        Node node = from;
+        var start = fid(path, 0) == MF && from.parent == null ? 2 : 0;
+        for (int i = start; i < path.length; i += 2) {
+            if (!(node instanceof DF df)) {
+                return null;
+            }
+            node = df.children.get(fid(path, i));
+            if (node == null) {
+                return null;
+            }
+        }
+        return node;
+    }
+
+    // File control parameters: descriptor, FID, DF name or size
+    private byte[] fcp(Node node, int tag) {
+        var out = new ByteArrayOutputStream(32);
+        if (node instanceof DF df) {
+            out.writeBytes(new byte[]{(byte) 0x82, 0x01, 0x38});
+            if (df.aid != null) {
+                out.write(0x84);
+                out.write(df.aid.length);
+                out.writeBytes(df.aid);
+            }
+        } else if (node instanceof Binary b) {
+            var size = contents(b).length;
+            out.writeBytes(new byte[]{(byte) 0x82, 0x01, 0x01, (byte) 0x80, 0x02, (byte) (size >> 8), (byte) size});
+        } else if (node instanceof Records r) {
+            out.writeBytes(new byte[]{(byte) 0x82, 0x02, 0x02, (byte) r.records.size()});
+        }
+        var body = out.toByteArray();
+        var fcp = new byte[body.length + 6];
+        fcp[0] = (byte) tag;
+        fcp[1] = (byte) (body.length + 4);
+        fcp[2] = (byte) 0x83;
+        fcp[3] = 0x02;
+        fcp[4] = (byte) (node.fid >> 8);
+        fcp[5] = (byte) node.fid;
+        System.arraycopy(body, 0, fcp, 6, body.length);
+        return fcp;
+    }
+
+    // --- BINARY ---
+
+    private byte[] contents(Binary b) {
+        return written.getOrDefault(b, b.data);
+    }
+
+    // Resolves the EF for READ/UPDATE BINARY: SFI in P1 (b8 set) selects it, otherwise the current EF
+    private Object binaryTarget(Channel ch, CommandAPDU c) {
+        Node node;
+        if ((c.getP1() & 0x80) != 0) {
+            if ((c.getP1() & 0x60) != 0) {
+                return sw(0x6A86);
+            }
+            node = (Node) ch.df.sfi(c.getP1() & 0x1F);
+            if (node == null) {
+                return sw(0x6A82);
+            }
+            ch.ef = node;
+        } else {
+            node = ch.ef;
+        }
+        if (node == null) {
+            return sw(0x6986);
+        }
+        if (!(node instanceof Binary b)) {
+            return sw(0x6981);
+        }
+        return b;
+    }
+
+    private static int binaryOffset(CommandAPDU c) {
+        return (c.getP1() & 0x80) != 0 ? c.getP2() : (c.getP1() << 8) | c.getP2();
+    }
+
+    private byte[] readBinary(Channel ch, CommandAPDU c) {
+        var target = binaryTarget(ch, c);
+        if (!(target instanceof Binary b)) {
+            return (byte[]) target;
+        }
+        var data = contents(b);
+        var offset = binaryOffset(c);
+        if (offset > data.length) {
+            return sw(0x6B00);
+        }
+        var ne = c.getNe();
+        var len = Math.min(ne, data.length - offset);
+        if (len < ne && ne != 256 && ne != 65536) {
+            // End of file reached before Ne bytes
+            return respond(Arrays.copyOfRange(data, offset, offset + len), 0x6282, c);
+        }
+        return respond(Arrays.copyOfRange(data, offset, offset + len), c);
+    }
+
+    private byte[] updateBinary(Channel ch, CommandAPDU c) {
+        var target = binaryTarget(ch, c);
+        if (!(target instanceof Binary b)) {
+            return (byte[]) target;
+        }
+        var offset = binaryOffset(c);
+        var data = contents(b);
+        var update = c.getData();
+        if (offset > data.length) {
+            return sw(0x6B00);
+        }
+        if (offset + update.length > data.length) {
+            return sw(0x6A84);
+        }
+        // Copy on first write, image stays untouched
+        var mine = written.computeIfAbsent(b, k -> k.data.clone());
+        System.arraycopy(update, 0, mine, offset, update.length);
+        return sw(0x9000);
+    }
+
+    // --- RECORD ---
+
+    private byte[] readRecord(Channel ch, CommandAPDU c) {
+        var p1 = c.getP1();
+        var p2 = c.getP2();
+        if ((p2 & 0x07) != 0x04) {
+            return sw(0x6A86); // only "read record P1"
+        }
+        Node node;
+        var sfi = p2 >> 3;
+        if (sfi != 0) {
+            node = (Node) ch.df.sfi(sfi);
+            if (node == null) {
+                return sw(0x6A82);
+            }
+            ch.ef = node;
+        } else {
+            node = ch.ef;
+        }
+        if (node == null) {
+            return sw(0x6986);
+        }
+        if (!(node instanceof Records r)) {
+            return sw(0x6981);
+        }
+        if (p1 == 0 || p1 == 0xFF || p1 > r.records.size()) {
+            return sw(0x6A83);
+        }
+        return respond(r.records.get(p1 - 1).clone(), c);
+    }
+
+    // --- GET RESPONSE, MANAGE CHANNEL ---
+
+    private byte[] getResponse(CommandAPDU c) {
+        if (pending == null) {
+            return sw(0x6985);
+        }
+        if (c.getP1() != 0 || c.getP2() != 0) {
+            return sw(0x6A86);
+        }
+        var data = pending;
+        var offset = pendingOffset;
+        pending = null;
+        return chunk(data, offset, Math.min(c.getNe(), image.maxResponseData), pendingSW);
+    }
+
+    private byte[] manageChannel(int n, CommandAPDU c) {
+        var p1 = c.getP1();
+        var p2 = c.getP2();
+        if (p1 == 0x80) {
+            var target = p2 == 0 ? n : p2;
+            if (target == 0 || target >= channels.length) {
+                return sw(0x6A86);
+            }
+            if (channels[target] == null) {
+                return sw(0x6881);
+            }
+            channels[target] = null;
+            return sw(0x9000);
+        }
+        if (p1 != 0x00) {
+            return sw(0x6A86);
+        }
+        var target = p2;
+        if (target == 0) {
+            for (int i = 1; i < channels.length && target == 0; i++) {
+                if (channels[i] == null) {
+                    target = i;
+                }
+            }
+            if (target == 0) {
+                return sw(0x6A81); // no free channel
+            }
+        } else if (target >= channels.length || channels[target] != null) {
+            return sw(0x6A86);
+        }
+        // Opened from the basic channel: MF selected; otherwise inherits the current selection
+        channels[target] = n == 0 ? new Channel(image.mf) : new Channel(channels[n]);
+        return p2 == 0 ? new byte[]{(byte) target, (byte) 0x90, 0x00} : sw(0x9000);
+    }
+
+    // --- Responses ---
+
+    private byte[] respond(byte[] data, CommandAPDU c) {
+        return respond(data, 0x9000, c);
+    }
+
+    // Delivers data within size limits: anything over maxResponseData, or any Case 4 data in T=0 mode,
+    // is held back and announced with 61 XX
+    private byte[] respond(byte[] data, int sw, CommandAPDU c) {
+        if (image.t0 && c.getNc() > 0 && data.length > 0) {
+            pending = data;
+            pendingOffset = 0;
+            pendingSW = sw;
+            return sw(0x6100 | (Math.min(data.length, 256) & 0xFF));
+        }
+        return chunk(data, 0, image.maxResponseData, sw);
+    }
+
+    private byte[] chunk(byte[] data, int offset, int max, int sw) {
+        var len = Math.min(max, data.length - offset);
+        var remaining = data.length - offset - len;
+        if (remaining > 0) {
+            // Final status word is delivered with the last part
+            pending = data;
+            pendingOffset = offset + len;
+            pendingSW = sw;
+            sw = 0x6100 | (Math.min(remaining, 256) & 0xFF);
+        }
+        if (offset == 0 && len == 0 && sw == 0x9000) {
+            return SW_OK.clone();
+        }
+        var out = Arrays.copyOfRange(data, offset, offset + len + 2);
+        out[len] = (byte) (sw >> 8);
+        out[len + 1] = (byte) sw;
+        return out;
+    }
+
+    private static byte[] sw(int sw) {
+        return new byte[]{(byte) (sw >> 8), (byte) sw};
+    }
+
+    private static int fid(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 8) | (data[offset + 1] & 0xFF);
+    }
+}
@@ -17,6 +17,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BooleanSupplier;
 import java.util.function.Function;
@@ -49,6 +50,10 @@ public final class SynthesizedCardTerminal extends CardTerminal {
     private SynthesizedCard activeCard;
     // Guards async present() callbacks against stale state after yank()
     private long generation;
+    // connect() calls, including probes that never transmit
+    private final AtomicLong connects = new AtomicLong();
+    // Cards presented, the event counter of CARD_INSERTION
+    private final AtomicLong insertions = new AtomicLong();
 
     public SynthesizedCardTerminal(String name) {
         this(name, "T=1");
@@ -87,6 +92,7 @@ public final class SynthesizedCardTerminal extends CardTerminal {
             biboQueue = bibos.iterator();
             biboFactory = null;
             generation++;
+            insertions.incrementAndGet();
             lock.notifyAll();
             fireOnChange();
         }
@@ -104,6 +110,7 @@ public final class SynthesizedCardTerminal extends CardTerminal {
             biboFactory = factory;
             biboQueue = null;
             generation++;
+            insertions.incrementAndGet();
             lock.notifyAll();
             fireOnChange();
         }
@@ -137,6 +144,7 @@ public final class SynthesizedCardTerminal extends CardTerminal {
                     return; // stale: yank() happened since present()
                 }
                 biboQueue = toIterator.apply(value);
+                insertions.incrementAndGet();
                 lock.notifyAll();
                 fireOnChange();
             }
@@ -200,6 +208,7 @@ public final class SynthesizedCardTerminal extends CardTerminal {
     public Card connect(String s) throws CardException {
         Objects.requireNonNull(s, "protocol");
         logger.trace("connect({})", s);
+        connects.incrementAndGet();
         synchronized (lock) {
             if (!cardPresent()) {
                 throw new CardNotPresentException("Card not present!");
@@ -212,6 +221,14 @@ public final class SynthesizedCardTerminal extends CardTerminal {
         }
     }
 
+    public long connectCount() {
+        return connects.get();
+    }
+
+    long insertions() {
+        return insertions.get();
+    }
+
     @Override
     public boolean isCardPresent() {
         synchronized (lock) {
@@ -406,11 +423,16 @@ public final class SynthesizedCardTerminal extends CardTerminal {
                 return channelNumber;
             }
 
+            // Encodes the channel number into CLA, like SunPCSC does
+            private BIBO onChannel(BIBO bibo) {
+                return channelNumber == 0 ? bibo : new LogicalChannelBIBO(bibo, channelNumber);
+            }
+
             @Override
             public ResponseAPDU transmit(CommandAPDU commandAPDU) throws CardException {
                 Objects.requireNonNull(commandAPDU, "command APDU");
                 checkExclusive();
-                var bibo = resolveBibo();
+                var bibo = onChannel(resolveBibo());
                 logger.trace("transmit({})", HexUtils.bin2hex(commandAPDU.getBytes()));
                 try {
                     return new ResponseAPDU(bibo.transceive(commandAPDU.getBytes()));
@@ -430,7 +452,7 @@ public final class SynthesizedCardTerminal extends CardTerminal {
                     throw new IllegalArgumentException("command and response must not be the same object");
                 }
                 checkExclusive();
-                var bibo = resolveBibo();
+                var bibo = onChannel(resolveBibo());
                 byte[] cmd = new byte[command.remaining()];
                 command.get(cmd);
                 logger.trace("transmit({})", HexUtils.bin2hex(cmd));
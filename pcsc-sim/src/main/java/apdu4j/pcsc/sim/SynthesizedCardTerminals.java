@@ -7,7 +7,10 @@ import javax.smartcardio.CardTerminal;
 import javax.smartcardio.CardTerminals;
 import javax.smartcardio.TerminalFactory;
 import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
@@ -16,6 +19,9 @@ public final class SynthesizedCardTerminals extends CardTerminals {
 
     private final CopyOnWriteArrayList<SynthesizedCardTerminal> terminals = new CopyOnWriteArrayList<>();
     private final Semaphore changeSignal = new Semaphore(0);
+    // Insertion counts as of the latest waitForChange() and the one before it; null until the first
+    private volatile Map<String, Long> waited;
+    private volatile Map<String, Long> before;
 
     public void addTerminal(SynthesizedCardTerminal terminal) {
         if (terminals.stream().anyMatch(t -> t.getName().equals(terminal.getName()))) {
@@ -41,9 +47,14 @@ public final class SynthesizedCardTerminals extends CardTerminals {
     public List<CardTerminal> list(State state) throws CardException {
         return switch (state) {
             case ALL -> List.copyOf(terminals);
-            case CARD_PRESENT, CARD_INSERTION -> terminals.stream()
+            case CARD_PRESENT -> terminals.stream()
                     .filter(SynthesizedCardTerminal::isCardPresent)
                     .map(CardTerminal.class::cast).toList();
+            // Like SunPCSC: a status query until waitForChange() has been called, then the cards
+            // inserted during the latest wait - also where one was swapped for another
+            case CARD_INSERTION -> terminals.stream()
+                    .filter(t -> t.isCardPresent() && (waited == null || !Objects.equals(waited.get(t.getName()), before.get(t.getName()))))
+                    .map(CardTerminal.class::cast).toList();
             case CARD_ABSENT, CARD_REMOVAL -> terminals.stream()
                     .filter(t -> !t.isCardPresent())
                     .map(CardTerminal.class::cast).toList();
@@ -52,6 +63,7 @@ public final class SynthesizedCardTerminals extends CardTerminals {
 
     @Override
     public boolean waitForChange(long timeout) throws CardException {
+        var start = waited == null ? insertions() : waited;
         try {
             if (timeout == 0) {
                 changeSignal.acquire(); // 0 = wait indefinitely per PC/SC spec
@@ -65,9 +77,18 @@ public final class SynthesizedCardTerminals extends CardTerminals {
             return changed;
         } catch (InterruptedException e) {
             throw new CardException("Interrupted", e);
+        } finally {
+            before = start;
+            waited = insertions();
         }
     }
 
+    private Map<String, Long> insertions() {
+        var counts = new HashMap<String, Long>();
+        terminals.forEach(t -> counts.put(t.getName(), t.insertions()));
+        return counts;
+    }
+
     public TerminalFactory toFactory() {
         try {
             return TerminalFactory.getInstance("PC/SC", this, new SynthesizedTerminalsProvider());
@@ -5,6 +5,7 @@ package apdu4j.pcsc;
 import apdu4j.core.BIBO;
 import apdu4j.core.BIBOException;
 import apdu4j.core.HexUtils;
+import apdu4j.pcsc.terminals.InstrumentedTerminalFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -103,11 +104,15 @@ public final class CardBIBO implements BIBO {
         }
     }
 
+    boolean isClosed() {
+        return closed;
+    }
+
     @Override
     public void close() {
         closed = true;
         try {
-            if (disconnect == SCard.Disconnect.UNPOWER && card instanceof jnasmartcardio.Smartcardio.JnaCard jnaCard) {
+            if (disconnect == SCard.Disconnect.UNPOWER && InstrumentedTerminalFactory.unwrap(card) instanceof jnasmartcardio.Smartcardio.JnaCard jnaCard) {
                 jnaCard.disconnect(jnasmartcardio.Smartcardio.JnaCard.SCARD_UNPOWER_CARD);
             } else {
                 card.disconnect(disconnect == SCard.Disconnect.RESET);
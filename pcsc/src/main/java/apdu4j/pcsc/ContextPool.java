@@ -0,0 +1,320 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.pcsc;
+
+import apdu4j.pcsc.terminals.InstrumentedTerminalFactory;
+import jnasmartcardio.Smartcardio;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.smartcardio.CardException;
+import javax.smartcardio.CardTerminal;
+import javax.smartcardio.CardTerminals;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+// PC/SC contexts (CardTerminals of the factory) of a TerminalManager. Threads that come and go -
+// callers of sessions without the monitor, virtual threads, server pools - lease a context for a
+// session or a listing and return it after, so however many threads there are, at most `limit`
+// leased contexts exist and lease() waits for one beyond that. Long-lived threads (monitor,
+// reader threads, probes) pin one for their lifetime via TerminalManager.terminals(). Unmanaged
+// connections, which live as long as the caller keeps them, take a detached() one outside the
+// limit. Every context is released when the manager closes.
+//
+// SCARD_E_SERVICE_STOPPED or SCARD_E_NO_SERVICE retires every context made before it (Windows
+// restarts the service when the last reader goes), pinned ones on their next use, and
+// SCARD_E_INVALID_HANDLE retires the context it came from. A context that sat idle for longer
+// than the check interval is listed with before it is leased again.
+public final class ContextPool {
+    private static final Logger logger = LoggerFactory.getLogger(ContextPool.class);
+
+    static final long WAIT = Long.getLong("apdu4j.pcsc.contexts.wait", 30_000);
+    static final long CHECK = Long.getLong("apdu4j.pcsc.contexts.check", 30_000);
+
+    // leases = lease() calls, waits = of those that had to wait for a context
+    public record Stats(int limit, int leased, int idle, int pinned, int detached, long leases, long waits, long created, long retired) {
+    }
+
+    static final class Context {
+        private final CardTerminals terminals;
+        private final int generation;
+        private volatile boolean broken;
+        private long returned; // nanos, guarded by the pool
+
+        private Context(CardTerminals terminals, int generation) {
+            this.terminals = terminals;
+            this.generation = generation;
+        }
+
+        CardTerminals terminals() {
+            return terminals;
+        }
+    }
+
+    private final Supplier<CardTerminals> factory;
+    private final IntSupplier limit;
+    private final long check; // nanos
+    private final ThreadLocal<Lease> held = new ThreadLocal<>();
+    private volatile int generation;
+    // Guarded by this
+    private final ArrayDeque<Context> idle = new ArrayDeque<>();
+    private final Set<Context> pinned = new HashSet<>();
+    private int leased;
+    private int detached;
+    private boolean closed;
+    private long leases;
+    private long waits;
+    private long created;
+    private long retired;
+
+    ContextPool(Supplier<CardTerminals> factory, IntSupplier limit) {
+        this(factory, limit, CHECK);
+    }
+
+    ContextPool(Supplier<CardTerminals> factory, IntSupplier limit, long checkMillis) {
+        this.factory = factory;
+        this.limit = limit;
+        this.check = TimeUnit.MILLISECONDS.toNanos(checkMillis);
+    }
+
+    // A context until close(). A lease on a thread that already holds one shares its context, so
+    // nested sessions do not wait for each other.
+    public Lease lease() {
+        var outer = held.get();
+        if (outer != null) {
+            return new Lease(outer.context, false, true);
+        }
+        Context context;
+        synchronized (this) {
+            leases++;
+            var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT);
+            var waited = false;
+            while (true) {
+                if (closed) {
+                    throw new IllegalStateException("TerminalManager is closed");
+                }
+                context = idle.pollLast(); // most recently used
+                if (context != null || leased < limit.getAsInt()) {
+                    break;
+                }
+                var left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    throw new IllegalStateException("No PC/SC context free in %dms, %d leased".formatted(WAIT, leased));
+                }
+                if (!waited) {
+                    waits++;
+                    waited = true;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, left);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a PC/SC context", e);
+                }
+            }
+            leased++;
+        }
+        // Outside the lock: both talk to the PC/SC service
+        try {
+            context = usable(context);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                leased--;
+                notifyAll();
+            }
+            throw e;
+        }
+        var lease = new Lease(context, true, true);
+        held.set(lease);
+        return lease;
+    }
+
+    // A context for a connection that may outlive the caller, closed on any thread. Not counted
+    // against the limit and never waits: an idle context if there is one, a new one otherwise.
+    Lease detached() {
+        Context context;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("TerminalManager is closed");
+            }
+            context = idle.pollLast();
+            detached++;
+        }
+        try {
+            context = usable(context);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                detached--;
+            }
+            throw e;
+        }
+        return new Lease(context, true, false);
+    }
+
+    private Context usable(Context context) {
+        if (context != null && (stale(context) || System.nanoTime() - context.returned > check && !healthy(context))) {
+            retire(context);
+            context = null;
+        }
+        return context == null ? create() : context;
+    }
+
+    private boolean healthy(Context context) {
+        try {
+            context.terminals.list();
+            return true;
+        } catch (CardException e) {
+            // No readers is fine, the context is not
+            var error = SCard.getPCSCError(e).orElse("");
+            logger.debug("Idle context check: {}", error);
+            return !retires(error);
+        }
+    }
+
+    private static boolean retires(String error) {
+        return SCard.SCARD_E_SERVICE_STOPPED.equals(error) || SCard.SCARD_E_NO_SERVICE.equals(error) || SCard.SCARD_E_INVALID_HANDLE.equals(error);
+    }
+
+    private Context create() {
+        var context = new Context(factory.get(), generation);
+        synchronized (this) {
+            created++;
+        }
+        return context;
+    }
+
+    // Idle ones stay within the limit; a detached context beyond it is retired
+    private synchronized void release(Context context, boolean counted) {
+        if (counted) {
+            leased--;
+        } else {
+            detached--;
+        }
+        notifyAll();
+        if (closed || stale(context) || idle.size() + leased >= limit.getAsInt()) {
+            retire(context);
+        } else {
+            context.returned = System.nanoTime();
+            idle.addLast(context);
+        }
+    }
+
+    // Notes a PC/SC failure; returns it, for throwing
+    public <X extends Throwable> X failed(X e) {
+        var error = SCard.getPCSCError(e).orElse("");
+        if (SCard.SCARD_E_SERVICE_STOPPED.equals(error) || SCard.SCARD_E_NO_SERVICE.equals(error)) {
+            List<Context> retiring;
+            synchronized (this) {
+                generation++;
+                retiring = new ArrayList<>(idle);
+                idle.clear();
+            }
+            logger.info("PC/SC service gone ({}), recreating contexts", error);
+            retiring.forEach(this::retire);
+        }
+        return e;
+    }
+
+    boolean stale(Context context) {
+        return context.broken || context.generation < generation;
+    }
+
+    // Context of a long-lived thread, released by unpin() or close()
+    Context pin() {
+        var context = create();
+        synchronized (this) {
+            if (!closed) {
+                pinned.add(context);
+                return context;
+            }
+        }
+        retire(context);
+        throw new IllegalStateException("TerminalManager is closed");
+    }
+
+    void unpin(Context context) {
+        synchronized (this) {
+            pinned.remove(context);
+        }
+        retire(context);
+    }
+
+    // Explicitly releases the context with jnasmartcardio; the others have nothing to release
+    private void retire(Context context) {
+        synchronized (this) {
+            retired++;
+        }
+        if (InstrumentedTerminalFactory.unwrap(context.terminals) instanceof Smartcardio.JnaCardTerminals jna) {
+            try {
+                jna.close();
+            } catch (Smartcardio.JnaPCSCException e) {
+                logger.warn("Could not release context: {}", SCard.getExceptionMessage(e), e);
+            }
+        }
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(limit.getAsInt(), leased, idle.size(), pinned.size(), detached, leases, waits, created, retired);
+    }
+
+    // Leased and detached contexts are released when returned
+    void close() {
+        List<Context> retiring;
+        synchronized (this) {
+            closed = true;
+            retiring = new ArrayList<>(idle);
+            retiring.addAll(pinned);
+            idle.clear();
+            pinned.clear();
+            notifyAll();
+        }
+        retiring.forEach(this::retire);
+    }
+
+    public final class Lease implements AutoCloseable {
+        private final Context context;
+        private final boolean owner; // false for a nested lease
+        private final boolean counted; // false for a detached one
+        private boolean closed;
+
+        private Lease(Context context, boolean owner, boolean counted) {
+            this.context = context;
+            this.owner = owner;
+            this.counted = counted;
+        }
+
+        public CardTerminals terminals() {
+            return context.terminals;
+        }
+
+        public CardTerminal terminal(String name) {
+            return context.terminals.getTerminal(name);
+        }
+
+        // Notes a failure of work done with this context; returns it, for throwing
+        public <X extends Throwable> X failed(X e) {
+            if (SCard.getPCSCError(e).filter(SCard.SCARD_E_INVALID_HANDLE::equals).isPresent()) {
+                context.broken = true;
+            }
+            return ContextPool.this.failed(e);
+        }
+
+        @Override
+        public void close() {
+            if (closed || !owner) {
+                return;
+            }
+            closed = true;
+            if (held.get() == this) {
+                held.remove();
+            }
+            release(context, counted);
+        }
+    }
+}
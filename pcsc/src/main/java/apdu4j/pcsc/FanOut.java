@@ -0,0 +1,174 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.pcsc;
+
+import apdu4j.core.BIBOSA;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// The same session on every selected reader that has a card, each on its own reader thread,
+// at most `parallel` at once. Results are streamed in completion order. After the timeout the
+// remaining readers (running or not yet started) are reported with a TimeoutException and no
+// more sessions are started; running ones finish in the background, as PC/SC calls can not be
+// abandoned.
+//
+//   Readers.select(mgr).ignore("Yubikey").fanOut(16, Duration.ofSeconds(30), bibosa -> readCPLC(bibosa))
+//       .forEach(r -> System.out.println(r.reader() + ": " + (r.ok() ? r.value() : r.error())));
+public final class FanOut<T> {
+    private static final Logger logger = LoggerFactory.getLogger(FanOut.class);
+
+    // value is null on error
+    public record Result<T>(String reader, T value, Throwable error) {
+        public boolean ok() {
+            return error == null;
+        }
+    }
+
+    private final ReaderSelectorImpl selector;
+    private final TerminalManager mgr;
+    private final Function<BIBOSA, T> fn;
+    private final LinkedBlockingQueue<Result<T>> results = new LinkedBlockingQueue<>();
+    // Guarded by this
+    private final ArrayDeque<String> waiting;
+    private final Set<String> pending; // not yet reported
+    private int running;
+    private boolean expired;
+
+    private FanOut(ReaderSelectorImpl selector, List<String> readers, Function<BIBOSA, T> fn) {
+        this.selector = selector;
+        this.mgr = selector.mgr();
+        this.fn = fn;
+        this.waiting = new ArrayDeque<>(readers);
+        this.pending = new LinkedHashSet<>(readers);
+    }
+
+    static <T> Stream<Result<T>> run(ReaderSelectorImpl selector, int parallel, Duration timeout, Function<BIBOSA, T> fn) {
+        if (parallel < 1) {
+            throw new IllegalArgumentException("parallel must be positive: " + parallel);
+        }
+        var matcher = selector.matcher();
+        var readers = selector.mgr().readers().stream()
+                .filter(r -> r.present() && !r.exclusive() && matcher.test(r) && !selector.mgr().health().isQuarantined(r.name()))
+                .map(PCSCReader::name)
+                .toList();
+        logger.debug("Fan-out to {}", readers);
+        var fanout = new FanOut<>(selector, readers, fn);
+        fanout.start(parallel);
+        return fanout.stream(timeout);
+    }
+
+    private void start(int parallel) {
+        for (var i = 0; i < parallel; i++) {
+            next();
+        }
+    }
+
+    // Starts the next waiting reader, outside the lock. Mostly called on the thread of a reader
+    // that just finished, so offered: a busy reader goes to the back and is offered again later.
+    private void next() {
+        String name;
+        synchronized (this) {
+            if (expired || waiting.isEmpty()) {
+                return;
+            }
+            name = waiting.poll();
+            running++;
+        }
+        var executor = mgr.executor(name);
+        executor.offer(ReaderExecutor.Lane.BACKGROUND, () -> selector.openOn(name, fn)).whenComplete((value, error) -> {
+            if (error instanceof RejectedExecutionException && !executor.isShutdown()) {
+                synchronized (this) {
+                    running--;
+                    waiting.add(name);
+                }
+                logger.debug("{} busy, offered again in {}ms", name, ReaderExecutor.RETRY.toMillis());
+                CompletableFuture.runAsync(this::next, CompletableFuture.delayedExecutor(ReaderExecutor.RETRY.toMillis(), TimeUnit.MILLISECONDS));
+                return;
+            }
+            var cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            synchronized (this) {
+                running--;
+                if (!pending.remove(name)) {
+                    return; // already reported as timed out
+                }
+                results.add(new Result<>(name, cause == null ? value : null, cause));
+            }
+            next();
+        });
+    }
+
+    // Duration.ZERO = no timeout
+    private Stream<Result<T>> stream(Duration timeout) {
+        final int total;
+        synchronized (this) {
+            total = pending.size();
+        }
+        var deadline = System.nanoTime() + timeout.toNanos();
+        var it = new Iterator<Result<T>>() {
+            private int returned;
+            private ArrayDeque<Result<T>> expiredResults;
+
+            @Override
+            public boolean hasNext() {
+                return returned < total;
+            }
+
+            @Override
+            public Result<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                returned++;
+                if (expiredResults != null) {
+                    return expiredResults.poll();
+                }
+                try {
+                    var result = timeout.isZero() ? results.take() : results.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (result != null) {
+                        return result;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                // Timed out or interrupted: whatever is left, in reader order
+                expiredResults = new ArrayDeque<>(expire(timeout));
+                return expiredResults.poll();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliterator(it, total, Spliterator.SIZED | Spliterator.NONNULL), false);
+    }
+
+    private synchronized List<Result<T>> expire(Duration timeout) {
+        // Completions that raced the deadline are still reported as they are
+        var late = new ArrayList<Result<T>>();
+        results.drainTo(late);
+        expired = true;
+        logger.debug("Fan-out timed out: {} running, {} not started", running, waiting.size());
+        for (var name : pending) {
+            late.add(new Result<>(name, null, new TimeoutException("No result from %s in %dms".formatted(name, timeout.toMillis()))));
+        }
+        pending.clear();
+        waiting.clear();
+        return late;
+    }
+}
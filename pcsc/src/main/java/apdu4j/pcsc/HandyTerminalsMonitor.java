@@ -2,14 +2,19 @@
 // SPDX-License-Identifier: MIT
 package apdu4j.pcsc;
 
+import apdu4j.pcsc.terminals.InstrumentedTerminalFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.smartcardio.CardException;
+import javax.smartcardio.CardTerminal;
 import javax.smartcardio.CardTerminals;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -18,8 +23,11 @@ import java.util.concurrent.TimeUnit;
 public final class HandyTerminalsMonitor implements Runnable {
     private static final Logger logger = LoggerFactory.getLogger(HandyTerminalsMonitor.class);
 
-    private static final long TICK_WAIT = 3000; // PC/SC wait time, for interrupt() to work before infinity
+    // PC/SC wait time, for interrupt() to work before infinity. Also how soon a removed reader is noticed on Linux.
+    private static final long TICK_WAIT = Long.getLong("apdu4j.pcsc.monitor.tick", 3000);
     private static final long TICK_POLL = 1000; // Thread sleep time
+    // Report insertions before listing everything, -Dapdu4j.pcsc.monitor.fast=false to disable
+    private static final boolean FAST_INSERT = TerminalManager.isEnabled("apdu4j.pcsc.monitor.fast", true);
 
     private final PCSCMonitor listener;
     private final TerminalManager manager;
@@ -37,8 +45,18 @@ public final class HandyTerminalsMonitor implements Runnable {
     private final boolean isLinux = !(isWindows || isMacOS);
 
     private Set<PCSCReader> currentState = Collections.emptySet();
+    private List<PCSCReader> reported = List.of(); // currentState in reader order
     private volatile boolean haveReportedNoReaders = false;
 
+    // Last probe result per reader, with the raw presence it was taken at
+    private record Probed(boolean present, PCSCReader reader) {
+    }
+
+    private Map<String, Probed> probed = new HashMap<>();
+    private final Set<String> early = new HashSet<>(); // probed by reportInsertions() since the last listing
+    private Set<String> listed = Set.of(); // inserted after the latest wait, seen by the last listing
+    private final Set<String> swaps = new HashSet<>(); // card present before and after an insertion, not reported yet
+
     /**
      * With pcsc-lite, every thread requires their own context, or blocking calls would block other threads
      * using the same context. Thus we MUST get a fresh context in the thread.
@@ -50,17 +68,19 @@ public final class HandyTerminalsMonitor implements Runnable {
         try {
             logger.debug("Getting new terminals object");
             monitor = manager.terminals(true);
+            probed = new HashMap<>();
             if (TerminalManager.isNoneProvider(manager.factory())) {
                 // Should not reach here - getTerminalFactory() rejects NoneProvider at creation
                 fail("PC/SC is not available (NoneProvider)", null);
             }
-            var monitorClass = monitor.getClass().getCanonicalName();
+            var raw = InstrumentedTerminalFactory.unwrap(monitor);
+            var monitorClass = raw.getClass().getCanonicalName();
             if ("sun.security.smartcardio.PCSCTerminals".equals(monitorClass)) {
                 isSunPCSC = true;
                 logger.debug("SunPCSC mode");
             } else if ("jnasmartcardio.Smartcardio.JnaCardTerminals".equals(monitorClass)) {
                 logger.debug("jnasmartcardio mode");
-            } else if (monitor instanceof apdu4j.pcsc.sim.SynthesizedCardTerminals) {
+            } else if (raw instanceof apdu4j.pcsc.sim.SynthesizedCardTerminals) {
                 logger.debug("Synthesized mode");
             } else {
                 logger.warn("Unknown CardTerminals class {} ", monitorClass);
@@ -80,7 +100,65 @@ public final class HandyTerminalsMonitor implements Runnable {
     }
 
 
+    // Incremental listPCSC(): only readers that are new, changed presence, had a card inserted during
+    // the latest wait or were EXCLUSIVE (may have been released) get connected to. Others keep their
+    // cached ATR, so a tap on one reader does not touch cards in the others. The insertion is what
+    // gives away a card swapped between two list cycles, as presence stays the same.
+    private List<PCSCReader> list() throws CardException {
+        var terminals = monitor.list();
+        var insertions = insertions();
+        var result = new ArrayList<PCSCReader>(terminals.size());
+        var next = new HashMap<String, Probed>(terminals.size() * 2);
+        var seen = new HashSet<String>();
+        for (var t : terminals) {
+            try {
+                var name = t.getName();
+                var present = t.isCardPresent();
+                var previous = probed.get(name);
+                var swapped = present && previous != null && previous.present() && insertions.contains(name) && !early.contains(name) && !listed.contains(name);
+                if (previous == null || previous.present() != present || previous.reader().exclusive() || swapped) {
+                    var inserted = present && previous != null && (!previous.present() || swapped);
+                    if (swapped) {
+                        swaps.add(name);
+                    }
+                    // Its insertion event comes with the next wait
+                    if (inserted && !insertions.contains(name)) {
+                        seen.add(name);
+                    }
+                    previous = new Probed(present, inserted ? manager.probeInserted(t) : TerminalManager.probe(t, present, false));
+                }
+                next.put(name, previous);
+                result.add(previous.reader());
+            } catch (CardException e) {
+                String err = SCard.getExceptionMessage(e);
+                logger.warn("Unexpected PC/SC error: {}", err, e);
+            }
+        }
+        probed = next;
+        early.clear();
+        listed = seen;
+        return result;
+    }
+
+    // Readers with a card inserted during the latest wait, from the per-reader event state that the
+    // PC/SC layer keeps across waitForChange() (SCardGetStatusChange)
+    private Set<String> insertions() {
+        try {
+            var names = new HashSet<String>();
+            monitor.list(CardTerminals.State.CARD_INSERTION).forEach(t -> names.add(t.getName()));
+            return names;
+        } catch (CardException | IllegalStateException e) {
+            logger.trace("No insertions: {}", SCard.getExceptionMessage(e));
+            return Set.of();
+        }
+    }
+
     private boolean shouldReport(List<PCSCReader> newStates) {
+        // The same ATR again looks like no change
+        if (!swaps.isEmpty()) {
+            logger.trace("change: swapped {}", swaps);
+            return true;
+        }
         var news = new HashSet<PCSCReader>(newStates);
         logger.trace("current state: {}", currentState);
         logger.trace("new     state: {}", news);
@@ -104,8 +182,51 @@ public final class HandyTerminalsMonitor implements Runnable {
     private void reportChanges(List<PCSCReader> state) {
         logger.debug("Reporting state: {}", state);
         haveReportedNoReaders = state.isEmpty();
-        listener.readerListChanged(state);
+        listener.readerListChanged(state, Set.copyOf(swaps));
+        swaps.clear();
         currentState = new HashSet<>(state);
+        reported = List.copyOf(state);
+    }
+
+    // Cards inserted since the previous wait, from the per-reader event state that the PC/SC layer
+    // keeps across waitForChange() (SCardGetStatusChange). Only those readers are probed, and the
+    // last report with them updated goes out right away: onCard() runs before the full listing,
+    // which then reuses these probes. New readers are left to the full listing.
+    private void reportInsertions() {
+        List<CardTerminal> inserted;
+        try {
+            inserted = monitor.list(CardTerminals.State.CARD_INSERTION);
+        } catch (CardException | IllegalStateException e) {
+            logger.trace("No insertions: {}", SCard.getExceptionMessage(e));
+            return;
+        }
+        var updates = new HashMap<String, Probed>();
+        for (var t : inserted) {
+            var name = t.getName();
+            // New readers are left to the listing. A known present card is a swap: probe it again,
+            // unless the listing already saw this insertion.
+            if (!probed.containsKey(name) || listed.contains(name)) {
+                continue;
+            }
+            try {
+                updates.put(name, new Probed(true, manager.probeInserted(t)));
+                if (probed.get(name).present()) {
+                    swaps.add(name);
+                }
+            } catch (CardException e) {
+                logger.debug("Probe of {} failed: {}", name, SCard.getExceptionMessage(e));
+            }
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+        probed.putAll(updates);
+        early.addAll(updates.keySet());
+        var state = reported.stream().map(r -> updates.containsKey(r.name()) ? updates.get(r.name()).reader() : r).toList();
+        logger.trace("{} insertion(s) reported ahead of listing", updates.size());
+        if (shouldReport(state)) {
+            reportChanges(state);
+        }
     }
 
     @Override
@@ -121,7 +242,7 @@ public final class HandyTerminalsMonitor implements Runnable {
                 if (!Thread.currentThread().isInterrupted() && changed) {
                     try {
                         var start = System.currentTimeMillis();
-                        var readers = TerminalManager.listPCSC(monitor.list(), null, false);
+                        var readers = list();
                         logger.trace("list took {}ms, {} items", System.currentTimeMillis() - start, readers.size());
 
                         if (shouldReport(readers)) {
@@ -184,6 +305,9 @@ public final class HandyTerminalsMonitor implements Runnable {
                         var start = System.currentTimeMillis();
                         changed = monitor.waitForChange(TICK_WAIT);
                         logger.trace("wait took {}ms and was {}", System.currentTimeMillis() - start, changed);
+                        if (changed && FAST_INSERT) {
+                            reportInsertions();
+                        }
                         // macOS 11.2.3 will wait for the tick, report false, and report a change at next wait, always.
                     } catch (CardException e) {
                         String err = SCard.getExceptionMessage(e);
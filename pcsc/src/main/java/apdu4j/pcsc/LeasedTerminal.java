@@ -0,0 +1,133 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.pcsc;
+
+import javax.smartcardio.*;
+
+// CardTerminal of the terminal() escape hatch: a context per call instead of one pinned to the
+// calling thread. Waits and connections take a detached one, a connection keeps it until the card
+// is disconnected.
+final class LeasedTerminal extends CardTerminal {
+    private final ContextPool contexts;
+    private final String name;
+
+    LeasedTerminal(ContextPool contexts, String name) {
+        this.contexts = contexts;
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Card connect(String protocol) throws CardException {
+        var lease = contexts.detached();
+        try {
+            return new LeasedCard(lease.terminal(name).connect(protocol), lease);
+        } catch (CardException | RuntimeException e) {
+            lease.failed(e);
+            lease.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean isCardPresent() throws CardException {
+        try (var lease = contexts.lease()) {
+            try {
+                return lease.terminal(name).isCardPresent();
+            } catch (CardException | RuntimeException e) {
+                lease.failed(e);
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public boolean waitForCardPresent(long timeout) throws CardException {
+        return waitFor(true, timeout);
+    }
+
+    @Override
+    public boolean waitForCardAbsent(long timeout) throws CardException {
+        return waitFor(false, timeout);
+    }
+
+    private boolean waitFor(boolean present, long timeout) throws CardException {
+        try (var lease = contexts.detached()) {
+            try {
+                var terminal = lease.terminal(name);
+                return present ? terminal.waitForCardPresent(timeout) : terminal.waitForCardAbsent(timeout);
+            } catch (CardException | RuntimeException e) {
+                lease.failed(e);
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LeasedTerminal[" + name + "]";
+    }
+
+    private static final class LeasedCard extends Card {
+        private final Card card;
+        private final ContextPool.Lease lease;
+
+        LeasedCard(Card card, ContextPool.Lease lease) {
+            this.card = card;
+            this.lease = lease;
+        }
+
+        @Override
+        public ATR getATR() {
+            return card.getATR();
+        }
+
+        @Override
+        public String getProtocol() {
+            return card.getProtocol();
+        }
+
+        @Override
+        public CardChannel getBasicChannel() {
+            return card.getBasicChannel();
+        }
+
+        @Override
+        public CardChannel openLogicalChannel() throws CardException {
+            return card.openLogicalChannel();
+        }
+
+        @Override
+        public void beginExclusive() throws CardException {
+            card.beginExclusive();
+        }
+
+        @Override
+        public void endExclusive() throws CardException {
+            card.endExclusive();
+        }
+
+        @Override
+        public byte[] transmitControlCommand(int code, byte[] command) throws CardException {
+            return card.transmitControlCommand(code, command);
+        }
+
+        @Override
+        public void disconnect(boolean reset) throws CardException {
+            try {
+                card.disconnect(reset);
+            } finally {
+                lease.close();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return card.toString();
+        }
+    }
+}
@@ -3,9 +3,16 @@
 package apdu4j.pcsc;
 
 import java.util.List;
+import java.util.Set;
 
 public interface PCSCMonitor {
     void readerListChanged(List<PCSCReader> states);
 
+    // With the readers that had a card inserted since the previous report. Present in both, with
+    // the same ATR, that is a card swapped for a similar one: the states alone do not show it.
+    default void readerListChanged(List<PCSCReader> states, Set<String> inserted) {
+        readerListChanged(states);
+    }
+
     void readerListErrored(Throwable t);
 }
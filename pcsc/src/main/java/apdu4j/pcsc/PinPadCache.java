@@ -0,0 +1,169 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.pcsc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.smartcardio.Card;
+import javax.smartcardio.CardException;
+import javax.smartcardio.CardTerminal;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+// Pinpad capabilities (the VMD column) per reader, so that listings do not send the feature
+// and property control commands on every run. Some readers take seconds to answer them, or
+// refuse with a sharing violation while in use. Kept in memory and in ~/.apdu4j/pinpads.properties,
+// valid for apdu4j.pcsc.pinpad.ttl hours (default 24, 0 disables the cache).
+//
+// Keyed by reader name: the firmware identity comes from the probe itself, so it is recorded
+// with the entry and an expired entry is re-probed. Failures ("???", "EEE") are never cached.
+public final class PinPadCache {
+    private static final Logger logger = LoggerFactory.getLogger(PinPadCache.class);
+    private static final AtomicReference<PinPadCache> INSTANCE = new AtomicReference<>();
+
+    public record Entry(String vmd, String firmware, long probed) {
+    }
+
+    private final Path file;
+    private final Duration ttl;
+    private final LongSupplier clock; // epoch millis
+    private Map<String, Entry> entries; // lazy, guarded by this
+
+    PinPadCache(Path file, Duration ttl, LongSupplier clock) {
+        this.file = file;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public static PinPadCache getDefault() {
+        return INSTANCE.updateAndGet(current -> current != null ? current : new PinPadCache(
+                Paths.get(System.getProperty("user.home"), ".apdu4j", "pinpads.properties"),
+                Duration.ofHours(Integer.getInteger("apdu4j.pcsc.pinpad.ttl", 24)), System::currentTimeMillis));
+    }
+
+    public synchronized Optional<Entry> get(String reader) {
+        if (ttl.isZero()) {
+            return Optional.empty();
+        }
+        var entry = entries().get(reader);
+        if (entry == null || clock.getAsLong() - entry.probed() > ttl.toMillis()) {
+            return Optional.empty();
+        }
+        return Optional.of(entry);
+    }
+
+    public synchronized void put(String reader, String vmd, String firmware) {
+        if (ttl.isZero()) {
+            return;
+        }
+        var entry = new Entry(vmd, firmware, clock.getAsLong());
+        var previous = entries().put(reader, entry);
+        if (previous != null && !previous.firmware().equals(firmware)) {
+            logger.debug("{} changed from {} to {}", reader, previous.firmware(), firmware);
+        }
+        save(reader, entry);
+    }
+
+    // Forget one reader, e.g. after a firmware update
+    public synchronized void invalidate(String reader) {
+        if (entries().remove(reader) != null) {
+            save(reader, null);
+        }
+    }
+
+    // Cached VMD, or probe the reader and cache a successful result
+    String vmd(CardTerminal t, Card c) {
+        var cached = get(t.getName());
+        if (cached.isPresent()) {
+            return cached.get().vmd();
+        }
+        try {
+            var ppt = PinPadTerminal.probe(t, c);
+            put(t.getName(), ppt.vmd(), ppt.firmware());
+            return ppt.vmd();
+        } catch (CardException e) {
+            return PinPadTerminal.failedVMD(e);
+        }
+    }
+
+    // Value is "probed,vmd,firmware": VMD may have leading spaces, firmware may have commas
+    private Map<String, Entry> entries() {
+        if (entries == null) {
+            entries = load();
+        }
+        return entries;
+    }
+
+    private Map<String, Entry> load() {
+        var entries = new HashMap<String, Entry>();
+        if (!Files.exists(file)) {
+            return entries;
+        }
+        var props = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+        } catch (IOException e) {
+            logger.warn("Could not read pinpad cache {}: {}", file, e.getMessage());
+            return entries;
+        }
+        for (var name : props.stringPropertyNames()) {
+            var parts = props.getProperty(name).split(",", 3);
+            try {
+                if (parts.length == 3 && parts[1].length() == 3) {
+                    entries.put(name, new Entry(parts[1], parts[2], Long.parseLong(parts[0])));
+                }
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring bad pinpad cache entry for {}", name);
+            }
+        }
+        return entries;
+    }
+
+    // Apply one change (null entry removes) to what is on disk now, so that entries written by
+    // other processes meanwhile are kept. Written to a temporary file and moved over, so that
+    // parallel listings never read half a file. Two processes saving at the same moment: the
+    // last move wins and the other change is probed again on a later listing.
+    private void save(String reader, Entry entry) {
+        var current = load();
+        if (entry == null) {
+            current.remove(reader);
+        } else {
+            current.put(reader, entry);
+        }
+        entries = current;
+        var props = new Properties();
+        current.forEach((name, e) -> props.setProperty(name, "%d,%s,%s".formatted(e.probed(), e.vmd(), e.firmware())));
+        Path tmp = null;
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            tmp = Files.createTempFile(file.toAbsolutePath().getParent(), "pinpads", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                props.store(out, "apdu4j pinpad capabilities");
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.debug("Could not write pinpad cache {}: {}", file, e.getMessage());
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException e) {
+                    logger.debug("Could not delete {}: {}", tmp, e.getMessage());
+                }
+            }
+        }
+    }
+}
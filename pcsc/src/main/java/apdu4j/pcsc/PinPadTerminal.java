@@ -10,16 +10,20 @@ import javax.smartcardio.Card;
 import javax.smartcardio.CardException;
 import javax.smartcardio.CardTerminal;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 // Construct and parse necessary PC/SC CCID pinpad blocks
 public final class PinPadTerminal {
     private static final Logger logger = LoggerFactory.getLogger(PinPadTerminal.class);
     private final Map<FEATURE, Integer> features;
     private boolean display = false;
+    private String firmware = "";
 
     // Parse the features into FEATURE -> control code map
     private static Map<FEATURE, Integer> tokenize(byte[] tlv) {
@@ -40,14 +44,24 @@ public final class PinPadTerminal {
         return m;
     }
 
-    private static void parse_tlv_properties(byte[] tlv) {
+    private void parse_tlv_properties(byte[] tlv) {
+        String vendor = null, product = null, fw = null;
         for (var i = 0; i + 2 < tlv.length; ) {
             var t = tlv[i] & 0xFF;
             var l = tlv[i + 1] & 0xFF;
             byte[] v = Arrays.copyOfRange(tlv, i + 2, i + 2 + l);
             i += v.length + 2;
             logger.trace("{}={}", Integer.toHexString(t), HexUtils.bin2hex(v));
+            // wIdVendor, wIdProduct, sFirmwareID
+            switch (t) {
+                case 0x0B -> vendor = HexUtils.bin2hex(v);
+                case 0x0C -> product = HexUtils.bin2hex(v);
+                case 0x08 -> fw = new String(v, StandardCharsets.US_ASCII).trim();
+                default -> {
+                }
+            }
         }
+        firmware = Stream.of(vendor, product, fw).filter(Objects::nonNull).collect(Collectors.joining(":"));
     }
 
     private void parse_pin_properties(byte[] prop) {
@@ -113,19 +127,33 @@ public final class PinPadTerminal {
 
     public static String getVMD(CardTerminal t, Card c) {
         try {
-            PinPadTerminal ppt = probe(t, c);
-            return (ppt.canVerify() ? "V" : " ") + (ppt.canModify() ? "M" : " ") + (ppt.hasDisplay() ? "D" : " ");
+            return probe(t, c).vmd();
         } catch (CardException e) {
-            String err = SCard.getExceptionMessage(e);
-            logger.warn("PinPad probe failed: {}", err);
-            if (SCard.SCARD_E_SHARING_VIOLATION.equals(err)) {
-                return "???";
-            } else {
-                return "EEE";
-            }
+            return failedVMD(e);
+        }
+    }
+
+    // VMD column of a reader that could not be probed: "???" if in use by someone else
+    static String failedVMD(CardException e) {
+        String err = SCard.getExceptionMessage(e);
+        logger.warn("PinPad probe failed: {}", err);
+        if (SCard.SCARD_E_SHARING_VIOLATION.equals(err)) {
+            return "???";
+        } else {
+            return "EEE";
         }
     }
 
+    // Verify, Modify, Display column of reader listings
+    public String vmd() {
+        return (canVerify() ? "V" : " ") + (canModify() ? "M" : " ") + (hasDisplay() ? "D" : " ");
+    }
+
+    // Vendor, product and firmware from GET_TLV_PROPERTIES, empty if the reader does not tell
+    public String firmware() {
+        return firmware;
+    }
+
     public boolean canVerify() {
         return features.containsKey(FEATURE.VERIFY_PIN_DIRECT) || (features.containsKey(FEATURE.VERIFY_PIN_START) && features.containsKey(FEATURE.VERIFY_PIN_FINISH));
     }
@@ -0,0 +1,70 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.pcsc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+// Typed reader change, derived from two consecutive PCSCReader snapshots.
+// Attach comes before insert of a card already in the new reader; remove before detach.
+public sealed interface ReaderEvent {
+    PCSCReader reader();
+
+    record ReaderAttached(PCSCReader reader) implements ReaderEvent {
+    }
+
+    record ReaderDetached(PCSCReader reader) implements ReaderEvent {
+    }
+
+    record CardInserted(PCSCReader reader) implements ReaderEvent {
+    }
+
+    // Carries the last known state, with the ATR of the card that left
+    record CardRemoved(PCSCReader reader) implements ReaderEvent {
+    }
+
+    static List<ReaderEvent> diff(List<PCSCReader> previous, List<PCSCReader> current) {
+        return diff(previous, current, Set.of());
+    }
+
+    // One pass over each snapshot. A different ATR while present is a swap: remove + insert.
+    // So is an insertion seen by PC/SC in between, ATR same or not. (Unknown ATR, e.g. under
+    // EXCLUSIVE, is not a change by itself.)
+    static List<ReaderEvent> diff(List<PCSCReader> previous, List<PCSCReader> current, Set<String> inserted) {
+        var before = new HashMap<String, PCSCReader>(previous.size() * 2);
+        for (var r : previous) {
+            before.put(r.name(), r);
+        }
+        var events = new ArrayList<ReaderEvent>();
+        for (var r : current) {
+            var p = before.remove(r.name());
+            if (p == null) {
+                events.add(new ReaderAttached(r));
+                if (r.present()) {
+                    events.add(new CardInserted(r));
+                }
+            } else if (p.present() && !r.present()) {
+                events.add(new CardRemoved(p));
+            } else if (!p.present() && r.present()) {
+                events.add(new CardInserted(r));
+            } else if (p.present() && (inserted.contains(r.name()) || p.atr() != null && r.atr() != null && !p.atr().equals(r.atr()))) {
+                events.add(new CardRemoved(p));
+                events.add(new CardInserted(r));
+            }
+        }
+        if (!before.isEmpty()) {
+            // Previous order, not hash order
+            for (var p : previous) {
+                if (before.containsKey(p.name())) {
+                    if (p.present()) {
+                        events.add(new CardRemoved(p));
+                    }
+                    events.add(new ReaderDetached(p));
+                }
+            }
+        }
+        return events;
+    }
+}
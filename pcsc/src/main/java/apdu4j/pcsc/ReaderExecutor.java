@@ -7,49 +7,208 @@ import apdu4j.core.BIBOException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.*;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 // Per-reader single-threaded executor.
 // All PC/SC operations for a reader are serialized on this thread.
+//
+// Work waits in a bounded queue with two lanes: INTERACTIVE (default) always goes before
+// BACKGROUND (ReaderPool jobs, batch work). When a lane is full the submitter blocks, waits
+// up to a timeout or is rejected, as set by Queueing. The default is Queueing.DIRECT, the
+// hand-off: no queue, wait up to 100ms for the reader to become idle. Bounded queueing is
+// opt-in, with TerminalManager.queueing() or -Dapdu4j.pcsc.queue=<capacity>.
+//
+// The monitor and completion callbacks on reader threads use offer(), which never waits.
 public final class ReaderExecutor implements Executor {
     private static final Logger logger = LoggerFactory.getLogger(ReaderExecutor.class);
 
-    private final ExecutorService executor;
+    public enum Lane {
+        INTERACTIVE, BACKGROUND
+    }
+
+    public enum Overflow {
+        BLOCK, TIMEOUT, REJECT
+    }
+
+    // Capacity of the default queueing, 0 = DIRECT
+    static final int QUEUE = Integer.getInteger("apdu4j.pcsc.queue", 0);
+    // How soon work that offer() could not place is offered again
+    static final Duration RETRY = Duration.ofMillis(100);
+
+    // Capacity is per lane and counts waiting tasks, not the running one
+    public record Queueing(int capacity, Overflow overflow, Duration timeout) {
+        public static final Queueing DIRECT = new Queueing(0, Overflow.TIMEOUT, Duration.ofMillis(100));
+        public static final Queueing DEFAULT = QUEUE > 0 ? bounded(QUEUE) : DIRECT;
+
+        public Queueing {
+            Objects.requireNonNull(overflow, "overflow");
+            Objects.requireNonNull(timeout, "timeout");
+            if (capacity < 0) {
+                throw new IllegalArgumentException("Capacity must be >= 0, got " + capacity);
+            }
+        }
+
+        public static Queueing bounded(int capacity) {
+            return new Queueing(capacity, Overflow.TIMEOUT, Duration.ofSeconds(30));
+        }
+
+        public Queueing withOverflow(Overflow overflow) {
+            return new Queueing(capacity, overflow, timeout);
+        }
+
+        public Queueing withTimeout(Duration timeout) {
+            return new Queueing(capacity, overflow, timeout);
+        }
+    }
+
+    // Queue wait is the time from acceptance to start on the reader thread
+    public record Stats(long executed, long rejected, int queued, Duration meanWait, Duration maxWait) {
+    }
+
+    private record Task(Runnable runnable, Runnable abort, long accepted) {
+    }
+
+    // Reader thread -> its executor, and which reader each blocked reader thread waits for
+    private static final ThreadLocal<ReaderExecutor> CURRENT = new ThreadLocal<>();
+    private static final Map<ReaderExecutor, ReaderExecutor> WAITS = new HashMap<>(); // guarded by itself
+
     private final String readerName;
+    private final Thread worker;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition work = lock.newCondition();
+    private final Condition space = lock.newCondition();
+    // Guarded by lock
+    private final ArrayDeque<Task> interactive = new ArrayDeque<>();
+    private final ArrayDeque<Task> background = new ArrayDeque<>();
+    private volatile Queueing queueing;
+    private boolean running; // a task is on the reader thread
+    private boolean shutdown;
+    private long executed;
+    private long rejected;
+    private long waited; // total nanos
+    private long maxWait;
 
     ReaderExecutor(String readerName) {
+        this(readerName, Queueing.DEFAULT);
+    }
+
+    ReaderExecutor(String readerName, Queueing queueing) {
         this.readerName = readerName;
-        // Single daemon thread, SynchronousQueue: models PC/SC one-operation-at-a-time
-        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
-                new SynchronousQueue<>(),
-                r -> {
-                    var t = new Thread(r, readerName);
-                    t.setDaemon(true);
-                    return t;
-                },
-                new CallerBlocksPolicy(100));
+        this.queueing = queueing;
+        this.worker = new Thread(this::work, readerName);
+        worker.setDaemon(true);
+        worker.start();
     }
 
     public String name() {
         return readerName;
     }
 
+    public Queueing queueing() {
+        return queueing;
+    }
+
+    public void queueing(Queueing queueing) {
+        this.queueing = queueing;
+        lock.lock();
+        try {
+            space.signalAll(); // more room, or a different policy for those waiting
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            var mean = executed == 0 ? 0 : waited / executed;
+            return new Stats(executed, rejected, interactive.size() + background.size(),
+                    Duration.ofNanos(mean), Duration.ofNanos(maxWait));
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public <T> CompletableFuture<T> submit(Callable<T> task) {
+        return submit(Lane.INTERACTIVE, task);
+    }
+
+    public <T> CompletableFuture<T> submit(Lane lane, Callable<T> task) {
+        return submit(lane, task, false);
+    }
+
+    // Like submit(), but never waits for room: the future fails with RejectedExecutionException
+    // when the lane is full. A DIRECT executor takes one task to wait for the running one - the
+    // hand-off without the wait. For the monitor and for callbacks on another reader's thread,
+    // which must not stall behind a busy reader.
+    public <T> CompletableFuture<T> offer(Lane lane, Callable<T> task) {
+        return submit(lane, task, true);
+    }
+
+    private <T> CompletableFuture<T> submit(Lane lane, Callable<T> task, boolean offer) {
         var cf = new CompletableFuture<T>();
+        Runnable run = () -> {
+            try {
+                cf.complete(task.call());
+            } catch (Throwable t) {
+                cf.completeExceptionally(t);
+            }
+        };
+        // Already on the reader thread (e.g. run() from an onCard callback): queueing would deadlock
+        if (Thread.currentThread() == worker) {
+            run.run();
+            return cf;
+        }
         try {
-            executor.execute(() -> {
-                try {
-                    cf.complete(task.call());
-                } catch (Throwable t) {
-                    cf.completeExceptionally(t);
-                }
-            });
+            enqueue(lane, run, () -> cf.completeExceptionally(new RejectedExecutionException("Executor shut down")), offer);
         } catch (RejectedExecutionException e) {
             cf.completeExceptionally(e);
         }
         return cf;
     }
 
+    // Run on the reader thread and wait for the result. Inline when already there. Waiting from
+    // another reader's thread is tracked, so that a cycle of waiting readers fails fast.
+    public <T> T call(Callable<T> task) throws ExecutionException, InterruptedException {
+        if (Thread.currentThread() == worker) {
+            try {
+                return task.call();
+            } catch (Exception e) {
+                throw new ExecutionException(e);
+            }
+        }
+        var waiter = CURRENT.get();
+        if (waiter != null) {
+            synchronized (WAITS) {
+                var chain = new StringBuilder("Deadlock: ").append(waiter.name());
+                for (var e = this; e != null; e = WAITS.get(e)) {
+                    chain.append(e == this ? " waits for " : ", which waits for ").append(e.name());
+                    if (e == waiter) {
+                        throw new IllegalStateException(chain.toString());
+                    }
+                }
+                WAITS.put(waiter, this);
+            }
+        }
+        try {
+            return submit(task).get();
+        } finally {
+            if (waiter != null) {
+                synchronized (WAITS) {
+                    WAITS.remove(waiter);
+                }
+            }
+        }
+    }
+
     public CompletableFuture<Void> run(Runnable task) {
         return submit(() -> {
             task.run();
@@ -65,7 +224,7 @@ public final class ReaderExecutor implements Executor {
             @Override
             public byte[] transceive(byte[] bytes) throws BIBOException {
                 try {
-                    return executor.submit(() -> delegate.transceive(bytes)).get();
+                    return executor.call(() -> delegate.transceive(bytes));
                 } catch (ExecutionException e) {
                     if (e.getCause() instanceof BIBOException b) {
                         throw b;
@@ -92,44 +251,131 @@ public final class ReaderExecutor implements Executor {
 
     @Override
     public void execute(Runnable command) {
-        executor.execute(command);
+        enqueue(Lane.INTERACTIVE, command, () -> {
+        }, false);
     }
 
-    void shutdown() {
-        executor.shutdown();
+    private void enqueue(Lane lane, Runnable runnable, Runnable abort, boolean offer) {
+        var queue = lane == Lane.INTERACTIVE ? interactive : background;
+        lock.lock();
         try {
-            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
-                executor.shutdownNow();
+            var deadline = System.nanoTime() + queueing.timeout().toNanos();
+            while (!shutdown && !hasRoom(queue, offer)) {
+                var q = queueing;
+                if (offer || q.overflow() == Overflow.REJECT) {
+                    break;
+                }
+                if (q.overflow() == Overflow.BLOCK) {
+                    space.await();
+                } else {
+                    var left = deadline - System.nanoTime();
+                    if (left <= 0) {
+                        break;
+                    }
+                    space.awaitNanos(left);
+                }
+            }
+            if (shutdown) {
+                throw new RejectedExecutionException("Executor shut down");
             }
+            if (!hasRoom(queue, offer)) {
+                rejected++;
+                throw new RejectedExecutionException("Executor busy");
+            }
+            queue.add(new Task(runnable, abort, System.nanoTime()));
+            work.signal();
         } catch (InterruptedException e) {
-            executor.shutdownNow(); // Shutdown interrupted -force stop and propagate
             Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted", e);
+        } finally {
+            lock.unlock();
         }
     }
 
-    // Bridges the micro-window between TPE task completion and worker thread returning to queue.take().
-    // SynchronousQueue.offer() fails instantly if nobody is waiting; this retries with a timed offer.
-    // Same pattern as Spring Integration's CallerBlocksPolicy.
-    static final class CallerBlocksPolicy implements RejectedExecutionHandler {
-        private final long maxWaitMs;
+    // With capacity 0 a task is only taken when the reader is idle and nothing is waiting, or
+    // offered when nothing is waiting
+    private boolean hasRoom(ArrayDeque<Task> queue, boolean offer) {
+        var capacity = queueing.capacity();
+        if (capacity == 0) {
+            return (offer || !running) && interactive.isEmpty() && background.isEmpty();
+        }
+        return queue.size() < capacity;
+    }
 
-        CallerBlocksPolicy(long maxWaitMs) {
-            this.maxWaitMs = maxWaitMs;
+    boolean isShutdown() {
+        lock.lock();
+        try {
+            return shutdown;
+        } finally {
+            lock.unlock();
         }
+    }
 
-        @Override
-        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
-            if (executor.isShutdown()) {
-                throw new RejectedExecutionException("Executor shut down");
-            }
+    private void work() {
+        CURRENT.set(this);
+        while (true) {
+            Task task;
+            lock.lock();
             try {
-                if (!executor.getQueue().offer(r, maxWaitMs, TimeUnit.MILLISECONDS)) {
-                    throw new RejectedExecutionException("Executor busy");
+                running = false;
+                space.signalAll();
+                while ((task = next()) == null) {
+                    if (shutdown) {
+                        return;
+                    }
+                    work.await();
                 }
+                running = true;
+                var wait = System.nanoTime() - task.accepted();
+                executed++;
+                waited += wait;
+                maxWait = Math.max(maxWait, wait);
             } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new RejectedExecutionException("Interrupted", e);
+                return; // shutdownNow()
+            } finally {
+                lock.unlock();
+            }
+            try {
+                task.runnable().run();
+            } catch (Throwable t) {
+                logger.warn("Task failed on {}: {}", readerName, t.getMessage(), t);
+            }
+        }
+    }
+
+    private Task next() {
+        var task = interactive.poll();
+        return task != null ? task : background.poll();
+    }
+
+    // Runs what was already accepted, then stops. Waits 5 seconds before giving up on them.
+    void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            work.signalAll();
+            space.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            worker.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Shutdown interrupted - force stop and propagate
+        }
+        if (worker.isAlive()) {
+            worker.interrupt();
+            var dropped = new ArrayList<Task>();
+            lock.lock();
+            try {
+                dropped.addAll(interactive);
+                dropped.addAll(background);
+                interactive.clear();
+                background.clear();
+            } finally {
+                lock.unlock();
             }
+            dropped.forEach(t -> t.abort().run());
         }
     }
 }
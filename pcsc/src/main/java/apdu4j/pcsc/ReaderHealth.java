@@ -0,0 +1,222 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.pcsc;
+
+import apdu4j.core.BIBO;
+import apdu4j.core.BIBOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.smartcardio.CardException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+// Per-reader health, for farms where a few readers go bad: transport error rate and transmit
+// latency (moving averages) against the fleet median. A reader with too many errors is
+// quarantined - skipped by selection like an ignored reader, and not handed new cards by onCard()
+// and ReaderPool. After the quarantine it is re-admitted on probation: live traffic is the probe,
+// and failing again doubles the next quarantine.
+//
+// Only kicks in with FLEET_MIN readers seen, so a single flaky desktop reader stays usable.
+// Disable with -Dapdu4j.pcsc.quarantine=false. Quarantine of readers much slower than the rest
+// is opt-in with -Dapdu4j.pcsc.quarantine.slow=true: latency means something only when every
+// reader runs the same workload, not key generation on one and SELECT-s on the others.
+public final class ReaderHealth {
+    private static final Logger logger = LoggerFactory.getLogger(ReaderHealth.class);
+
+    static final int MIN_SAMPLES = 20; // operations before a reader is judged
+    static final int FLEET_MIN = 3;
+    static final double ALPHA = 0.1; // moving average weight of the latest sample
+    static final double MAX_ERROR_RATE = 0.25;
+    static final double SLOW_FACTOR = 3.0; // times the fleet median latency
+    static final Duration QUARANTINE = Duration.ofSeconds(30);
+    static final Duration MAX_QUARANTINE = Duration.ofMinutes(10);
+
+    // Contention, unplugging, cards pulled early and bad cards, not bad hardware
+    private static final Set<String> NOT_FAULTS = Set.of(SCard.SCARD_E_SHARING_VIOLATION, SCard.SCARD_E_READER_UNAVAILABLE,
+            SCard.SCARD_E_UNKNOWN_READER, SCard.SCARD_E_NO_SERVICE, SCard.SCARD_E_SERVICE_STOPPED,
+            SCard.SCARD_W_REMOVED_CARD, SCard.SCARD_E_NO_SMARTCARD, SCard.SCARD_E_NOT_TRANSACTED,
+            SCard.SCARD_W_UNPOWERED_CARD, SCard.SCARD_W_UNRESPONSIVE_CARD);
+
+    public record Score(String reader, long operations, double errorRate, Duration latency, boolean quarantined) {
+    }
+
+    private static final class Stats {
+        long operations; // since (re)admission
+        double errors; // moving average of failed operations, 0.0 .. 1.0
+        double latency; // moving average of transmit nanos, 0 = no samples
+        long until; // quarantined until this clock value; 0 = admitted
+        boolean probation;
+        Duration penalty = QUARANTINE;
+    }
+
+    private final Map<String, Stats> readers = new HashMap<>(); // guarded by this
+    private final LongSupplier clock;
+    private final boolean enabled;
+    private final boolean slow; // latency quarantine as well
+
+    ReaderHealth() {
+        this(System::nanoTime, TerminalManager.isEnabled("apdu4j.pcsc.quarantine", true),
+                TerminalManager.isEnabled("apdu4j.pcsc.quarantine.slow", false));
+    }
+
+    ReaderHealth(LongSupplier clock, boolean enabled, boolean slow) {
+        this.clock = clock;
+        this.enabled = enabled;
+        this.slow = slow;
+    }
+
+    public synchronized boolean isQuarantined(String reader) {
+        var s = readers.get(reader);
+        if (s == null || s.until == 0) {
+            return false;
+        }
+        if (clock.getAsLong() - s.until < 0) {
+            return true;
+        }
+        logger.info("Re-admitting {} on probation", reader);
+        s.until = 0;
+        s.probation = true;
+        s.operations = 0;
+        s.errors = 0;
+        s.latency = 0;
+        return false;
+    }
+
+    // Time until re-admission, zero when not quarantined
+    public synchronized Duration quarantineLeft(String reader) {
+        var s = readers.get(reader);
+        if (s == null || s.until == 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(Math.max(0, s.until - clock.getAsLong()));
+    }
+
+    public synchronized void quarantine(String reader, Duration duration) {
+        var s = stats(reader);
+        s.until = clock.getAsLong() + duration.toNanos();
+        logger.warn("Quarantined {} for {}s", reader, duration.toSeconds());
+    }
+
+    public synchronized void release(String reader) {
+        readers.remove(reader);
+    }
+
+    public synchronized List<Score> scores() {
+        return readers.entrySet().stream()
+                .map(e -> new Score(e.getKey(), e.getValue().operations, e.getValue().errors,
+                        Duration.ofNanos(Math.round(e.getValue().latency)), e.getValue().until != 0))
+                .sorted((a, b) -> a.reader().compareTo(b.reader()))
+                .toList();
+    }
+
+    // Quarantined readers look ignored to dwim(): skipped unless asked for by name or index
+    List<PCSCReader> annotate(List<PCSCReader> list) {
+        if (list.stream().noneMatch(r -> isQuarantined(r.name()))) {
+            return list;
+        }
+        return list.stream().map(r -> isQuarantined(r.name()) ? r.withIgnored(true) : r).toList();
+    }
+
+    // Successful operation; transmit time or -1 for operations without a meaningful latency
+    synchronized void success(String reader, long nanos) {
+        var s = stats(reader);
+        s.operations++;
+        s.errors = (1 - ALPHA) * s.errors;
+        if (nanos >= 0) {
+            s.latency = s.latency == 0 ? nanos : (1 - ALPHA) * s.latency + ALPHA * nanos;
+        }
+        // Latency is judged against the fleet once in a while, not on every APDU
+        if (s.operations % MIN_SAMPLES == 0) {
+            judge(reader, s);
+        }
+    }
+
+    synchronized void failure(String reader, Throwable e) {
+        if (!isFault(e)) {
+            return;
+        }
+        var s = stats(reader);
+        s.operations++;
+        s.errors = (1 - ALPHA) * s.errors + ALPHA;
+        judge(reader, s);
+    }
+
+    // PC/SC failures, minus those that say nothing about the reader itself
+    static boolean isFault(Throwable e) {
+        for (var t = e; t != null; t = t.getCause()) {
+            if (t instanceof CardException) {
+                return SCard.getPCSCError(t).map(code -> !NOT_FAULTS.contains(code)).orElse(true);
+            }
+        }
+        return false;
+    }
+
+    // Times transmits and counts transport errors of a reader session
+    BIBO monitor(String reader, BIBO bibo) {
+        return new BIBO() {
+            @Override
+            public byte[] transceive(byte[] bytes) throws BIBOException {
+                var start = System.nanoTime();
+                try {
+                    var response = bibo.transceive(bytes);
+                    success(reader, System.nanoTime() - start);
+                    return response;
+                } catch (BIBOException e) {
+                    failure(reader, e);
+                    throw e;
+                }
+            }
+
+            @Override
+            public void close() {
+                bibo.close();
+            }
+        };
+    }
+
+    private Stats stats(String reader) {
+        return readers.computeIfAbsent(reader, k -> new Stats());
+    }
+
+    private void judge(String reader, Stats s) {
+        if (!enabled || s.until != 0 || s.operations < MIN_SAMPLES || readers.size() < FLEET_MIN) {
+            return;
+        }
+        var median = fleetLatency();
+        var slower = slow && median > 0 && s.latency > SLOW_FACTOR * median;
+        if (s.errors > MAX_ERROR_RATE || slower) {
+            if (s.probation) {
+                var doubled = s.penalty.multipliedBy(2);
+                s.penalty = doubled.compareTo(MAX_QUARANTINE) > 0 ? MAX_QUARANTINE : doubled;
+            }
+            logger.warn("{} unhealthy (errors {}%, {}us vs fleet {}us)", reader, Math.round(s.errors * 100),
+                    Math.round(s.latency / 1000), Math.round(median / 1000));
+            quarantine(reader, s.penalty);
+            s.probation = true;
+        } else if (s.probation) {
+            // Passed probation
+            s.probation = false;
+            s.penalty = QUARANTINE;
+        }
+    }
+
+    // Median latency of admitted readers with enough samples; 0 if the fleet is too small
+    private double fleetLatency() {
+        var latencies = readers.values().stream()
+                .filter(s -> s.until == 0 && s.latency > 0 && s.operations >= MIN_SAMPLES)
+                .mapToDouble(s -> s.latency)
+                .toArray();
+        if (latencies.length < FLEET_MIN) {
+            return 0;
+        }
+        Arrays.sort(latencies);
+        var mid = latencies.length / 2;
+        return latencies.length % 2 == 1 ? latencies[mid] : (latencies[mid - 1] + latencies[mid]) / 2;
+    }
+}
@@ -0,0 +1,147 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.pcsc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Reader names prepared for selection: lower-cased names, names extended with their alias,
+// positions for index hints. Hint and ignore results are memoized, so repeated selection on
+// the same reader list is a map lookup while the index is kept. TerminalManager keeps one for
+// its reader list, built by the monitor on change, for dwim() and onCard() matchers.
+public final class ReaderIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ReaderIndex.class);
+    private static final int MEMO_MAX = 256; // hints and ignore lists kept per index
+
+    private final List<String> names;
+    private final ReaderAliases aliases;
+    private final Map<String, String> lower = new HashMap<>();
+    private final Map<String, String> extended = new HashMap<>(); // lower-cased "alias (name)"
+    private final Map<String, Optional<String>> hints = new ConcurrentHashMap<>();
+    private final Map<List<String>, Ignores> ignores = new ConcurrentHashMap<>();
+
+    // All fragments as one case-insensitive pattern, and the readers of this index it matches
+    private record Ignores(Pattern pattern, Set<String> names) {
+    }
+
+    private ReaderIndex(List<String> names) {
+        this.names = List.copyOf(names);
+        this.aliases = ReaderAliases.getDefault().apply(this.names);
+        for (var name : this.names) {
+            lower.put(name, name.toLowerCase());
+            extended.put(name, aliases.extended(name).toLowerCase());
+        }
+    }
+
+    public static ReaderIndex of(List<String> names) {
+        return new ReaderIndex(names);
+    }
+
+    // This index if the list did not change, with what it has memoized; a new one otherwise
+    public ReaderIndex update(List<String> names) {
+        return this.names.equals(names) ? this : new ReaderIndex(names);
+    }
+
+    public List<String> names() {
+        return names;
+    }
+
+    public ReaderAliases aliases() {
+        return aliases;
+    }
+
+    // Reader name for a hint: 1-based index or a unique name/alias fragment (>= 3 chars).
+    // One or two digits are always an index. Longer numbers are an index when in range, a name
+    // fragment otherwise ("100" on a two-reader host matches "Model 100").
+    public Optional<String> resolve(String hint) {
+        if (hint == null || hint.isBlank()) {
+            return Optional.empty();
+        }
+        var memo = hints.get(hint);
+        if (memo != null) {
+            return memo;
+        }
+        var resolved = Optional.ofNullable(lookup(hint));
+        if (hints.size() >= MEMO_MAX) {
+            hints.clear();
+        }
+        hints.put(hint, resolved);
+        return resolved;
+    }
+
+    private String lookup(String hint) {
+        if (hint.matches("\\d+")) {
+            var index = hint.length() > 9 ? Integer.MAX_VALUE : Integer.parseInt(hint);
+            if (index >= 1 && index <= names.size()) {
+                logger.debug("Chose {} by index {}", names.get(index - 1), index);
+                return names.get(index - 1);
+            }
+            if (hint.length() <= 2) {
+                logger.warn("Reader index out of bounds: {} vs {}", index, names.size());
+                return null;
+            }
+        }
+        // Fragment hint: must be >= 3 chars
+        if (hint.length() < 3) {
+            return null;
+        }
+        var h = hint.toLowerCase();
+        String match = null;
+        for (var name : names) {
+            if (extended.get(name).contains(h)) {
+                if (match != null) {
+                    return null; // ambiguous
+                }
+                match = name;
+            }
+        }
+        return match;
+    }
+
+    // Same as Readers.isIgnored(), from a precomputed set for readers of this index
+    public boolean isIgnored(List<String> fragments, String name) {
+        if (fragments.isEmpty()) {
+            return false;
+        }
+        var compiled = ignores.get(fragments);
+        if (compiled == null) {
+            compiled = compile(fragments);
+            if (ignores.size() >= MEMO_MAX) {
+                ignores.clear();
+            }
+            ignores.put(List.copyOf(fragments), compiled);
+        }
+        if (lower.containsKey(name)) {
+            return compiled.names().contains(name);
+        }
+        return compiled.pattern().matcher(name).find();
+    }
+
+    // Lower-cased name, precomputed for readers of this index
+    public String lower(String name) {
+        var l = lower.get(name);
+        return l != null ? l : name.toLowerCase();
+    }
+
+    private Ignores compile(List<String> fragments) {
+        var pattern = Pattern.compile(fragments.stream().map(Pattern::quote).collect(Collectors.joining("|")),
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        var ignored = new HashSet<String>();
+        for (var name : names) {
+            if (pattern.matcher(name).find()) {
+                ignored.add(name);
+            }
+        }
+        return new Ignores(pattern, Set.copyOf(ignored));
+    }
+}
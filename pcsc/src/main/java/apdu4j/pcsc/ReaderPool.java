@@ -0,0 +1,264 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.pcsc;
+
+import apdu4j.core.BIBOSA;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Card-processing farm: jobs go to a shared queue and run on the next reader with a fresh,
+// unused card. One job per inserted card; the reader is available again after the card has
+// been removed and another one inserted. Jobs start in submission order, cards are used in
+// insertion order, and a reader never runs two jobs at once.
+//
+//   try (var pool = Readers.select(mgr).ignore("Yubikey").pool()) {
+//       var futures = cards.stream().map(c -> pool.submit(bibosa -> personalize(bibosa, c))).toList();
+//       ...
+//   }
+//
+// Like onCard(), cards already present when the pool is created wait for a new tap, unless
+// fresh(false) is set.
+public final class ReaderPool implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ReaderPool.class);
+
+    private final ReaderSelectorImpl selector;
+    private final TerminalManager mgr;
+    private final long started = System.nanoTime();
+
+    // Guarded by this
+    private final ArrayDeque<Job<?>> queue = new ArrayDeque<>();
+    private final ArrayDeque<String> ready = new ArrayDeque<>(); // fresh cards, oldest first
+    private final Set<String> cards = new HashSet<>(); // readers with a card, fresh or used
+    private final Set<String> busy = new HashSet<>();
+    private long submitted;
+    private long completed;
+    private long failed;
+    private Flow.Subscription subscription;
+    private long redispatchAt; // nanos, 0 = none scheduled
+    private boolean closed;
+
+    private record Job<T>(Function<BIBOSA, T> fn, CompletableFuture<T> result) {
+    }
+
+    // Queue depth and throughput, for keeping the farm saturated
+    public record Stats(long submitted, long completed, long failed, int queued, int ready, int busy, Duration elapsed) {
+        // Finished jobs per second since the pool was created
+        public double throughput() {
+            var seconds = elapsed.toNanos() / 1e9;
+            return seconds > 0 ? (completed + failed) / seconds : 0;
+        }
+    }
+
+    ReaderPool(ReaderSelectorImpl selector) {
+        this.selector = selector;
+        this.mgr = selector.mgr();
+        var matcher = selector.matcher();
+        // Subscribe first, then seed: an insert seen both ways is only counted once
+        mgr.events().subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                synchronized (ReaderPool.this) {
+                    subscription = s;
+                }
+                s.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ReaderEvent event) {
+                if (matcher.test(event.reader())) {
+                    changed(event);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                logger.warn("Reader events failed: {}", t.getMessage());
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        try {
+            mgr.awaitInitialScan(Duration.ofSeconds(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted awaiting initial scan", e);
+        }
+        var fresh = selector.config().get(Readers.FRESH_TAP);
+        for (var reader : mgr.readers()) {
+            if (!reader.present() || !matcher.test(reader)) {
+                continue;
+            }
+            if (fresh) {
+                // Counts as used: waits for removal and a new tap
+                synchronized (this) {
+                    cards.add(reader.name());
+                    ready.remove(reader.name());
+                }
+            } else {
+                changed(new ReaderEvent.CardInserted(reader));
+            }
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(Function<BIBOSA, T> fn) {
+        var job = new Job<>(fn, new CompletableFuture<T>());
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Pool closed");
+            }
+            submitted++;
+            queue.add(job);
+        }
+        dispatch();
+        return job.result();
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(submitted, completed, failed, queue.size(), ready.size(), busy.size(),
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private void changed(ReaderEvent event) {
+        var name = event.reader().name();
+        synchronized (this) {
+            if (event instanceof ReaderEvent.CardInserted) {
+                // Known cards are either waiting in ready or already used
+                if (cards.add(name)) {
+                    ready.add(name);
+                }
+            } else if (event instanceof ReaderEvent.CardRemoved) {
+                cards.remove(name);
+                ready.remove(name);
+            } else {
+                return;
+            }
+        }
+        dispatch();
+    }
+
+    // Pair queued jobs with ready readers; the executors are called outside the lock
+    private void dispatch() {
+        var starts = new ArrayList<Runnable>();
+        var readmit = Duration.ZERO; // soonest re-admission of a skipped reader
+        synchronized (this) {
+            var it = ready.iterator();
+            while (!queue.isEmpty() && it.hasNext()) {
+                var name = it.next();
+                // A card swapped in during a job waits for that job to finish. Quarantined
+                // readers keep their card until re-admitted.
+                if (busy.contains(name)) {
+                    continue;
+                }
+                if (mgr.health().isQuarantined(name)) {
+                    var left = mgr.health().quarantineLeft(name);
+                    if (readmit.isZero() || left.compareTo(readmit) < 0) {
+                        readmit = left;
+                    }
+                    continue;
+                }
+                it.remove();
+                busy.add(name);
+                var job = queue.poll();
+                starts.add(() -> start(name, job));
+            }
+            if (queue.isEmpty()) {
+                readmit = Duration.ZERO;
+            }
+        }
+        starts.forEach(Runnable::run);
+        if (!readmit.isZero()) {
+            redispatch(readmit);
+        }
+    }
+
+    // Nothing else may happen when the quarantine of the only ready readers lapses
+    private void redispatch(Duration delay) {
+        var at = System.nanoTime() + delay.toNanos();
+        synchronized (this) {
+            if (closed || redispatchAt != 0 && redispatchAt - at <= 0) {
+                return; // one is due sooner
+            }
+            redispatchAt = at;
+        }
+        CompletableFuture.runAsync(() -> {
+            synchronized (this) {
+                if (redispatchAt == at) {
+                    redispatchAt = 0;
+                }
+            }
+            dispatch();
+        }, CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS));
+    }
+
+    // Often on the thread of the reader that just finished a job: offered, never waits for this one
+    private <T> void start(String name, Job<T> job) {
+        logger.debug("Running job on {}", name);
+        var executor = mgr.executor(name);
+        executor.offer(ReaderExecutor.Lane.BACKGROUND, () -> selector.openOn(name, job.fn())).whenComplete((value, error) -> {
+            if (error instanceof RejectedExecutionException && !executor.isShutdown() && requeue(name, job)) {
+                logger.debug("{} busy, job offered again in {}ms", name, ReaderExecutor.RETRY.toMillis());
+                redispatch(ReaderExecutor.RETRY);
+                return;
+            }
+            synchronized (this) {
+                busy.remove(name);
+                if (error == null) {
+                    completed++;
+                } else {
+                    failed++;
+                }
+            }
+            if (error == null) {
+                job.result().complete(value);
+            } else {
+                job.result().completeExceptionally(error);
+            }
+            dispatch();
+        });
+    }
+
+    // A job the reader did not take goes back to the head of the queue, the card stays fresh
+    private synchronized boolean requeue(String name, Job<?> job) {
+        if (closed) {
+            return false;
+        }
+        busy.remove(name);
+        queue.addFirst(job);
+        if (cards.contains(name)) {
+            ready.addFirst(name);
+        }
+        return true;
+    }
+
+    // Stops dispatching and cancels jobs that have not started. Running jobs finish.
+    @Override
+    public void close() {
+        var cancelled = new ArrayList<Job<?>>();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            cancelled.addAll(queue);
+            queue.clear();
+        }
+        cancelled.forEach(j -> j.result().completeExceptionally(new CancellationException("Pool closed")));
+    }
+}
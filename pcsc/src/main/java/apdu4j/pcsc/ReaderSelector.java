@@ -4,6 +4,7 @@ package apdu4j.pcsc;
 
 import apdu4j.core.BIBO;
 import apdu4j.core.BIBOSA;
+import apdu4j.core.FlightRecorder;
 import apdu4j.prefs.Preference;
 import apdu4j.prefs.Preferences;
 
@@ -12,10 +13,12 @@ import javax.smartcardio.CardTerminal;
 import java.io.OutputStream;
 import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 public sealed interface ReaderSelector permits ReaderSelectorImpl {
     // Selection (composable, return ReaderSelector)
@@ -43,6 +46,16 @@ public sealed interface ReaderSelector permits ReaderSelectorImpl {
 
     ReaderSelector fresh(boolean requireFreshTap);
 
+    ReaderSelector affine(boolean onReaderThread);
+
+    ReaderSelector warm(boolean keepConnected);
+
+    ReaderSelector preconnect(boolean handOver);
+
+    ReaderSelector debounce(Duration dwell, Duration dedup);
+
+    ReaderSelector trace(boolean attach);
+
     // Runtime objects (not preference-able)
     ReaderSelector log(OutputStream out);
 
@@ -51,7 +64,12 @@ public sealed interface ReaderSelector permits ReaderSelectorImpl {
     // List available readers
     List<PCSCReader> list();
 
-    // Managed sessions - card must be present
+    // Managed sessions - card must be present.
+    // With the monitor running or affine(true), the whole function runs on the reader thread and
+    // APDUs go straight to the card. A nested session on the same reader runs inline (as a
+    // second connection, so without transactions); one on another reader blocks this one until
+    // done, and a cycle of such waits (A waits for B while B waits for A) fails with
+    // IllegalStateException instead of deadlocking.
     <T> T run(Function<BIBO, T> fn);
 
     // BIBOSA variant - transport + enriched Preferences (ATR, negotiated protocol, config)
@@ -74,6 +92,20 @@ public sealed interface ReaderSelector permits ReaderSelectorImpl {
     // Continuous per-tap dispatch (requires monitor)
     void onCard(BiConsumer<PCSCReader, BIBO> fn);
 
+    // Job queue over all matching readers, one job per inserted card (requires monitor)
+    ReaderPool pool();
+
+    // Same session on every matching reader with a card, at most `parallel` at once, results as
+    // they complete. Duration.ZERO = no timeout.
+    <T> Stream<FanOut.Result<T>> fanOut(int parallel, Duration timeout, Function<BIBOSA, T> fn);
+
+    // Last APDUs of a reader, for post-mortems. With trace(true) failed sessions carry the
+    // session's part as a suppressed Trace.
+    Optional<FlightRecorder> recorder(String reader);
+
+    // Attaches the current session of the reader to the failure, with trace(true); returns it
+    <X extends Throwable> X traced(String reader, X failure);
+
     // Escape hatches (bypass executor, caller thread)
     CardTerminal terminal();
 
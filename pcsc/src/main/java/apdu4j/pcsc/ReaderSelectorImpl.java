@@ -13,19 +13,22 @@ import org.slf4j.LoggerFactory;
 import javax.smartcardio.Card;
 import javax.smartcardio.CardException;
 import javax.smartcardio.CardTerminal;
+import javax.smartcardio.CardTerminals;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.Callable;
-import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 record ReaderSelectorImpl(
         TerminalManager mgr,
@@ -37,7 +40,9 @@ record ReaderSelectorImpl(
     private static final Logger logger = LoggerFactory.getLogger(ReaderSelectorImpl.class);
 
     record SelectionCriteria(String hint, List<String> ignoreFragments, Predicate<PCSCReader> filter) {
-        static final SelectionCriteria DEFAULT = new SelectionCriteria(null, List.of(), r -> true);
+        // No filter: selection can be decided from reader names
+        static final Predicate<PCSCReader> ANY = r -> true;
+        static final SelectionCriteria DEFAULT = new SelectionCriteria(null, List.of(), ANY);
 
         SelectionCriteria {
             ignoreFragments = List.copyOf(ignoreFragments);
@@ -68,7 +73,7 @@ record ReaderSelectorImpl(
 
     @Override
     public ReaderSelector filter(Predicate<PCSCReader> predicate) {
-        return new ReaderSelectorImpl(mgr, new SelectionCriteria(selection.hint(), selection.ignoreFragments(), selection.filter().and(predicate)), config, logStream, dumpStream);
+        return new ReaderSelectorImpl(mgr, new SelectionCriteria(selection.hint(), selection.ignoreFragments(), selection.filter() == SelectionCriteria.ANY ? predicate : selection.filter().and(predicate)), config, logStream, dumpStream);
     }
 
     @Override
@@ -115,6 +120,31 @@ record ReaderSelectorImpl(
         return with(Readers.FRESH_TAP, requireFreshTap);
     }
 
+    @Override
+    public ReaderSelector affine(boolean onReaderThread) {
+        return with(Readers.AFFINE, onReaderThread);
+    }
+
+    @Override
+    public ReaderSelector warm(boolean keepConnected) {
+        return with(Readers.WARM, keepConnected);
+    }
+
+    @Override
+    public ReaderSelector preconnect(boolean handOver) {
+        return with(Readers.PRECONNECT, handOver);
+    }
+
+    @Override
+    public ReaderSelector debounce(Duration dwell, Duration dedup) {
+        return with(Readers.DWELL, Math.toIntExact(dwell.toMillis())).with(Readers.DEDUP, Math.toIntExact(dedup.toMillis()));
+    }
+
+    @Override
+    public ReaderSelector trace(boolean attach) {
+        return with(Readers.TRACE, attach);
+    }
+
     // --- Runtime objects ---
 
     @Override
@@ -183,14 +213,14 @@ record ReaderSelectorImpl(
     @Override
     public BIBO connect() {
         var name = resolveReaderName();
-        var raw = withCardTerminal(name, ct -> connectRaw(wrapLog(ct)));
+        var raw = connectWith(name, ct -> connectRaw(wrapLog(ct)));
         return maybeMarshal(name, raw);
     }
 
     @Override
     public BIBO connectWhenReady() {
         var name = resolveReaderName();
-        var raw = withCardTerminal(name, ct -> {
+        var raw = connectWith(name, ct -> {
             var wct = wrapLog(ct);
             waitForCard(wct, Duration.ZERO);
             return connectRaw(wct);
@@ -216,27 +246,43 @@ record ReaderSelectorImpl(
 
     @Override
     public void onCard(BiConsumer<PCSCReader, BIBO> fn) {
-        Predicate<PCSCReader> matcher = selection.filter();
-        if (selection.hint() != null && !selection.hint().isBlank()) {
-            var h = selection.hint().toLowerCase();
-            matcher = matcher.and(r -> r.name().toLowerCase().contains(h));
-        }
-        if (!selection.ignoreFragments().isEmpty()) {
-            var fragments = selection.ignoreFragments();
-            matcher = matcher.and(r -> !Readers.isIgnored(fragments, r.name()));
-        }
-        mgr.registerOnCard(matcher, (reader, ct) -> {
+        // Protocol for the monitor to connect with; a logged session needs its own LoggingCard connection
+        var preconnect = config.get(Readers.PRECONNECT) && logStream == null ? resolveConnectProtocol() : null;
+        var dwell = Duration.ofMillis(config.get(Readers.DWELL));
+        var dedup = Duration.ofMillis(config.get(Readers.DEDUP));
+        var taps = mgr.taps();
+        mgr.registerOnCard(matcher(), (reader, ct) -> {
             try {
+                // A parked preconnect connection is evicted by the removal
+                if (!taps.admit(ct, reader, dwell, dedup)) {
+                    return;
+                }
                 var wct = wrapLog(ct);
                 applyTransparentMode();
-                var card = wct.connect(resolveConnectProtocol());
-                var bibosa = wrapBIBO(card, ct.getName());
+                var protocol = resolveConnectProtocol();
+                var card = preconnect != null ? mgr.warm().take(ct, protocol, Optional.empty()) : null;
+                if (card == null) {
+                    card = wct.connect(protocol);
+                }
+                if (!taps.admit(reader, card, dedup)) {
+                    card.disconnect(false);
+                    return;
+                }
+                var bibosa = wrapBIBO(card, ct.getName()).then((BIBO b) -> taps.begin(reader.name(), b));
+                var completed = false;
                 try {
                     fn.accept(reader, bibosa);
+                    completed = true;
+                } catch (RuntimeException e) {
+                    // Runs on the reader executor, where nobody would see it otherwise
+                    traced(reader.name(), e);
+                    logger.warn("onCard failed for {}: {}", reader.name(), e.getMessage(), e);
                 } finally {
                     bibosa.close();
+                    taps.end(reader.name(), reader, completed);
                 }
             } catch (CardException e) {
+                mgr.health().failure(reader.name(), e);
                 var err = SCard.getExceptionMessage(e);
                 if (SCard.SCARD_E_READER_UNAVAILABLE.equals(err)) {
                     logger.debug("Reader {} removed during onCard", reader.name());
@@ -244,15 +290,39 @@ record ReaderSelectorImpl(
                     logger.warn("onCard failed for {}: {}", reader.name(), err);
                 }
             }
-        }, config.get(Readers.FRESH_TAP));
+        }, config.get(Readers.FRESH_TAP), preconnect);
+    }
+
+    @Override
+    public ReaderPool pool() {
+        return new ReaderPool(this);
+    }
+
+    @Override
+    public <T> Stream<FanOut.Result<T>> fanOut(int parallel, Duration timeout, Function<BIBOSA, T> fn) {
+        return FanOut.run(this, parallel, timeout, fn);
+    }
+
+    @Override
+    public Optional<FlightRecorder> recorder(String reader) {
+        return mgr.recorder(reader);
+    }
+
+    @Override
+    public <X extends Throwable> X traced(String reader, X failure) {
+        if (config.get(Readers.TRACE)) {
+            mgr.recorder(reader).ifPresent(r -> r.attachTo(failure));
+        }
+        return failure;
     }
 
     // --- Escape hatches ---
 
+    // Leases a context per call; a connected Card keeps its context until disconnected
     @Override
     public CardTerminal terminal() {
         var name = resolveReaderName();
-        return wrapLog(mgr.terminal(name));
+        return wrapLog(new LeasedTerminal(mgr.contexts(), name));
     }
 
     @Override
@@ -268,14 +338,57 @@ record ReaderSelectorImpl(
     // --- Dual-mode dispatch ---
 
     private <T> T withCardTerminal(String name, Function<CardTerminal, T> fn) {
-        if (mgr.isMonitorRunning()) {
+        if (onReaderThread()) {
             try {
-                return mgr.executor(name).submit(() -> fn.apply(mgr.terminal(name))).join();
-            } catch (CompletionException e) {
-                throw unwrap(e);
+                return submitAndGet(name, () -> fn.apply(mgr.terminal(name)));
+            } catch (RuntimeException e) {
+                // A context of the reader thread retired by this is replaced on its next use
+                throw mgr.contexts().failed(e);
             }
         }
-        return fn.apply(mgr.terminal(name));
+        // Caller thread: a leased context rather than one per thread
+        try (var lease = mgr.contexts().lease()) {
+            try {
+                return fn.apply(lease.terminal(name));
+            } catch (RuntimeException e) {
+                throw lease.failed(e);
+            }
+        }
+    }
+
+    // Unmanaged connection on the caller thread keeps a detached context until closed
+    private BIBO connectWith(String name, Function<CardTerminal, BIBO> fn) {
+        if (onReaderThread()) {
+            return withCardTerminal(name, fn);
+        }
+        var lease = mgr.contexts().detached();
+        try {
+            var bibo = fn.apply(lease.terminal(name));
+            BIBO leased = new BIBO() {
+                @Override
+                public byte[] transceive(byte[] bytes) throws BIBOException {
+                    return bibo.transceive(bytes);
+                }
+
+                @Override
+                public void close() {
+                    try {
+                        bibo.close();
+                    } finally {
+                        lease.close();
+                    }
+                }
+            };
+            return bibo instanceof BIBOSA bibosa ? new BIBOSA(leased, bibosa.preferences()) : leased;
+        } catch (RuntimeException e) {
+            lease.failed(e);
+            lease.close();
+            throw e;
+        }
+    }
+
+    private boolean onReaderThread() {
+        return mgr.isMonitorRunning() || config.get(Readers.AFFINE) || config.get(Readers.WARM);
     }
 
     private BIBO maybeMarshal(String name, BIBO raw) {
@@ -291,16 +404,31 @@ record ReaderSelectorImpl(
         // Explicit TRANSACTIONS overrides; otherwise derive from EXCLUSIVE
         boolean useTransactions = config.valueOf(Readers.TRANSACTIONS)
                 .orElse(!config.get(Readers.EXCLUSIVE));
+        // Warm: reuse the connection of the previous session and leave it connected if this one
+        // completes normally. Any failure disconnects as usual.
+        var warm = config.get(Readers.WARM);
         try {
             applyTransparentMode();
-            var card = ct.connect(resolveConnectProtocol());
+            var protocol = resolveConnectProtocol();
+            var card = warm ? mgr.warm().take(ct, protocol, config.valueOf(Readers.WARM_SELECT)) : null;
+            if (card == null) {
+                card = ct.connect(protocol);
+            }
             try {
                 if (useTransactions) {
                     card.beginExclusive();
                 }
-                var bibosa = wrapBIBO(card, ct.getName());
+                var base = cardBIBO(card);
+                var bibosa = wrapBIBO(base, card, ct.getName());
+                var keep = false;
                 try {
-                    return fn.apply(bibosa);
+                    var result = fn.apply(bibosa);
+                    // A session that closed its BIBO has disconnected the card already
+                    keep = warm && !base.isClosed();
+                    return result;
+                } catch (RuntimeException e) {
+                    // Session failures (BIBOException, KitchenDisaster, ...) carry the last APDUs
+                    throw traced(ct.getName(), e);
                 } finally {
                     try {
                         if (useTransactions) {
@@ -308,8 +436,13 @@ record ReaderSelectorImpl(
                         }
                     } catch (CardException ignored) {
                         // endExclusive() cleanup - card may already be disconnected
+                        keep = false;
+                    }
+                    if (keep) {
+                        mgr.warm().put(ct.getName(), card, protocol, config.get(Readers.RESET));
+                    } else {
+                        bibosa.close();
                     }
-                    bibosa.close();
                 }
             } catch (CardException e) {
                 // beginExclusive() failed - disconnect the card before propagating
@@ -320,6 +453,7 @@ record ReaderSelectorImpl(
                 throw e;
             }
         } catch (CardException e) {
+            mgr.health().failure(ct.getName(), e);
             throw new BIBOException("Failed to connect", e);
         }
     }
@@ -353,10 +487,77 @@ record ReaderSelectorImpl(
         }
     }
 
+    // Session on a named reader, on the calling thread (ReaderPool runs it on the reader executor)
+    <T> T openOn(String name, Function<BIBOSA, T> fn) {
+        return connectAndRun(wrapLog(mgr.terminal(name)), fn);
+    }
+
+    // All readers matching this selection, for continuous dispatch
+    Predicate<PCSCReader> matcher() {
+        Predicate<PCSCReader> matcher = selection.filter();
+        if (selection.hint() != null && !selection.hint().isBlank()) {
+            var h = selection.hint().toLowerCase();
+            matcher = matcher.and(r -> mgr.index().lower(r.name()).contains(h));
+        }
+        if (!selection.ignoreFragments().isEmpty()) {
+            var fragments = selection.ignoreFragments();
+            matcher = matcher.and(r -> !mgr.index().isIgnored(fragments, r.name()));
+        }
+        return matcher;
+    }
+
     // --- Internal helpers ---
 
     private String resolveReaderName() {
-        return Readers.dwim(mgr.readers(), selection.hint(), selection.ignoreFragments(), selection.filter());
+        if (mgr.isMonitorRunning() || selection.filter() != SelectionCriteria.ANY) {
+            return Readers.dwim(mgr.index(), mgr.health().annotate(mgr.readers()), selection.hint(), selection.ignoreFragments(), selection.filter(), null);
+        }
+        return resolveByName();
+    }
+
+    // Without the monitor, listing would connect to every card. Hint (name, fragment, alias,
+    // index) and a single eligible reader are decided from names; otherwise only eligible
+    // readers with a card are connected to, for the EXCLUSIVE check. Same result as dwim().
+    private String resolveByName() {
+        try (var lease = mgr.contexts().lease()) {
+            try {
+                return resolveByName(lease.terminals().list(CardTerminals.State.ALL));
+            } catch (CardException | RuntimeException e) {
+                lease.failed(e);
+                throw e instanceof CardException c ? new BIBOException("Failed to list readers", c) : (RuntimeException) e;
+            }
+        }
+    }
+
+    private String resolveByName(List<CardTerminal> terminals) {
+        var index = mgr.index(terminals.stream().map(CardTerminal::getName).toList());
+        var preferred = index.resolve(selection.hint());
+        if (preferred.isPresent()) {
+            return preferred.get();
+        }
+        var eligible = new HashSet<String>();
+        for (var name : index.names()) {
+            if (!index.isIgnored(selection.ignoreFragments(), name) && !mgr.health().isQuarantined(name)) {
+                eligible.add(name);
+            }
+        }
+        var hinted = selection.hint() != null && !selection.hint().isBlank();
+        if (eligible.size() == 1 && !hinted) {
+            return eligible.iterator().next();
+        }
+        var readers = new ArrayList<PCSCReader>(terminals.size());
+        for (var t : terminals) {
+            var probed = new PCSCReader(t.getName(), null, false, false, null);
+            try {
+                if (eligible.contains(t.getName()) && t.isCardPresent()) {
+                    probed = TerminalManager.probe(t, true, false);
+                }
+            } catch (CardException e) {
+                logger.warn("Unexpected PC/SC error: {}", SCard.getExceptionMessage(e));
+            }
+            readers.add(probed);
+        }
+        return Readers.dwim(index, mgr.health().annotate(readers), selection.hint(), selection.ignoreFragments(), selection.filter(), null);
     }
 
     // Resolve the protocol string for the actual PC/SC backend.
@@ -396,8 +597,21 @@ record ReaderSelectorImpl(
 
     // Wraps javax.smartcardio.Card into BIBOSA with session facts as readonly preferences
     private BIBOSA wrapBIBO(Card card, String readerName) {
-        var disconnect = config.get(Readers.RESET) ? SCard.Disconnect.RESET : SCard.Disconnect.LEAVE;
-        BIBO bibo = CardBIBO.wrap(card, disconnect);
+        return wrapBIBO(cardBIBO(card), card, readerName);
+    }
+
+    private CardBIBO cardBIBO(Card card) {
+        return CardBIBO.wrap(card, config.get(Readers.RESET) ? SCard.Disconnect.RESET : SCard.Disconnect.LEAVE);
+    }
+
+    private BIBOSA wrapBIBO(CardBIBO base, Card card, String readerName) {
+        BIBO bibo = base;
+        var recorder = mgr.recorder(readerName);
+        if (recorder.isPresent()) {
+            recorder.get().session(card.getATR().getBytes(), card.getProtocol());
+            bibo = recorder.get().wrap(bibo, config.get(Readers.TRACE));
+        }
+        bibo = mgr.health().monitor(readerName, bibo);
         if (dumpStream != null) {
             var ps = new PrintStream(dumpStream, true, StandardCharsets.UTF_8);
             ps.println("# ATR: " + HexUtils.bin2hex(card.getATR().getBytes()));
@@ -405,6 +619,12 @@ record ReaderSelectorImpl(
             ps.println("#");
             bibo = DumpingBIBO.wrap(bibo, dumpStream);
         }
+        // T=0: one engine for Le stripping, 61 XX and 6C XX. Only in transparent mode, where the
+        // provider leaves them to the host; otherwise it has already done them. Outside the dump,
+        // which shows every round.
+        if ("T=0".equals(card.getProtocol()) && config.get(Readers.TRANSPARENT)) {
+            bibo = T0Engine.wrap(bibo);
+        }
         // Enrich config with session facts (readonly - can't be overwritten downstream)
         var sessionPrefs = config
                 .with(Readers.READER_NAME, readerName)
@@ -413,16 +633,16 @@ record ReaderSelectorImpl(
         return new BIBOSA(bibo, sessionPrefs);
     }
 
-    // Submit to per-reader executor and block until done. Card-wait timeout
+    // Run on the per-reader executor and block until done. Card-wait timeout
     // is enforced inside the callable; operation after card arrives runs unbounded.
     private <T> T submitAndGet(String name, Callable<T> task) {
         try {
-            return mgr.executor(name).submit(task).get();
+            return mgr.executor(name).call(task);
         } catch (ExecutionException e) {
             throw unwrap(e);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            throw new BIBOException("Interrupted waiting for card", e);
+            throw new BIBOException("Interrupted waiting for reader", e);
         }
     }
 
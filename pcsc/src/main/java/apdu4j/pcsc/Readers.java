@@ -32,6 +32,29 @@ public final class Readers {
             Preference.of("reader.fresh", Boolean.class, true, false);
     public static final Preference.Default<Boolean> TRANSPARENT =
             Preference.of("reader.transparent", Boolean.class, false, false);
+    // Managed sessions on the reader thread even without the monitor
+    public static final Preference.Default<Boolean> AFFINE =
+            Preference.of("reader.affine", Boolean.class, false, false);
+    // Keep the card connected between managed sessions (implies AFFINE), optionally
+    // re-selecting this application before reuse
+    public static final Preference.Default<Boolean> WARM =
+            Preference.of("reader.warm", Boolean.class, false, false);
+    public static final Preference.Parameter<HexBytes> WARM_SELECT =
+            Preference.parameter("reader.warm.select", HexBytes.class, false);
+    // onCard: the monitor connects to a new card with the session protocol and hands that
+    // connection to the handler, instead of probing and letting the handler connect again
+    public static final Preference.Default<Boolean> PRECONNECT =
+            Preference.of("reader.preconnect", Boolean.class, false, false);
+    // onCard debouncing, in milliseconds (0 = off): how long a card must stay to get a session,
+    // and how long the card of a completed session is not dispatched again. The card is the UID
+    // (GET DATA) of a contactless card, otherwise the ATR: cards with the same ATR count as one.
+    public static final Preference.Default<Integer> DWELL =
+            Preference.of("reader.dwell", Integer.class, 0, false, ms -> ms >= 0);
+    public static final Preference.Default<Integer> DEDUP =
+            Preference.of("reader.dedup", Integer.class, 0, false, ms -> ms >= 0);
+    // Failed sessions carry the session's exchanges from the flight recorder as a suppressed Trace
+    public static final Preference.Default<Boolean> TRACE =
+            Preference.of("reader.trace", Boolean.class, false, false);
 
     // Session facts - set at connect time, readonly
     public static final Preference.Parameter<String> READER_NAME =
@@ -61,15 +84,22 @@ public final class Readers {
     // Annotate a reader snapshot with preferred/ignored flags.
     // Used for display (FancyChooser, reader list) and as input to dwim() selection.
     public static List<PCSCReader> dwimify(List<PCSCReader> readers, String hint, List<String> ignoreFragments) {
+        return dwimify(null, readers, hint, ignoreFragments);
+    }
+
+    // known: index to reuse if it is of the same reader list
+    static List<PCSCReader> dwimify(ReaderIndex known, List<PCSCReader> readers, String hint, List<String> ignoreFragments) {
         if (readers.isEmpty()) {
             return readers;
         }
-        var preferred = resolveHint(hint, readers);
+        var names = readers.stream().map(PCSCReader::name).toList();
+        var index = known == null ? ReaderIndex.of(names) : known.update(names);
+        var preferred = index.resolve(hint).orElse(null);
         return readers.stream().map(r -> {
             if (r.name().equals(preferred)) {
                 return r.withPreferred(true);
             }
-            if (isIgnored(ignoreFragments, r.name())) {
+            if (index.isIgnored(ignoreFragments, r.name())) {
                 return r.withIgnored(true);
             }
             return r;
@@ -78,14 +108,18 @@ public final class Readers {
 
     // Full DWIM selection: annotate -> prefer -> auto-pick -> fail
     public static String dwim(List<PCSCReader> readers, String hint, List<String> ignoreFragments, Predicate<PCSCReader> filter) {
-        return dwim(readers, hint, ignoreFragments, filter, null);
+        return dwim(null, readers, hint, ignoreFragments, filter, null);
     }
 
     static String dwim(List<PCSCReader> readers, String hint, List<String> ignoreFragments, Predicate<PCSCReader> filter, Consumer<String> messages) {
+        return dwim(null, readers, hint, ignoreFragments, filter, messages);
+    }
+
+    static String dwim(ReaderIndex known, List<PCSCReader> readers, String hint, List<String> ignoreFragments, Predicate<PCSCReader> filter, Consumer<String> messages) {
         var hint0 = hint != null && hint.isBlank() ? null : hint;
 
         // Phase 1: filter and annotate
-        var annotated = dwimify(readers.stream().filter(filter).toList(), hint0, ignoreFragments);
+        var annotated = dwimify(known, readers.stream().filter(filter).toList(), hint0, ignoreFragments);
 
         // Phase 2: hint-matched reader wins (even without card)
         var preferred = annotated.stream().filter(PCSCReader::preferred).findFirst();
@@ -121,33 +155,6 @@ public final class Readers {
         throw new NoMatchingReaderException(annotated.stream().map(PCSCReader::name).toList());
     }
 
-    // Resolve a hint to an original reader name. Returns null if no match.
-    private static String resolveHint(String hint, List<PCSCReader> readers) {
-        if (hint == null || hint.isBlank()) {
-            return null;
-        }
-        // Index hint: "1", "2", ... "99"
-        if (hint.matches("\\d{1,2}")) {
-            var index = Integer.parseInt(hint);
-            if (index >= 1 && index <= readers.size()) {
-                logger.debug("Chose {} by index {}", readers.get(index - 1).name(), index);
-                return readers.get(index - 1).name();
-            }
-            logger.warn("Reader index out of bounds: {} vs {}", index, readers.size());
-            return null;
-        }
-        // Fragment hint: must be >= 3 chars
-        if (hint.length() < 3) {
-            return null;
-        }
-        var aliases = ReaderAliases.getDefault().apply(readers.stream().map(PCSCReader::name).toList());
-        var h = hint.toLowerCase();
-        var matches = readers.stream()
-                .filter(r -> aliases.extended(r.name()).toLowerCase().contains(h))
-                .toList();
-        return matches.size() == 1 ? matches.get(0).name() : null;
-    }
-
     // Returns true if the reader name matches any ignore fragment
     public static boolean isIgnored(List<String> fragments, String name) {
         var lower = name.toLowerCase();
@@ -161,7 +168,7 @@ public final class Readers {
 
     // Explicit hint (name fragment or 1-indexed number)
     public static ReaderSelector select(String hint) {
-        return new ReaderSelectorImpl(TerminalManager.getDefault(), new ReaderSelectorImpl.SelectionCriteria(hint, List.of(), r -> true));
+        return new ReaderSelectorImpl(TerminalManager.getDefault(), new ReaderSelectorImpl.SelectionCriteria(hint, List.of(), ReaderSelectorImpl.SelectionCriteria.ANY));
     }
 
     // Custom TerminalManager
@@ -171,7 +178,7 @@ public final class Readers {
 
     // Custom TerminalManager + explicit hint
     public static ReaderSelector select(TerminalManager mgr, String hint) {
-        return new ReaderSelectorImpl(mgr, new ReaderSelectorImpl.SelectionCriteria(hint, List.of(), r -> true));
+        return new ReaderSelectorImpl(mgr, new ReaderSelectorImpl.SelectionCriteria(hint, List.of(), ReaderSelectorImpl.SelectionCriteria.ANY));
     }
 
     // Load reader selection from a Preferences instance using consumer-defined keys.
@@ -189,7 +196,7 @@ public final class Readers {
         var hint = prefs.valueOf(hintKey).orElse("");
         var ignores = parseIgnoreHints(prefs.valueOf(ignoreKey).orElse(""));
         return new ReaderSelectorImpl(mgr,
-                new ReaderSelectorImpl.SelectionCriteria(hint.isEmpty() ? null : hint, ignores, r -> true),
+                new ReaderSelectorImpl.SelectionCriteria(hint.isEmpty() ? null : hint, ignores, ReaderSelectorImpl.SelectionCriteria.ANY),
                 prefs, null, null);
     }
 }
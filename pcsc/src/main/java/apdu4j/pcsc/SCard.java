@@ -23,6 +23,7 @@ public final class SCard {
     public static final String SCARD_E_NO_SERVICE = "SCARD_E_NO_SERVICE";
     public static final String SCARD_E_SERVICE_STOPPED = "SCARD_E_SERVICE_STOPPED";
     public static final String SCARD_W_UNPOWERED_CARD = "SCARD_W_UNPOWERED_CARD";
+    public static final String SCARD_W_UNRESPONSIVE_CARD = "SCARD_W_UNRESPONSIVE_CARD";
     public static final String SCARD_W_REMOVED_CARD = "SCARD_W_REMOVED_CARD";
     public static final String SCARD_E_UNSUPPORTED_FEATURE = "SCARD_E_UNSUPPORTED_FEATURE";
     public static final String SCARD_E_TIMEOUT = "SCARD_E_TIMEOUT";
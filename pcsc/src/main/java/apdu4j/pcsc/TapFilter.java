@@ -0,0 +1,168 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.pcsc;
+
+import apdu4j.core.BIBO;
+import apdu4j.core.BIBOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.smartcardio.Card;
+import javax.smartcardio.CardException;
+import javax.smartcardio.CardTerminal;
+import javax.smartcardio.CommandAPDU;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Debouncing of onCard() taps, for contactless tags at the edge of the field that make a reader
+// flap between present and absent. A card must stay for the dwell time (Readers.DWELL) to get a
+// session, and the card of a session that completed is not dispatched again within the dedup
+// window (Readers.DEDUP). A contactless card (PC/SC part 3 ATR, 3B 8n 80 01) is told apart by the
+// UID that the reader returns for GET DATA (FF CA 00 00), after connecting; other cards, and
+// contactless ones on readers without GET DATA, by the ATR alone, so any card with the same ATR
+// counts as the same card. Once the monitor reports the removal, the running session fails on its
+// next APDU without touching PC/SC.
+//
+// Both are off by default; suppressed taps are counted either way.
+public final class TapFilter {
+    private static final Logger logger = LoggerFactory.getLogger(TapFilter.class);
+
+    // cancelled = sessions that had an APDU refused after the removal
+    public record Counts(long dispatched, long flaps, long duplicates, long cancelled) {
+    }
+
+    private record Ended(byte[] atr, byte[] uid, long at) {
+    }
+
+    static final CommandAPDU GET_UID = new CommandAPDU(0xFF, 0xCA, 0x00, 0x00, 256);
+
+    private final LongSupplier clock; // nanos
+    private final Map<String, Ended> ended = new HashMap<>(); // guarded by this
+    private final ConcurrentHashMap<String, AtomicBoolean> sessions = new ConcurrentHashMap<>(); // true = card removed
+    private final ConcurrentHashMap<String, byte[]> uids = new ConcurrentHashMap<>(); // of the session
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong flaps = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+
+    TapFilter() {
+        this(System::nanoTime);
+    }
+
+    TapFilter(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    // On the reader thread, before connecting. Waits up to dwell for the card to leave. Contactless
+    // cards are left to admit(reader, card, dedup).
+    boolean admit(CardTerminal ct, PCSCReader reader, Duration dwell, Duration dedup) throws CardException {
+        if (!dwell.isZero() && ct.waitForCardAbsent(dwell.toMillis())) {
+            flaps.incrementAndGet();
+            logger.debug("Card left {} within {}ms, not dispatched", reader.name(), dwell.toMillis());
+            return false;
+        }
+        var atr = reader.getATR();
+        return dedup.isZero() || atr.isEmpty() || contactless(atr.get()) || !duplicate(reader.name(), atr.get(), null, dedup);
+    }
+
+    // On the reader thread, after connecting: a contactless card by its UID. The caller leaves the
+    // card when this returns false.
+    boolean admit(PCSCReader reader, Card card, Duration dedup) {
+        var atr = reader.getATR();
+        if (dedup.isZero() || atr.isEmpty() || !contactless(atr.get())) {
+            return true;
+        }
+        var uid = uid(reader.name(), card);
+        if (duplicate(reader.name(), atr.get(), uid, dedup)) {
+            return false;
+        }
+        if (uid != null) {
+            uids.put(reader.name(), uid);
+        }
+        return true;
+    }
+
+    static boolean contactless(byte[] atr) {
+        return atr.length > 4 && atr[0] == 0x3B && (atr[1] & 0xF0) == 0x80 && atr[2] == (byte) 0x80 && atr[3] == 0x01;
+    }
+
+    // null when the reader does not support GET DATA
+    private static byte[] uid(String reader, Card card) {
+        try {
+            var response = card.getBasicChannel().transmit(GET_UID);
+            if (response.getSW() == 0x9000 && response.getData().length > 0) {
+                return response.getData();
+            }
+            logger.debug("No UID from {}: {}", reader, Integer.toHexString(response.getSW()));
+        } catch (CardException | IllegalStateException e) {
+            logger.debug("No UID from {}: {}", reader, SCard.getExceptionMessage(e));
+        }
+        return null;
+    }
+
+    private synchronized boolean duplicate(String reader, byte[] atr, byte[] uid, Duration dedup) {
+        var previous = ended.get(reader);
+        if (previous != null && Arrays.equals(previous.atr(), atr) && Arrays.equals(previous.uid(), uid) && clock.getAsLong() - previous.at() < dedup.toNanos()) {
+            duplicates.incrementAndGet();
+            logger.debug("Same card on {} within {}ms, not dispatched", reader, dedup.toMillis());
+            return true;
+        }
+        return false;
+    }
+
+    // Session on the reader; the returned BIBO fails fast after removed()
+    BIBO begin(String reader, BIBO bibo) {
+        var removed = new AtomicBoolean();
+        sessions.put(reader, removed);
+        dispatched.incrementAndGet();
+        return new BIBO() {
+            private boolean refused; // counted once per session
+
+            @Override
+            public byte[] transceive(byte[] bytes) throws BIBOException {
+                if (removed.get()) {
+                    if (!refused) {
+                        refused = true;
+                        cancelled.incrementAndGet();
+                    }
+                    throw new BIBOException("Card removed from " + reader);
+                }
+                return bibo.transceive(bytes);
+            }
+
+            @Override
+            public void close() {
+                bibo.close();
+            }
+        };
+    }
+
+    // After the session; only a completed one starts the dedup window
+    void end(String reader, PCSCReader card, boolean completed) {
+        sessions.remove(reader);
+        var uid = uids.remove(reader);
+        if (completed && card.getATR().isPresent()) {
+            synchronized (this) {
+                ended.put(reader, new Ended(card.getATR().get(), uid, clock.getAsLong()));
+            }
+        }
+    }
+
+    // Card or reader gone, as reported by the monitor
+    void removed(String reader) {
+        var removed = sessions.get(reader);
+        if (removed != null && removed.compareAndSet(false, true)) {
+            logger.debug("Cancelling session on {}, card removed", reader);
+        }
+    }
+
+    public Counts counts() {
+        return new Counts(dispatched.get(), flaps.get(), duplicates.get(), cancelled.get());
+    }
+}
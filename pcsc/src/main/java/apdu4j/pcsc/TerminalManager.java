@@ -3,16 +3,20 @@
 package apdu4j.pcsc;
 
 import apdu4j.core.BIBOException;
+import apdu4j.core.FlightRecorder;
 import apdu4j.pcsc.sim.SynthesizedCardTerminal;
 import apdu4j.pcsc.sim.SynthesizedCardTerminals;
+import apdu4j.pcsc.terminals.InstrumentedTerminalFactory;
 import apdu4j.pcsc.terminals.LoggingCardTerminal;
 import jnasmartcardio.Smartcardio;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.smartcardio.*;
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.security.NoSuchAlgorithmException;
@@ -20,8 +24,21 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
@@ -50,12 +67,27 @@ public final class TerminalManager implements PCSCMonitor, Closeable {
     private static final AtomicReference<TerminalManager> active = new AtomicReference<>();
 
     private final TerminalFactory factory;
-    // Per-thread SCardContext via jnasmartcardio
-    private final ThreadLocal<CardTerminals> threadLocalTerminals = ThreadLocal.withInitial(() -> null);
+    private final InstrumentedTerminalFactory instrumented; // null with -Dapdu4j.pcsc.instrument=false
+    // Per-thread SCardContext via jnasmartcardio, for long-lived threads; others lease from contexts
+    private final ThreadLocal<ContextPool.Context> threadLocalTerminals = ThreadLocal.withInitial(() -> null);
+    // Leased contexts: one per reader executor, at least this many
+    static final int CONTEXTS = Integer.getInteger("apdu4j.pcsc.contexts", 4);
+    private final ContextPool contexts;
+
+    // Concurrent reader probes in listReaders(), each probe thread with its own context
+    static final int PROBE_THREADS = Integer.getInteger("apdu4j.pcsc.probes", 8);
+    private ExecutorService probes; // lazy, guarded by this
 
     // Per-reader executor management
     private final ConcurrentHashMap<String, ReaderExecutor> executors = new ConcurrentHashMap<>();
+    private final ReaderHealth health = new ReaderHealth();
+    private final WarmSessions warm = new WarmSessions(this);
+    private final TapFilter taps = new TapFilter();
+    private final ConcurrentHashMap<String, FlightRecorder> recorders = new ConcurrentHashMap<>();
+    static final int RECORDER_SLOTS = Integer.getInteger("apdu4j.pcsc.recorder", FlightRecorder.DEFAULT_SLOTS);
+    private volatile ReaderExecutor.Queueing queueing = ReaderExecutor.Queueing.DEFAULT;
     private volatile List<PCSCReader> currentReaders = List.of();
+    private volatile ReaderIndex index = ReaderIndex.of(List.of()); // of the latest reader list
     private volatile Thread monitorThread;
 
     // Monitor state notification
@@ -64,6 +96,11 @@ public final class TerminalManager implements PCSCMonitor, Closeable {
     private final Condition readersUpdated = readersLock.newCondition();
     private volatile Predicate<PCSCReader> onCardMatcher;
     private volatile BiConsumer<PCSCReader, CardTerminal> onCardAction;
+    private volatile String preconnect; // onCard connect protocol, if the monitor connects for the handler
+    // How long the monitor waits for a busy reader thread before probing itself
+    static final long PRECONNECT_WAIT = Long.getLong("apdu4j.pcsc.preconnect.wait", 500);
+    private SubmissionPublisher<ReaderEvent> events; // lazy, guarded by this
+    private ExecutorService delivery; // threads of events, guarded by this
 
     // Call from a single thread (typically main). Not safe under contention.
     public static TerminalManager getDefault() {
@@ -79,6 +116,9 @@ public final class TerminalManager implements PCSCMonitor, Closeable {
             throw new IllegalStateException("TerminalManager already active; close() existing instance first");
         }
         this.factory = factory;
+        this.instrumented = isEnabled("apdu4j.pcsc.instrument", true) ? InstrumentedTerminalFactory.of(factory) : null;
+        this.contexts = new ContextPool(() -> instrumented != null ? instrumented.terminals() : factory.terminals(),
+                () -> Math.max(CONTEXTS, executors.size()));
     }
 
     public static TerminalManager replayManager(InputStream dump) {
@@ -99,27 +139,34 @@ public final class TerminalManager implements PCSCMonitor, Closeable {
         return terminals(false);
     }
 
+    // Context pinned to this thread until the manager closes - for the monitor and reader threads.
+    // A thread that is not around for long should lease one from contexts() instead.
     public CardTerminals terminals(boolean fresh) {
-        var terms = threadLocalTerminals.get();
-        // Explicitly release the old context if using jnasmartcardio
-        if (fresh && terms instanceof Smartcardio.JnaCardTerminals jnaTerms) {
-            try {
-                jnaTerms.close();
-            } catch (Smartcardio.JnaPCSCException e) {
-                logger.warn("Could not release context: {}", SCard.getExceptionMessage(e), e);
+        var context = threadLocalTerminals.get();
+        // A retired context (service restarted) is replaced as well
+        if (context == null || fresh || contexts.stale(context)) {
+            if (context != null) {
+                contexts.unpin(context);
             }
+            context = contexts.pin();
+            threadLocalTerminals.set(context);
         }
-        if (terms == null || fresh) {
-            terms = factory.terminals();
-            threadLocalTerminals.set(terms);
-        }
-        return terms;
+        return context.terminals();
+    }
+
+    public ContextPool contexts() {
+        return contexts;
     }
 
     public TerminalFactory factory() {
         return factory;
     }
 
+    // Timings of PC/SC primitives per reader and protocol, for telling daemon time from card time
+    public List<InstrumentedTerminalFactory.Timing> timings() {
+        return instrumented == null ? List.of() : instrumented.timings();
+    }
+
     // Provider detection -used by ReaderSelectorImpl to resolve connect strings
     boolean isJna() {
         return factory.getProvider() instanceof jnasmartcardio.Smartcardio;
@@ -223,98 +270,184 @@ public final class TerminalManager implements PCSCMonitor, Closeable {
                 t = LoggingCardTerminal.getInstance(t, logStream);
             }
             try {
-                final var name = t.getName();
-                var present = t.isCardPresent();
-                var exclusive = false;
-                String vmd = null;
-                byte[] atr = null;
-                if (present) {
-                    Card c = null;
-                    // Try to connect in shared mode, also detects EXCLUSIVE
+                result.add(probe(t, t.isCardPresent(), probePinpad));
+            } catch (CardException e) {
+                String err = SCard.getExceptionMessage(e);
+                logger.warn("Unexpected PC/SC error: {}", err, e);
+            }
+        }
+        return result;
+    }
+
+    // Probe a single reader: connects to a present card for ATR and EXCLUSIVE detection
+    static PCSCReader probe(CardTerminal t, boolean present, boolean probePinpad) throws CardException {
+        final var name = t.getName();
+        var exclusive = false;
+        String vmd = null;
+        byte[] atr = null;
+        if (present) {
+            Card c = null;
+            // Try to connect in shared mode, also detects EXCLUSIVE
+            try {
+                c = t.connect("*");
+                // If successful, we get the protocol and ATR
+                atr = c.getATR().getBytes();
+                if (probePinpad) {
+                    vmd = PinPadCache.getDefault().vmd(t, c);
+                }
+            } catch (CardException e) {
+                String err = SCard.getExceptionMessage(e);
+                if (SCard.SCARD_W_UNPOWERED_CARD.equals(err)) {
+                    logger.warn("Unpowered card. Contact card inserted wrong way or card mute?");
+                    // We don't present such cards, as for contactless this is a no-case TODO: reconsider ?
+                    present = false;
+                } else if (SCard.SCARD_E_NO_SMARTCARD.equals(err) || SCard.SCARD_W_REMOVED_CARD.equals(err) || SCard.SCARD_E_READER_UNAVAILABLE.equals(err)) {
+                    // Race: card/reader removed between list and connect
+                    logger.debug("Card removed from {} during enumeration", name);
+                    present = false;
+                } else if (SCard.SCARD_E_SHARING_VIOLATION.equals(err)) {
+                    exclusive = true;
+                    // macOS allows to connect to reader in DIRECT mode when device is in EXCLUSIVE
                     try {
-                        c = t.connect("*");
-                        // If successful, we get the protocol and ATR
+                        c = t.connect("DIRECT");
                         atr = c.getATR().getBytes();
                         if (probePinpad) {
-                            vmd = PinPadTerminal.getVMD(t, c);
+                            vmd = PinPadCache.getDefault().vmd(t, c);
                         }
-                    } catch (CardException e) {
-                        String err = SCard.getExceptionMessage(e);
-                        if (SCard.SCARD_W_UNPOWERED_CARD.equals(err)) {
-                            logger.warn("Unpowered card. Contact card inserted wrong way or card mute?");
-                            // We don't present such cards, as for contactless this is a no-case TODO: reconsider ?
-                            present = false;
-                        } else if (SCard.SCARD_E_NO_SMARTCARD.equals(err) || SCard.SCARD_W_REMOVED_CARD.equals(err) || SCard.SCARD_E_READER_UNAVAILABLE.equals(err)) {
-                            // Race: card/reader removed between list and connect
-                            logger.debug("Card removed from {} during enumeration", name);
-                            present = false;
-                        } else if (SCard.SCARD_E_SHARING_VIOLATION.equals(err)) {
-                            exclusive = true;
-                            // macOS allows to connect to reader in DIRECT mode when device is in EXCLUSIVE
-                            try {
-                                c = t.connect("DIRECT");
-                                atr = c.getATR().getBytes();
-                                if (probePinpad) {
-                                    vmd = PinPadTerminal.getVMD(t, c);
-                                }
-                            } catch (CardException e2) {
-                                String err2 = SCard.getExceptionMessage(e2);
-                                if (probePinpad) {
-                                    if (SCard.SCARD_E_SHARING_VIOLATION.equals(err2)) {
-                                        vmd = "???";
-                                    } else {
-                                        vmd = "EEE";
-                                        logger.warn("Unexpected error: {}", err2, e2);
-                                    }
-                                }
-                            }
-                        } else {
-                            if (probePinpad) {
+                    } catch (CardException e2) {
+                        String err2 = SCard.getExceptionMessage(e2);
+                        if (probePinpad) {
+                            // Capabilities do not change while the reader is in use
+                            var cached = PinPadCache.getDefault().get(name);
+                            if (cached.isPresent()) {
+                                vmd = cached.get().vmd();
+                            } else if (SCard.SCARD_E_SHARING_VIOLATION.equals(err2)) {
+                                vmd = "???";
+                            } else {
                                 vmd = "EEE";
-                            }
-                            logger.warn("Unexpected error: {}", err, e);
-                        }
-                    } finally {
-                        if (c != null) {
-                            try {
-                                c.disconnect(false);
-                            } catch (CardException ignored) {
-                                // Probe cleanup - may fail if another thread holds exclusive
+                                logger.warn("Unexpected error: {}", err2, e2);
                             }
                         }
                     }
                 } else {
-                    // Not present
                     if (probePinpad) {
-                        Card c = null;
-                        // Try to connect in DIRECT mode
+                        vmd = "EEE";
+                    }
+                    logger.warn("Unexpected error: {}", err, e);
+                }
+            } finally {
+                if (c != null) {
+                    try {
+                        c.disconnect(false);
+                    } catch (CardException ignored) {
+                        // Probe cleanup - may fail if another thread holds exclusive
+                    }
+                }
+            }
+        } else {
+            // Not present
+            var cached = probePinpad ? PinPadCache.getDefault().get(name) : Optional.<PinPadCache.Entry>empty();
+            if (cached.isPresent()) {
+                vmd = cached.get().vmd();
+            } else if (probePinpad) {
+                Card c = null;
+                // Try to connect in DIRECT mode
+                try {
+                    c = t.connect("DIRECT");
+                    vmd = PinPadCache.getDefault().vmd(t, c);
+                } catch (CardException e) {
+                    vmd = "EEE";
+                    String err = SCard.getExceptionMessage(e);
+                    logger.debug("Could not connect to reader in direct mode: {}", err, e);
+                } finally {
+                    if (c != null) {
                         try {
-                            c = t.connect("DIRECT");
-                            vmd = PinPadTerminal.getVMD(t, c);
-                        } catch (CardException e) {
-                            vmd = "EEE";
-                            String err = SCard.getExceptionMessage(e);
-                            logger.debug("Could not connect to reader in direct mode: {}", err, e);
-                        } finally {
-                            if (c != null) {
-                                try {
-                                    c.disconnect(false);
-                                } catch (CardException ignored) {
-                                    // Probe cleanup - may fail if another thread holds exclusive
-                                }
-                            }
+                            c.disconnect(false);
+                        } catch (CardException ignored) {
+                            // Probe cleanup - may fail if another thread holds exclusive
                         }
                     }
                 }
-                result.add(new PCSCReader(name, atr, present, exclusive, vmd));
-            } catch (CardException e) {
-                String err = SCard.getExceptionMessage(e);
-                logger.warn("Unexpected PC/SC error: {}", err, e);
+            }
+        }
+        return new PCSCReader(name, atr, present, exclusive, vmd);
+    }
+
+    // Like listPCSC() for all readers of this manager, but probes up to PROBE_THREADS readers at once
+    // and returns them in reader order. Probe threads keep their own thread-local context, as blocking
+    // calls on a shared pcsc-lite context would serialize. Set apdu4j.pcsc.parallel=false to disable.
+    public List<PCSCReader> listReaders(OutputStream logStream, boolean probePinpad) throws CardException {
+        List<CardTerminal> terminals;
+        try (var lease = contexts.lease()) {
+            try {
+                terminals = lease.terminals().list(CardTerminals.State.ALL);
+                if (terminals.size() < 2 || PROBE_THREADS < 2 || !isEnabled("apdu4j.pcsc.parallel", true)) {
+                    return listPCSC(terminals, logStream, probePinpad);
+                }
+            } catch (CardException | RuntimeException e) {
+                lease.failed(e);
+                throw e;
+            }
+        }
+        var pool = probes();
+        var logs = new ArrayList<ByteArrayOutputStream>(terminals.size());
+        var futures = new ArrayList<CompletableFuture<PCSCReader>>(terminals.size());
+        for (var t : terminals) {
+            var name = t.getName();
+            // Buffer per probe, so log lines of different readers don't interleave
+            var log = logStream == null ? null : new ByteArrayOutputStream();
+            logs.add(log);
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                var pt = terminal(name);
+                if (log != null) {
+                    pt = LoggingCardTerminal.getInstance(pt, log);
+                }
+                try {
+                    return probe(pt, pt.isCardPresent(), probePinpad);
+                } catch (CardException e) {
+                    logger.warn("Unexpected PC/SC error: {}", SCard.getExceptionMessage(e), e);
+                    return null;
+                }
+            }, pool));
+        }
+        var result = new ArrayList<PCSCReader>(terminals.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                var reader = futures.get(i).join();
+                if (reader != null) {
+                    result.add(reader);
+                }
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException re) {
+                    throw re;
+                }
+                throw e;
+            } finally {
+                var log = logs.get(i);
+                if (log != null) {
+                    try {
+                        log.writeTo(logStream);
+                    } catch (IOException e) {
+                        logger.warn("Could not write probe log: {}", e.getMessage());
+                    }
+                }
             }
         }
         return result;
     }
 
+    private synchronized ExecutorService probes() {
+        if (probes == null) {
+            var counter = new AtomicInteger();
+            probes = Executors.newFixedThreadPool(PROBE_THREADS, r -> {
+                var t = new Thread(r, "PC/SC Probe " + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return probes;
+    }
+
     // Start monitoring reader changes in a daemon thread. Idempotent.
     synchronized void startMonitor() {
         if (monitorThread != null) {
@@ -326,9 +459,70 @@ public final class TerminalManager implements PCSCMonitor, Closeable {
         monitorThread.start();
     }
 
+    // Reader and card changes as they happen, one buffer per subscriber. A slow subscriber
+    // loses events (logged) instead of stalling the monitor. Subscribing starts the monitor;
+    // if it was already running, take readers() after subscribing as the starting state.
+    public Flow.Publisher<ReaderEvent> events() {
+        return subscriber -> {
+            publisher(true).subscribe(subscriber);
+            startMonitor();
+        };
+    }
+
+    private synchronized SubmissionPublisher<ReaderEvent> publisher(boolean create) {
+        if (events == null && create) {
+            var counter = new AtomicInteger();
+            delivery = Executors.newCachedThreadPool(r -> {
+                var t = new Thread(r, "PC/SC Events " + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            events = new SubmissionPublisher<>(delivery, Flow.defaultBufferSize());
+        }
+        return events;
+    }
+
     // Get or create a per-reader executor
     public ReaderExecutor executor(String readerName) {
-        return executors.computeIfAbsent(readerName, ReaderExecutor::new);
+        return executors.computeIfAbsent(readerName, name -> new ReaderExecutor(name, queueing));
+    }
+
+    // Queueing for all reader executors, current and future. Per reader: executor(name).queueing(q)
+    public void queueing(ReaderExecutor.Queueing queueing) {
+        this.queueing = queueing;
+        executors.values().forEach(e -> e.queueing(queueing));
+    }
+
+    // Index of the reader list the monitor reported last, or a selection listed last
+    ReaderIndex index() {
+        return index;
+    }
+
+    ReaderIndex index(List<String> names) {
+        var updated = index.update(names);
+        index = updated;
+        return updated;
+    }
+
+    public ReaderHealth health() {
+        return health;
+    }
+
+    WarmSessions warm() {
+        return warm;
+    }
+
+    // onCard debouncing and its counters
+    public TapFilter taps() {
+        return taps;
+    }
+
+    // Last APDUs exchanged with the reader, across sessions. Empty with -Dapdu4j.pcsc.recorder=0
+    public Optional<FlightRecorder> recorder(String reader) {
+        if (RECORDER_SLOTS < 1) {
+            return Optional.empty();
+        }
+        return Optional.of(recorders.computeIfAbsent(reader, k -> new FlightRecorder(k, RECORDER_SLOTS, FlightRecorder.DEFAULT_SLOT_BYTES)));
     }
 
     public boolean isMonitorRunning() {
@@ -341,7 +535,7 @@ public final class TerminalManager implements PCSCMonitor, Closeable {
             return List.copyOf(currentReaders);
         }
         try {
-            return listPCSC(terminals().list(CardTerminals.State.ALL), null, false);
+            return listReaders(null, false);
         } catch (CardException e) {
             throw new BIBOException("Failed to list readers", e);
         }
@@ -369,7 +563,9 @@ public final class TerminalManager implements PCSCMonitor, Closeable {
         }
     }
 
-    void registerOnCard(Predicate<PCSCReader> matcher, BiConsumer<PCSCReader, CardTerminal> action, boolean fresh) {
+    // With a preconnect protocol, new cards are connected to on the reader thread and the
+    // connection is left in warm() for the handler to take
+    void registerOnCard(Predicate<PCSCReader> matcher, BiConsumer<PCSCReader, CardTerminal> action, boolean fresh, String preconnect) {
         if (this.onCardAction != null) {
             throw new IllegalStateException("onCard handler already registered");
         }
@@ -386,7 +582,7 @@ public final class TerminalManager implements PCSCMonitor, Closeable {
                 // Normal path: direct PCSC scan to seed before monitor starts
                 readersLock.lock();
                 try {
-                    currentReaders = listPCSC(terminals().list(CardTerminals.State.ALL), null, false);
+                    currentReaders = listReaders(null, false);
                 } catch (CardException e) {
                     throw new BIBOException("Failed to seed reader state", e);
                 } finally {
@@ -394,6 +590,7 @@ public final class TerminalManager implements PCSCMonitor, Closeable {
                 }
             }
         }
+        this.preconnect = preconnect;
         this.onCardMatcher = matcher;
         this.onCardAction = action; // volatile write last - makes matcher visible too
         startMonitor();
@@ -401,10 +598,26 @@ public final class TerminalManager implements PCSCMonitor, Closeable {
 
     @Override
     public void readerListChanged(List<PCSCReader> states) {
-        List<PCSCReader> previous;
+        readerListChanged(states, Set.of());
+    }
+
+    @Override
+    public void readerListChanged(List<PCSCReader> states, Set<String> insertions) {
+        // Before the initial scan is released: a fresh handler registered right after it must not see its diff
+        var matcher = onCardMatcher;
+        var action = onCardAction;
+        // The monitor is the only writer once running
+        var previous = currentReaders;
+        var changes = ReaderEvent.diff(previous, states, insertions);
+        // Before the new list is seen: whoever sees the card gone must find its session cancelled
+        for (var event : changes) {
+            if (event instanceof ReaderEvent.CardRemoved || event instanceof ReaderEvent.ReaderDetached) {
+                warm.removed(event.reader().name());
+                taps.removed(event.reader().name());
+            }
+        }
         readersLock.lock();
         try {
-            previous = currentReaders;
             currentReaders = List.copyOf(states);
             readersUpdated.signalAll();
         } finally {
@@ -412,26 +625,89 @@ public final class TerminalManager implements PCSCMonitor, Closeable {
         }
         initialScan.countDown();
         logger.debug("Reader list changed: {}", states);
+        // Prepared here, on the monitor thread, rather than on the next selection
+        index = index.update(states.stream().map(PCSCReader::name).toList());
+
+        var publisher = publisher(false);
+        if (publisher != null) {
+            for (var event : changes) {
+                publisher.offer(event, (subscriber, dropped) -> {
+                    logger.warn("Dropped {} for slow subscriber", dropped);
+                    return false;
+                });
+            }
+        }
 
-        var matcher = onCardMatcher;
-        var action = onCardAction;
         if (matcher == null || action == null) {
             return;
         }
-
-        for (var reader : states) {
-            if (!reader.present() || !matcher.test(reader)) {
-                continue;
-            }
-            var wasPresent = previous.stream()
-                    .filter(r -> r.name().equals(reader.name()))
-                    .anyMatch(PCSCReader::present);
-            if (!wasPresent) {
-                executor(reader.name()).run(() -> action.accept(reader, terminal(reader.name())));
+        for (var event : changes) {
+            if (event instanceof ReaderEvent.CardInserted inserted) {
+                var reader = inserted.reader();
+                if (matcher.test(reader) && !health.isQuarantined(reader.name())) {
+                    // Never waits: the monitor serves every reader
+                    executor(reader.name()).offer(ReaderExecutor.Lane.INTERACTIVE, () -> {
+                        action.accept(reader, terminal(reader.name()));
+                        return null;
+                    }).exceptionally(e -> {
+                        if (e instanceof RejectedExecutionException) {
+                            logger.warn("{} busy, card not handed to onCard: {}", reader.name(), e.getMessage());
+                        }
+                        return null;
+                    });
+                } else if (preconnect != null) {
+                    // Connected for a handler that does not want this card
+                    warm.removed(reader.name());
+                }
             }
         }
     }
 
+    // Probe of a card that the monitor saw inserted. With a preconnect handler this runs on the
+    // reader thread, as a handle belongs to the context that connected it (and the monitor context
+    // is busy waiting for changes). Any connect failure gets the usual probe. A preconnect that the
+    // monitor gave up on does not connect, or lets go of the card: nobody would take it from warm().
+    PCSCReader probeInserted(CardTerminal t) throws CardException {
+        var protocol = preconnect;
+        if (protocol == null || onCardAction == null) {
+            return probe(t, true, false);
+        }
+        var name = t.getName();
+        var claimed = new AtomicBoolean(); // by the task to park the card, or by the monitor giving up
+        try {
+            return executor(name).offer(ReaderExecutor.Lane.INTERACTIVE, () -> {
+                if (claimed.get()) {
+                    return null;
+                }
+                var ct = terminal(name);
+                try {
+                    var card = ct.connect(protocol);
+                    if (!claimed.compareAndSet(false, true)) {
+                        logger.debug("Preconnect to {} given up, disconnecting", name);
+                        try {
+                            card.disconnect(false);
+                        } catch (CardException ignored) {
+                            // Card may be gone already
+                        }
+                        return null;
+                    }
+                    warm.put(name, card, protocol, false);
+                    return new PCSCReader(name, card.getATR().getBytes(), true, false, null);
+                } catch (CardException e) {
+                    logger.debug("Preconnect to {} failed: {}", name, SCard.getExceptionMessage(e));
+                    return probe(ct, true, false);
+                }
+            }).get(PRECONNECT_WAIT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CardException("Interrupted", e);
+        } catch (TimeoutException | ExecutionException | RuntimeException e) {
+            claimed.set(true);
+            logger.debug("Reader {} busy, probing from the monitor: {}", name, e.toString());
+            return probe(t, true, false);
+        }
+    }
+
     @Override
     public void readerListErrored(Throwable t) {
         logger.error("Reader monitor error: {}", t.getMessage(), t);
@@ -448,8 +724,21 @@ public final class TerminalManager implements PCSCMonitor, Closeable {
             }
             monitorThread = null;
         }
+        warm.close(); // before the executors, which run the disconnects
         executors.values().forEach(ReaderExecutor::shutdown);
         executors.clear();
+        if (probes != null) {
+            probes.shutdownNow();
+            probes = null;
+        }
+        if (events != null) {
+            events.close();
+            events = null;
+            // Delivers what close() queued (onComplete), then the threads end
+            delivery.shutdown();
+            delivery = null;
+        }
+        contexts.close();
         active.compareAndSet(this, null);
     }
 
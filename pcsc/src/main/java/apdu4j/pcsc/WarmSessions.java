@@ -0,0 +1,148 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.pcsc;
+
+import apdu4j.core.HexBytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.smartcardio.Card;
+import javax.smartcardio.CardException;
+import javax.smartcardio.CardTerminal;
+import javax.smartcardio.CommandAPDU;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Live card connections kept between managed sessions (Readers.WARM), one per reader, left
+// connected with LEAVE instead of reset. Handles belong to the PC/SC context of the reader
+// thread, so take() and put() run there and evictions are submitted there.
+//
+// Before reuse: card still present, same connect protocol, not idle for too long and, if
+// Readers.WARM_SELECT is set, the application answers SELECT. Anything else disconnects
+// and the session connects cold. Removals seen by the monitor evict right away; without the
+// monitor a swapped card is noticed by the re-select, or fails the first APDU.
+final class WarmSessions {
+    private static final Logger logger = LoggerFactory.getLogger(WarmSessions.class);
+
+    static final Duration IDLE = Duration.ofSeconds(Integer.getInteger("apdu4j.pcsc.warm.idle", 30));
+
+    private record Warm(Card card, String protocol, boolean reset, long used) {
+    }
+
+    private final TerminalManager mgr;
+    private final ConcurrentHashMap<String, Warm> cards = new ConcurrentHashMap<>();
+    private ScheduledExecutorService sweeper; // lazy, guarded by this
+
+    WarmSessions(TerminalManager mgr) {
+        this.mgr = mgr;
+    }
+
+    // On the reader thread. Null if there is no usable connection.
+    Card take(CardTerminal ct, String protocol, Optional<HexBytes> aid) {
+        var warm = cards.remove(ct.getName());
+        if (warm == null) {
+            return null;
+        }
+        if (!warm.protocol().equals(protocol) || System.nanoTime() - warm.used() > IDLE.toNanos()) {
+            disconnect(ct.getName(), warm);
+            return null;
+        }
+        try {
+            if (!ct.isCardPresent()) {
+                disconnect(ct.getName(), warm);
+                return null;
+            }
+            if (aid.isPresent()) {
+                var response = warm.card().getBasicChannel().transmit(new CommandAPDU(0x00, 0xA4, 0x04, 0x00, aid.get().value(), 256));
+                if (response.getSW() != 0x9000 && response.getSW1() != 0x61) {
+                    logger.debug("Re-select on {} failed with {}", ct.getName(), Integer.toHexString(response.getSW()));
+                    disconnect(ct.getName(), warm);
+                    return null;
+                }
+            }
+        } catch (CardException | IllegalStateException e) {
+            // IllegalStateException: the provider's handle was disconnected under us
+            logger.debug("Warm connection on {} is gone: {}", ct.getName(), SCard.getExceptionMessage(e));
+            disconnect(ct.getName(), warm);
+            return null;
+        }
+        return warm.card();
+    }
+
+    // On the reader thread, after a session that completed normally
+    void put(String reader, Card card, String protocol, boolean reset) {
+        var previous = cards.put(reader, new Warm(card, protocol, reset, System.nanoTime()));
+        if (previous != null && previous.card() != card) {
+            disconnect(reader, previous);
+        }
+        sweep();
+    }
+
+    // Card removed or reader gone: PC/SC has invalidated the handle already. Called by the monitor,
+    // so offered ahead of queued work, never waited for; inline when on the reader thread. If the
+    // reader is too busy, the next acquire() or the sweep finds the handle gone.
+    void removed(String reader) {
+        if (cards.containsKey(reader)) {
+            mgr.executor(reader).offer(ReaderExecutor.Lane.INTERACTIVE, () -> {
+                var warm = cards.remove(reader);
+                if (warm != null) {
+                    disconnect(reader, warm);
+                }
+                return null;
+            }).exceptionally(e -> {
+                logger.debug("Disconnect on {} deferred: {}", reader, e.getMessage());
+                return null;
+            });
+        }
+    }
+
+    int size() {
+        return cards.size();
+    }
+
+    // Disconnects everything, on the reader threads
+    synchronized void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+        cards.keySet().forEach(this::removed);
+    }
+
+    private synchronized void sweep() {
+        if (sweeper != null) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            var t = new Thread(r, "PC/SC Warm Sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        var period = Math.max(1, IDLE.toMillis() / 2);
+        sweeper.scheduleWithFixedDelay(() -> cards.forEach((reader, warm) -> {
+            if (System.nanoTime() - warm.used() > IDLE.toNanos()) {
+                // Not behind queued work; a busy reader is tried again on the next round
+                mgr.executor(reader).offer(ReaderExecutor.Lane.INTERACTIVE, () -> {
+                    // Still the same idle connection, not one put back meanwhile
+                    if (cards.remove(reader, warm)) {
+                        logger.debug("Closing idle connection on {}", reader);
+                        disconnect(reader, warm);
+                    }
+                    return null;
+                });
+            }
+        }), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private static void disconnect(String reader, Warm warm) {
+        try {
+            warm.card().disconnect(warm.reset());
+        } catch (CardException e) {
+            logger.debug("Disconnect of {} failed: {}", reader, SCard.getExceptionMessage(e));
+        }
+    }
+}
@@ -0,0 +1,326 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.pcsc.terminals;
+
+import javax.smartcardio.*;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Times and counts every PC/SC primitive of the terminals of a TerminalFactory, per operation,
+ * reader and protocol. Separates PC/SC daemon overhead (list, waitForChange, connect, transactions)
+ * from card time (transmit). Samples go into fixed histograms, nothing is formatted or logged.
+ * <p>
+ * TerminalFactory is final, so this wraps the CardTerminals it produces. Code that checks for
+ * provider classes must look at unwrap().
+ */
+public final class InstrumentedTerminalFactory {
+    public enum Operation {
+        LIST, WAIT_FOR_CHANGE, IS_CARD_PRESENT, WAIT_FOR_CARD, CONNECT, BEGIN_EXCLUSIVE, END_EXCLUSIVE, TRANSMIT, CONTROL, DISCONNECT
+    }
+
+    // Reader is empty for LIST and WAIT_FOR_CHANGE; protocol is the requested one for CONNECT,
+    // the negotiated one after, empty before. Percentiles are bucket bounds, within 25%.
+    public record Timing(Operation operation, String reader, String protocol, long count, long errors,
+                         Duration total, Duration p50, Duration p90, Duration p99, Duration max) {
+        public Duration mean() {
+            return count == 0 ? Duration.ZERO : total.dividedBy(count);
+        }
+    }
+
+    private record Key(Operation operation, String reader, String protocol) {
+    }
+
+    private final TerminalFactory factory;
+    private final ConcurrentHashMap<Key, Histogram> timings = new ConcurrentHashMap<>();
+
+    private InstrumentedTerminalFactory(TerminalFactory factory) {
+        this.factory = Objects.requireNonNull(factory, "factory");
+    }
+
+    public static InstrumentedTerminalFactory of(TerminalFactory factory) {
+        return new InstrumentedTerminalFactory(factory);
+    }
+
+    public TerminalFactory factory() {
+        return factory;
+    }
+
+    // Instrumented view of a fresh factory.terminals()
+    public CardTerminals terminals() {
+        return new Terminals(factory.terminals());
+    }
+
+    public static CardTerminals unwrap(CardTerminals terminals) {
+        return terminals instanceof Terminals t ? t.terminals : terminals;
+    }
+
+    public static CardTerminal unwrap(CardTerminal terminal) {
+        return terminal instanceof Terminal t ? t.terminal : terminal;
+    }
+
+    public static Card unwrap(Card card) {
+        return card instanceof InstrumentedCard c ? c.card : card;
+    }
+
+    public List<Timing> timings() {
+        var result = new ArrayList<Timing>(timings.size());
+        timings.forEach((k, h) -> result.add(h.timing(k)));
+        result.sort(Comparator.comparing(Timing::operation).thenComparing(Timing::reader).thenComparing(Timing::protocol));
+        return result;
+    }
+
+    public void reset() {
+        timings.clear();
+    }
+
+    @FunctionalInterface
+    private interface Call<T> {
+        T call() throws CardException;
+    }
+
+    private <T> T timed(Operation op, String reader, String protocol, Call<T> call) throws CardException {
+        var histogram = timings.computeIfAbsent(new Key(op, reader, protocol), k -> new Histogram());
+        var start = System.nanoTime();
+        try {
+            var result = call.call();
+            histogram.record(System.nanoTime() - start, false);
+            return result;
+        } catch (CardException | RuntimeException e) {
+            histogram.record(System.nanoTime() - start, true);
+            throw e;
+        }
+    }
+
+    // Four buckets per power of two: values below 4 are exact, above within 25%
+    static final class Histogram {
+        static final int BUCKETS = 64 * 4;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long nanos, boolean error) {
+            var n = Math.max(0, nanos);
+            buckets.incrementAndGet(bucket(n));
+            count.incrementAndGet();
+            total.addAndGet(n);
+            max.accumulateAndGet(n, Math::max);
+            if (error) {
+                errors.incrementAndGet();
+            }
+        }
+
+        static int bucket(long n) {
+            if (n < 4) {
+                return (int) n;
+            }
+            var exp = 63 - Long.numberOfLeadingZeros(n);
+            return exp * 4 + (int) ((n >>> (exp - 2)) & 3);
+        }
+
+        // Largest value that falls into the bucket
+        static long upper(int bucket) {
+            if (bucket < 8) {
+                return bucket;
+            }
+            var exp = bucket / 4;
+            var sub = bucket % 4;
+            return ((4L + sub + 1) << (exp - 2)) - 1;
+        }
+
+        long percentile(double p, long n) {
+            var rank = (long) Math.ceil(p * n);
+            var seen = 0L;
+            for (var i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank && seen > 0) {
+                    return Math.min(upper(i), max.get());
+                }
+            }
+            return max.get();
+        }
+
+        Timing timing(Key k) {
+            var n = count.get();
+            return new Timing(k.operation(), k.reader(), k.protocol(), n, errors.get(), Duration.ofNanos(total.get()),
+                    Duration.ofNanos(percentile(0.50, n)), Duration.ofNanos(percentile(0.90, n)),
+                    Duration.ofNanos(percentile(0.99, n)), Duration.ofNanos(max.get()));
+        }
+    }
+
+    private final class Terminals extends CardTerminals {
+        private final CardTerminals terminals;
+
+        Terminals(CardTerminals terminals) {
+            this.terminals = terminals;
+        }
+
+        @Override
+        public List<CardTerminal> list(State state) throws CardException {
+            var list = timed(Operation.LIST, "", "", () -> terminals.list(state));
+            var result = new ArrayList<CardTerminal>(list.size());
+            for (var t : list) {
+                result.add(new Terminal(t));
+            }
+            return result;
+        }
+
+        @Override
+        public CardTerminal getTerminal(String name) {
+            var t = terminals.getTerminal(name);
+            return t == null ? null : new Terminal(t);
+        }
+
+        @Override
+        public boolean waitForChange(long timeout) throws CardException {
+            return timed(Operation.WAIT_FOR_CHANGE, "", "", () -> terminals.waitForChange(timeout));
+        }
+    }
+
+    private final class Terminal extends CardTerminal {
+        private final CardTerminal terminal;
+
+        Terminal(CardTerminal terminal) {
+            this.terminal = terminal;
+        }
+
+        @Override
+        public String getName() {
+            return terminal.getName();
+        }
+
+        @Override
+        public Card connect(String protocol) throws CardException {
+            var card = timed(Operation.CONNECT, getName(), protocol, () -> terminal.connect(protocol));
+            return new InstrumentedCard(getName(), card);
+        }
+
+        @Override
+        public boolean isCardPresent() throws CardException {
+            return timed(Operation.IS_CARD_PRESENT, getName(), "", terminal::isCardPresent);
+        }
+
+        @Override
+        public boolean waitForCardPresent(long timeout) throws CardException {
+            return timed(Operation.WAIT_FOR_CARD, getName(), "", () -> terminal.waitForCardPresent(timeout));
+        }
+
+        @Override
+        public boolean waitForCardAbsent(long timeout) throws CardException {
+            return timed(Operation.WAIT_FOR_CARD, getName(), "", () -> terminal.waitForCardAbsent(timeout));
+        }
+
+        @Override
+        public String toString() {
+            return terminal.toString();
+        }
+    }
+
+    private final class InstrumentedCard extends Card {
+        private final String reader;
+        private final Card card;
+
+        InstrumentedCard(String reader, Card card) {
+            this.reader = reader;
+            this.card = card;
+        }
+
+        @Override
+        public ATR getATR() {
+            return card.getATR();
+        }
+
+        @Override
+        public String getProtocol() {
+            return card.getProtocol();
+        }
+
+        @Override
+        public CardChannel getBasicChannel() {
+            return new Channel(this, card.getBasicChannel());
+        }
+
+        @Override
+        public CardChannel openLogicalChannel() throws CardException {
+            return new Channel(this, card.openLogicalChannel());
+        }
+
+        @Override
+        public void beginExclusive() throws CardException {
+            timed(Operation.BEGIN_EXCLUSIVE, reader, getProtocol(), () -> {
+                card.beginExclusive();
+                return null;
+            });
+        }
+
+        @Override
+        public void endExclusive() throws CardException {
+            timed(Operation.END_EXCLUSIVE, reader, getProtocol(), () -> {
+                card.endExclusive();
+                return null;
+            });
+        }
+
+        @Override
+        public byte[] transmitControlCommand(int code, byte[] command) throws CardException {
+            return timed(Operation.CONTROL, reader, getProtocol(), () -> card.transmitControlCommand(code, command));
+        }
+
+        @Override
+        public void disconnect(boolean reset) throws CardException {
+            timed(Operation.DISCONNECT, reader, getProtocol(), () -> {
+                card.disconnect(reset);
+                return null;
+            });
+        }
+
+        @Override
+        public String toString() {
+            return card.toString();
+        }
+    }
+
+    private final class Channel extends CardChannel {
+        private final InstrumentedCard card;
+        private final CardChannel channel;
+
+        Channel(InstrumentedCard card, CardChannel channel) {
+            this.card = card;
+            this.channel = channel;
+        }
+
+        @Override
+        public Card getCard() {
+            return card;
+        }
+
+        @Override
+        public int getChannelNumber() {
+            return channel.getChannelNumber();
+        }
+
+        @Override
+        public ResponseAPDU transmit(CommandAPDU command) throws CardException {
+            return timed(Operation.TRANSMIT, card.reader, card.getProtocol(), () -> channel.transmit(command));
+        }
+
+        @Override
+        public int transmit(ByteBuffer command, ByteBuffer response) throws CardException {
+            return timed(Operation.TRANSMIT, card.reader, card.getProtocol(), () -> channel.transmit(command, response));
+        }
+
+        @Override
+        public void close() throws CardException {
+            channel.close();
+        }
+    }
+}
@@ -215,17 +215,23 @@ public final class LoggingCardTerminal extends CardTerminal implements AutoClose
                     commandBytes = new byte[command.duplicate().remaining()];
                     command.duplicate().get(commandBytes);
                 }
-                var ch = getChannelNumber() != 0 ? "#" + getChannelNumber() : "";
-                String cmdLog;
-                int nc = 0;
+                var channelNumber = getChannelNumber();
+                var sb = new StringBuilder(commandBytes.length * 2 + 32).append(prefix);
+                if (channelNumber != 0) {
+                    sb.append('#').append(channelNumber);
+                }
+                sb.append(">> ");
+                var mark = sb.length();
                 try {
-                    var cmd = new apdu4j.core.CommandAPDU(commandBytes);
-                    nc = cmd.getNc();
-                    cmdLog = cmd.toLogString();
+                    var nc = new apdu4j.core.CommandAPDU(commandBytes).getNc();
+                    appendLength(sb, "(4+", nc, ")");
+                    apdu4j.core.CommandAPDU.appendLogString(sb.append(' '), commandBytes);
                 } catch (IllegalArgumentException e) {
-                    cmdLog = HexUtils.bin2hex(commandBytes) + " [malformed]";
+                    sb.setLength(mark);
+                    appendLength(sb, "(4+", 0, ")");
+                    HexUtils.appendHex(sb.append(' '), commandBytes).append(" [malformed]");
                 }
-                log.println("%s%s>> %-8s %s".formatted(prefix, ch, "(4+%04d)".formatted(nc), cmdLog));
+                log.println(sb);
                 log.flush();
 
                 var t = System.nanoTime();
@@ -243,8 +249,12 @@ public final class LoggingCardTerminal extends CardTerminal implements AutoClose
                     }
                     outBytes += commandBytes.length;
                     inBytes += rb.length;
-                    var resp = new apdu4j.core.ResponseAPDU(rb);
-                    log.println("%s%s<< %-8s (%s) %s".formatted(prefix, ch, "(%04d+2)".formatted(resp.getData().length), LoggingBIBO.nanoTime(System.nanoTime() - t), resp.toLogString()));
+                    sb.setLength(mark - 3);
+                    sb.append("<< ");
+                    appendLength(sb, "(", Math.max(rb.length - 2, 0), "+2)");
+                    sb.append(" (");
+                    LoggingBIBO.appendNanoTime(sb, System.nanoTime() - t).append(") ");
+                    log.println(apdu4j.core.ResponseAPDU.appendLogString(sb, rb));
                     return rb;
                 } catch (Exception e) {
                     log.println("<< %s (%s)".formatted(SCard.getExceptionMessage(e), LoggingBIBO.nanoTime(System.nanoTime() - t)));
@@ -254,6 +264,19 @@ public final class LoggingCardTerminal extends CardTerminal implements AutoClose
         }
     }
 
+    // Zero-padded "(4+%04d)" style length column, left-aligned to 8 characters
+    private static void appendLength(StringBuilder sb, String before, int n, String after) {
+        var start = sb.length();
+        sb.append(before);
+        for (int pad = 1000; pad > 1 && n < pad; pad /= 10) {
+            sb.append('0');
+        }
+        sb.append(n).append(after);
+        while (sb.length() - start < 8) {
+            sb.append(' ');
+        }
+    }
+
     private static boolean nil(byte[] v) {
         return v == null || v.length == 0;
     }
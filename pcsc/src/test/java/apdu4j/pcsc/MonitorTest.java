@@ -2,6 +2,7 @@
 // SPDX-License-Identifier: MIT
 package apdu4j.pcsc;
 
+import apdu4j.core.BIBOException;
 import apdu4j.core.HexUtils;
 import apdu4j.core.MockBIBO;
 import apdu4j.pcsc.sim.SynthesizedCardTerminal;
@@ -9,12 +10,28 @@ import apdu4j.pcsc.sim.SynthesizedCardTerminals;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import javax.smartcardio.CardException;
+import javax.smartcardio.CardTerminal;
+import javax.smartcardio.CardTerminals;
+import javax.smartcardio.TerminalFactory;
+import javax.smartcardio.TerminalFactorySpi;
+import java.security.Provider;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
 
 public class MonitorTest {
 
@@ -249,8 +266,462 @@ public class MonitorTest {
         }
     }
 
+    @Test
+    void testOnlyChangedReadersAreProbed() throws Exception {
+        var terminals = new SynthesizedCardTerminals();
+        var busy = new SynthesizedCardTerminal("Busy Reader");
+        var tapped = new SynthesizedCardTerminal("Tapped Reader");
+        busy.presentFactory(p -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+        terminals.addTerminal(busy);
+        terminals.addTerminal(tapped);
+
+        try (var mgr = new TerminalManager(terminals.toFactory())) {
+            Assert.assertTrue(mgr.awaitReaders(
+                    readers -> readers.stream().anyMatch(r -> "Busy Reader".equals(r.name()) && r.present()),
+                    Duration.ofSeconds(5)));
+            var probes = busy.connectCount();
+            Assert.assertTrue(probes > 0);
+
+            // Tap and remove on the other reader - the busy card is left alone
+            tapped.present(MockBIBO.of("9000"));
+            Assert.assertTrue(mgr.awaitReaders(
+                    readers -> readers.stream().anyMatch(r -> "Tapped Reader".equals(r.name()) && r.present()),
+                    Duration.ofSeconds(5)));
+            tapped.yank();
+            Assert.assertTrue(mgr.awaitReaders(
+                    readers -> readers.stream().noneMatch(r -> "Tapped Reader".equals(r.name()) && r.present()),
+                    Duration.ofSeconds(5)));
+            Assert.assertEquals(tapped.connectCount(), 1);
+            Assert.assertEquals(busy.connectCount(), probes);
+            // Cached ATR is still reported
+            Assert.assertTrue(mgr.readers().stream().anyMatch(r -> "Busy Reader".equals(r.name()) && r.getATR().isPresent()));
+        }
+    }
+
+    @Test
+    void testPreconnectHandsProbeToHandler() throws Exception {
+        var terminals = new SynthesizedCardTerminals();
+        var terminal = new SynthesizedCardTerminal("Kiosk Reader");
+        terminals.addTerminal(terminal);
+
+        try (var mgr = new TerminalManager(terminals.toFactory())) {
+            Assert.assertTrue(mgr.awaitInitialScan(Duration.ofSeconds(5)));
+            var atr = new CompletableFuture<byte[]>();
+            var response = new CompletableFuture<byte[]>();
+            Readers.select(mgr).preconnect(true).onCard((reader, bibo) -> {
+                atr.complete(reader.getATR().orElse(null));
+                response.complete(bibo.transceive(HexUtils.hex2bin("00A4040000")));
+            });
+
+            terminal.presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+            Assert.assertEquals(response.get(5, TimeUnit.SECONDS), HexUtils.hex2bin("9000"));
+            Assert.assertEquals(atr.get(), SynthesizedCardTerminal.defaultAtr());
+            // The monitor's connection was the session's
+            Assert.assertEquals(terminal.connectCount(), 1);
+            Assert.assertEquals(mgr.warm().size(), 0);
+        }
+    }
+
+    @Test
+    void testPreconnectGivenUpDoesNotConnect() throws Exception {
+        var terminals = new SynthesizedCardTerminals();
+        var terminal = new SynthesizedCardTerminal("Kiosk Reader");
+        terminals.addTerminal(terminal);
+
+        try (var mgr = new TerminalManager(terminals.toFactory())) {
+            Assert.assertTrue(mgr.awaitInitialScan(Duration.ofSeconds(5)));
+            Readers.select(mgr).preconnect(true).onCard((reader, bibo) -> {
+            });
+            // The reader is busy for longer than the monitor waits for the preconnect
+            var gate = new CountDownLatch(1);
+            var busy = mgr.executor("Kiosk Reader").run(() -> {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            terminal.presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+            awaitTrue(() -> mgr.readers().stream().anyMatch(PCSCReader::present));
+            Assert.assertEquals(terminal.connectCount(), 1); // probe of the monitor
+
+            gate.countDown();
+            busy.get(5, TimeUnit.SECONDS);
+            mgr.executor("Kiosk Reader").run(() -> {
+            }).get(5, TimeUnit.SECONDS);
+            // The queued preconnect gave up without a connection
+            Assert.assertEquals(terminal.connectCount(), 1);
+            Assert.assertEquals(mgr.warm().size(), 0);
+        }
+    }
+
+    // === Tap debouncing ===
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        Assert.assertTrue(condition.getAsBoolean());
+    }
+
+    @Test
+    void testFlappingAndRepeatedTapsAreSuppressed() throws Exception {
+        var terminals = new SynthesizedCardTerminals();
+        var terminal = new SynthesizedCardTerminal("Gate Reader");
+        terminals.addTerminal(terminal);
+        var other = HexUtils.hex2bin("3B8F8001804F0CA0000003060300030000000068");
+
+        try (var mgr = new TerminalManager(terminals.toFactory())) {
+            Assert.assertTrue(mgr.awaitInitialScan(Duration.ofSeconds(5)));
+            var sessions = new LinkedBlockingQueue<PCSCReader>();
+            Readers.select(mgr).debounce(Duration.ofMillis(500), Duration.ofSeconds(30)).onCard((reader, bibo) -> {
+                bibo.transceive(HexUtils.hex2bin("00A4040000"));
+                sessions.add(reader);
+            });
+
+            // Gone within the dwell time
+            terminal.presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+            Assert.assertTrue(mgr.awaitReaders(l -> l.get(0).present(), Duration.ofSeconds(5)));
+            terminal.yank();
+            awaitTrue(() -> mgr.taps().counts().flaps() == 1);
+            Assert.assertTrue(mgr.awaitReaders(l -> !l.get(0).present(), Duration.ofSeconds(5)));
+
+            // Stays: one session
+            terminal.presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+            Assert.assertNotNull(sessions.poll(5, TimeUnit.SECONDS));
+            terminal.yank();
+            Assert.assertTrue(mgr.awaitReaders(l -> !l.get(0).present(), Duration.ofSeconds(5)));
+
+            // Same card again within the window
+            terminal.presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+            awaitTrue(() -> mgr.taps().counts().duplicates() == 1);
+            terminal.yank();
+            Assert.assertTrue(mgr.awaitReaders(l -> !l.get(0).present(), Duration.ofSeconds(5)));
+
+            // Another card, contactless: the reader gives its UID
+            terminal.presentFactory(n -> MockBIBO.with("FFCA000000", "04A1B2C39000").then("00A4040000", "9000"), other);
+            Assert.assertEquals(sessions.poll(5, TimeUnit.SECONDS).getATR().orElseThrow(), other);
+            Assert.assertEquals(mgr.taps().counts(), new TapFilter.Counts(2, 1, 1, 0));
+            terminal.yank();
+            Assert.assertTrue(mgr.awaitReaders(l -> !l.get(0).present(), Duration.ofSeconds(5)));
+
+            // Same ATR, another UID: another card
+            terminal.presentFactory(n -> MockBIBO.with("FFCA000000", "04D5E6F79000").then("00A4040000", "9000"), other);
+            Assert.assertNotNull(sessions.poll(5, TimeUnit.SECONDS));
+            terminal.yank();
+            Assert.assertTrue(mgr.awaitReaders(l -> !l.get(0).present(), Duration.ofSeconds(5)));
+
+            // Same UID again
+            terminal.presentFactory(n -> MockBIBO.with("FFCA000000", "04D5E6F79000"), other);
+            awaitTrue(() -> mgr.taps().counts().duplicates() == 2);
+            Assert.assertEquals(mgr.taps().counts(), new TapFilter.Counts(3, 1, 2, 0));
+        }
+    }
+
+    @Test
+    void testRemovalCancelsSession() throws Exception {
+        var terminals = new SynthesizedCardTerminals();
+        var terminal = new SynthesizedCardTerminal("Gate Reader");
+        terminals.addTerminal(terminal);
+
+        try (var mgr = new TerminalManager(terminals.toFactory())) {
+            Assert.assertTrue(mgr.awaitInitialScan(Duration.ofSeconds(5)));
+            var started = new CountDownLatch(1);
+            var proceed = new CountDownLatch(1);
+            var failure = new CompletableFuture<Throwable>();
+            Readers.select(mgr).onCard((reader, bibo) -> {
+                bibo.transceive(HexUtils.hex2bin("00A4040000"));
+                started.countDown();
+                try {
+                    proceed.await();
+                    bibo.transceive(HexUtils.hex2bin("00B0000000"));
+                    failure.complete(null);
+                } catch (InterruptedException | BIBOException e) {
+                    failure.complete(e);
+                }
+            });
+
+            terminal.presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+            Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+            terminal.yank();
+            Assert.assertTrue(mgr.awaitReaders(l -> !l.get(0).present(), Duration.ofSeconds(5)));
+            proceed.countDown();
+            var e = failure.get(5, TimeUnit.SECONDS);
+            Assert.assertTrue(e instanceof BIBOException);
+            Assert.assertEquals(e.getMessage(), "Card removed from Gate Reader");
+            Assert.assertEquals(mgr.taps().counts().cancelled(), 1);
+        }
+    }
+
+    // === Typed reader events ===
+
+    @Test
+    void testReaderEventDiff() {
+        var a = new PCSCReader("A", HexUtils.hex2bin("3B00"), true, false, null);
+        var b = new PCSCReader("B", null, false, false, null);
+        var c = new PCSCReader("C", HexUtils.hex2bin("3B01"), true, false, null);
+        var swapped = new PCSCReader("A", HexUtils.hex2bin("3B02"), true, false, null);
+        var tapped = new PCSCReader("B", HexUtils.hex2bin("3B03"), true, false, null);
+        var unknown = new PCSCReader("A", null, true, true, null);
+
+        Assert.assertEquals(ReaderEvent.diff(List.of(), List.of(a, b)),
+                List.of(new ReaderEvent.ReaderAttached(a), new ReaderEvent.CardInserted(a), new ReaderEvent.ReaderAttached(b)));
+        Assert.assertEquals(ReaderEvent.diff(List.of(a, b), List.of(a, b)), List.of());
+        Assert.assertEquals(ReaderEvent.diff(List.of(a, b), List.of(swapped, tapped)),
+                List.of(new ReaderEvent.CardRemoved(a), new ReaderEvent.CardInserted(swapped), new ReaderEvent.CardInserted(tapped)));
+        // Exclusive use hides the ATR, but the card is the same
+        Assert.assertEquals(ReaderEvent.diff(List.of(a), List.of(unknown)), List.of());
+        // Unless PC/SC saw an insertion: a card just like the previous one
+        Assert.assertEquals(ReaderEvent.diff(List.of(a, b), List.of(a, b), Set.of("A", "B")),
+                List.of(new ReaderEvent.CardRemoved(a), new ReaderEvent.CardInserted(a)));
+        Assert.assertEquals(ReaderEvent.diff(List.of(c, tapped), List.of(b)),
+                List.of(new ReaderEvent.CardRemoved(tapped), new ReaderEvent.CardRemoved(c), new ReaderEvent.ReaderDetached(c)));
+    }
+
+    @Test
+    void testEventStream() throws Exception {
+        var terminals = new SynthesizedCardTerminals();
+        var terminal = new SynthesizedCardTerminal("Event Reader");
+        terminals.addTerminal(terminal);
+
+        var completed = new CountDownLatch(1);
+        try (var mgr = new TerminalManager(terminals.toFactory())) {
+            var received = new LinkedBlockingQueue<ReaderEvent>();
+            mgr.events().subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(ReaderEvent item) {
+                    received.add(item);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+                @Override
+                public void onComplete() {
+                    completed.countDown();
+                }
+            });
+
+            var attached = received.poll(5, TimeUnit.SECONDS);
+            Assert.assertTrue(attached instanceof ReaderEvent.ReaderAttached);
+            Assert.assertEquals(attached.reader().name(), "Event Reader");
+
+            terminal.present(MockBIBO.of("9000"));
+            Assert.assertTrue(received.poll(5, TimeUnit.SECONDS) instanceof ReaderEvent.CardInserted);
+            terminal.yank();
+            var removed = received.poll(5, TimeUnit.SECONDS);
+            Assert.assertTrue(removed instanceof ReaderEvent.CardRemoved);
+            Assert.assertTrue(removed.reader().getATR().isPresent());
+
+            terminals.yank("Event Reader");
+            Assert.assertTrue(received.poll(5, TimeUnit.SECONDS) instanceof ReaderEvent.ReaderDetached);
+        }
+        // Closing the manager completes the stream and ends its delivery threads
+        Assert.assertTrue(completed.await(5, TimeUnit.SECONDS));
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (Thread.getAllStackTraces().keySet().stream().anyMatch(t -> t.getName().startsWith("PC/SC Events"))) {
+            Assert.assertTrue(System.nanoTime() < deadline, "Event threads still running");
+            Thread.sleep(20);
+        }
+    }
+
+    // === Reader pool: one job per fresh card ===
+
+    @Test
+    void testReaderPool() throws Exception {
+        var terminals = new SynthesizedCardTerminals();
+        var readers = new ArrayList<SynthesizedCardTerminal>();
+        for (int i = 1; i <= 3; i++) {
+            var t = new SynthesizedCardTerminal("Farm Reader " + i);
+            terminals.addTerminal(t);
+            readers.add(t);
+        }
+        // Present before the pool: used with fresh(false). Ignored reader: never used.
+        readers.get(0).presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+        var ignored = new SynthesizedCardTerminal("Ignored Reader");
+        ignored.presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+        terminals.addTerminal(ignored);
+
+        try (var mgr = new TerminalManager(terminals.toFactory());
+             var pool = Readers.select(mgr).ignore("Ignored").fresh(false).pool()) {
+            var running = new ConcurrentHashMap<String, AtomicInteger>();
+            var overlap = new AtomicInteger();
+            var jobs = new ArrayList<CompletableFuture<String>>();
+            for (int i = 0; i < 5; i++) {
+                jobs.add(pool.submit(bibosa -> {
+                    var name = bibosa.preferences().valueOf(Readers.READER_NAME).orElseThrow();
+                    if (running.computeIfAbsent(name, k -> new AtomicInteger()).incrementAndGet() > 1) {
+                        overlap.incrementAndGet();
+                    }
+                    bibosa.transceive(HexUtils.hex2bin("00A4040000"));
+                    running.get(name).decrementAndGet();
+                    return name;
+                }));
+            }
+            Assert.assertEquals(jobs.get(0).get(5, TimeUnit.SECONDS), "Farm Reader 1");
+
+            // Jobs wait for cards, in submission order
+            readers.get(1).presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+            readers.get(2).presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+            Assert.assertEquals(jobs.get(1).get(5, TimeUnit.SECONDS).substring(0, 12), "Farm Reader ");
+            jobs.get(2).get(5, TimeUnit.SECONDS);
+            Assert.assertNotEquals(jobs.get(1).get(), jobs.get(2).get());
+            Assert.assertFalse(jobs.get(3).isDone(), "Used cards are not reused");
+
+            // Next card on the first reader
+            readers.get(0).yank();
+            Assert.assertTrue(mgr.awaitReaders(
+                    list -> list.stream().noneMatch(r -> "Farm Reader 1".equals(r.name()) && r.present()),
+                    Duration.ofSeconds(5)));
+            readers.get(0).presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+            Assert.assertEquals(jobs.get(3).get(5, TimeUnit.SECONDS), "Farm Reader 1");
+
+            var stats = pool.stats();
+            Assert.assertEquals(stats.submitted(), 5);
+            Assert.assertEquals(stats.completed(), 4);
+            Assert.assertEquals(stats.queued(), 1);
+            Assert.assertEquals(stats.busy(), 0);
+            Assert.assertEquals(overlap.get(), 0);
+
+            pool.close();
+            Assert.assertThrows(CancellationException.class, () -> jobs.get(4).join());
+        }
+    }
+
+    @Test
+    void testPoolResumesAfterQuarantine() throws Exception {
+        var terminals = new SynthesizedCardTerminals();
+        var terminal = new SynthesizedCardTerminal("Farm Reader");
+        terminal.presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+        terminals.addTerminal(terminal);
+
+        try (var mgr = new TerminalManager(terminals.toFactory())) {
+            mgr.health().quarantine("Farm Reader", Duration.ofMillis(500));
+            try (var pool = Readers.select(mgr).fresh(false).pool()) {
+                var job = pool.submit(bibosa -> bibosa.preferences().valueOf(Readers.READER_NAME).orElseThrow());
+                Thread.sleep(200);
+                Assert.assertFalse(job.isDone(), "Quarantined reader is skipped");
+                // No reader event follows: the pool looks again when the quarantine lapses
+                Assert.assertEquals(job.get(5, TimeUnit.SECONDS), "Farm Reader");
+            }
+        }
+    }
+
     // === Executor dispatch: monitor-backed run() and timeout-based waiting ===
 
+    @Test
+    void testExecutorQueueing() throws Exception {
+        var executor = new ReaderExecutor("Queue Reader", ReaderExecutor.Queueing.bounded(2)
+                .withOverflow(ReaderExecutor.Overflow.REJECT));
+        try {
+            var gate = new CountDownLatch(1);
+            var order = new ConcurrentLinkedQueue<String>();
+            var blocker = executor.submit(() -> gate.await(5, TimeUnit.SECONDS));
+            // Wait for the blocker to be running, so that it does not count against the queue
+            while (executor.stats().executed() == 0) {
+                Thread.sleep(1);
+            }
+            var done = List.of(
+                    executor.submit(ReaderExecutor.Lane.BACKGROUND, () -> order.add("background")),
+                    executor.submit(() -> order.add("interactive 1")),
+                    executor.submit(() -> order.add("interactive 2")));
+            // Interactive lane is full, background lane has room
+            var rejected = executor.submit(() -> order.add("interactive 3"));
+            Assert.assertTrue(rejected.isCompletedExceptionally());
+            Assert.assertFalse(executor.submit(ReaderExecutor.Lane.BACKGROUND, () -> true).isCompletedExceptionally());
+
+            Thread.sleep(10);
+            gate.countDown();
+            blocker.get(5, TimeUnit.SECONDS);
+            CompletableFuture.allOf(done.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+            Assert.assertEquals(List.copyOf(order), List.of("interactive 1", "interactive 2", "background"));
+
+            var stats = executor.stats();
+            Assert.assertEquals(stats.rejected(), 1);
+            Assert.assertTrue(stats.maxWait().toMillis() >= 10, "Queue wait recorded");
+
+            // Re-entrant submit from the reader thread runs inline instead of deadlocking
+            Assert.assertEquals(executor.submit(() -> executor.submit(() -> "inner").get()).get(5, TimeUnit.SECONDS), "inner");
+
+            // Hand-off only: a busy reader rejects after a short wait
+            executor.queueing(ReaderExecutor.Queueing.DIRECT);
+            var hold = new CountDownLatch(1);
+            var busy = executor.submit(() -> hold.await(5, TimeUnit.SECONDS));
+            while (executor.stats().executed() < 7) {
+                Thread.sleep(1);
+            }
+            Assert.assertTrue(executor.submit(() -> true).isCompletedExceptionally());
+
+            // offer() never waits: one task may wait for the running one, the next is rejected
+            var start = System.nanoTime();
+            var offered = executor.offer(ReaderExecutor.Lane.INTERACTIVE, () -> "offered");
+            Assert.assertTrue(executor.offer(ReaderExecutor.Lane.BACKGROUND, () -> "rejected").isCompletedExceptionally());
+            Assert.assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 50);
+            hold.countDown();
+            busy.get(5, TimeUnit.SECONDS);
+            Assert.assertEquals(offered.get(5, TimeUnit.SECONDS), "offered");
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(ReaderExecutor.Queueing.DEFAULT, ReaderExecutor.Queueing.DIRECT);
+    }
+
+    @Test
+    void testAffineSessions() throws Exception {
+        var terminals = new SynthesizedCardTerminals();
+        var a = new SynthesizedCardTerminal("Card Reader");
+        var b = new SynthesizedCardTerminal("SAM Reader");
+        a.presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+        b.presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+        terminals.addTerminal(a);
+        terminals.addTerminal(b);
+
+        try (var mgr = new TerminalManager(terminals.toFactory())) {
+            var card = Readers.select(mgr).select("Card").affine(true);
+            var sam = Readers.select(mgr).select("SAM").affine(true);
+            Assert.assertFalse(mgr.isMonitorRunning());
+
+            // Whole session on the reader thread; nested session on the same reader runs inline
+            // (a second connection to the card, without a transaction of its own)
+            var threads = card.run(bibo -> {
+                bibo.transceive(HexUtils.hex2bin("00A4040000"));
+                return Thread.currentThread().getName() + "/" + card.transactions(false).run(inner -> Thread.currentThread().getName());
+            });
+            Assert.assertEquals(threads, "Card Reader/Card Reader");
+
+            // Another reader from a session is fine, a cycle is not
+            Assert.assertEquals(card.run(bibo -> sam.run(s -> Thread.currentThread().getName())), "SAM Reader");
+            var e = Assert.expectThrows(BIBOException.class, () -> card.run(bibo -> sam.run(s -> card.run(c -> "never"))));
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException, e.toString());
+        }
+    }
+
+    @Test
+    void testDeadlockReportsWholeCycle() throws Exception {
+        var a = new ReaderExecutor("Reader A");
+        var b = new ReaderExecutor("Reader B");
+        var c = new ReaderExecutor("Reader C");
+        try {
+            var e = Assert.expectThrows(ExecutionException.class, () -> a.call(() -> b.call(() -> c.call(() -> a.call(() -> "never")))));
+            var cause = e.getCause();
+            while (!(cause instanceof IllegalStateException) && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            Assert.assertEquals(cause.getMessage(), "Deadlock: Reader C waits for Reader A, which waits for Reader B, which waits for Reader C");
+        } finally {
+            a.shutdown();
+            b.shutdown();
+            c.shutdown();
+        }
+    }
+
     @Test
     void testMonitorBackedRun() throws Exception {
         var terminals = new SynthesizedCardTerminals();
@@ -305,4 +776,209 @@ public class MonitorTest {
             Assert.assertEquals(result, HexUtils.hex2bin("9000"));
         }
     }
+
+    // === Insertions reported ahead of a slow full listing ===
+
+    // Full listing takes `delay`, like a rack of readers; insertion queries stay fast
+    static final class SlowListing extends CardTerminals {
+        final SynthesizedCardTerminals sim;
+        volatile long delay;
+        final AtomicInteger listings = new AtomicInteger();
+
+        SlowListing(SynthesizedCardTerminals sim) {
+            this.sim = sim;
+        }
+
+        @Override
+        public List<CardTerminal> list(State state) throws CardException {
+            if (state == State.ALL && delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CardException("Interrupted", e);
+                }
+            }
+            if (state == State.ALL) {
+                listings.incrementAndGet();
+            }
+            return sim.list(state);
+        }
+
+        // Only the full listing is slow, not a lookup by name
+        @Override
+        public CardTerminal getTerminal(String name) {
+            return sim.getTerminal(name);
+        }
+
+        @Override
+        public boolean waitForChange(long timeout) throws CardException {
+            return sim.waitForChange(timeout);
+        }
+    }
+
+    public static final class SlowListingSpi extends TerminalFactorySpi {
+        private final SlowListing terminals;
+
+        public SlowListingSpi(Object parameter) {
+            this.terminals = (SlowListing) parameter;
+        }
+
+        @Override
+        protected CardTerminals engineTerminals() {
+            return terminals;
+        }
+    }
+
+    @Test
+    void testInsertionBeforeFullListing() throws Exception {
+        var sim = new SynthesizedCardTerminals();
+        var terminal = new SynthesizedCardTerminal("Gate Reader");
+        sim.addTerminal(terminal);
+        var slow = new SlowListing(sim);
+        var provider = new Provider("SlowListing", "1.0", "Slow listing") {
+            {
+                put("TerminalFactory.PC/SC", SlowListingSpi.class.getName());
+            }
+        };
+        try (var mgr = new TerminalManager(TerminalFactory.getInstance("PC/SC", slow, provider))) {
+            Assert.assertTrue(mgr.awaitInitialScan(Duration.ofSeconds(5)));
+            var seen = new CountDownLatch(1);
+            Readers.select(mgr).onCard((reader, bibo) -> seen.countDown());
+            // Let the monitor settle in waitForChange(): the permit from addTerminal() re-lists once
+            Thread.sleep(300);
+
+            slow.delay = 3000;
+            var listed = slow.listings.get();
+            var start = System.nanoTime();
+            terminal.presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+            Assert.assertTrue(seen.await(5, TimeUnit.SECONDS));
+            var elapsed = Duration.ofNanos(System.nanoTime() - start);
+            slow.delay = 0;
+            Assert.assertTrue(elapsed.toMillis() < 2000, "onCard after " + elapsed.toMillis() + "ms");
+            // The full listing reuses the early probe
+            var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (slow.listings.get() == listed && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            Assert.assertTrue(slow.listings.get() > listed);
+            Assert.assertTrue(mgr.readers().get(0).present());
+            Assert.assertEquals(terminal.connectCount(), 2); // probe + onCard session
+        }
+    }
+
+    @Test
+    void testCardSwappedBetweenListingsIsReported() throws Exception {
+        var sim = new SynthesizedCardTerminals();
+        var terminal = new SynthesizedCardTerminal("Swap Reader");
+        sim.addTerminal(terminal);
+        var slow = new SlowListing(sim);
+        var provider = new Provider("SlowListing", "1.0", "Slow listing") {
+            {
+                put("TerminalFactory.PC/SC", SlowListingSpi.class.getName());
+            }
+        };
+        var other = HexUtils.hex2bin("3B8F8001804F0CA000000306030001000000006A");
+        try (var mgr = new TerminalManager(TerminalFactory.getInstance("PC/SC", slow, provider))) {
+            Assert.assertTrue(mgr.awaitInitialScan(Duration.ofSeconds(5)));
+            var atrs = new LinkedBlockingQueue<String>();
+            Readers.select(mgr).onCard((reader, bibo) -> atrs.add(reader.getATR().map(HexUtils::bin2hex).orElse("")));
+            terminal.presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+            Assert.assertEquals(atrs.poll(5, TimeUnit.SECONDS), HexUtils.bin2hex(SynthesizedCardTerminal.defaultAtr()));
+
+            // Swapped while the monitor lists: the card is just as present at the next listing
+            slow.delay = 2000;
+            var listed = slow.listings.get();
+            sim.addTerminal(new SynthesizedCardTerminal("Other Reader"));
+            Thread.sleep(300);
+            terminal.yank();
+            terminal.presentFactory(n -> MockBIBO.of("9000"), other);
+            Assert.assertEquals(atrs.poll(5, TimeUnit.SECONDS), HexUtils.bin2hex(other));
+            // Reported from the insertion, ahead of the next full listing
+            Assert.assertEquals(slow.listings.get(), listed + 1);
+            slow.delay = 0;
+        }
+    }
+
+    @Test
+    void testSameAtrSwapIsReported() throws Exception {
+        var sim = new SynthesizedCardTerminals();
+        var terminal = new SynthesizedCardTerminal("Swap Reader");
+        sim.addTerminal(terminal);
+        var slow = new SlowListing(sim);
+        var provider = new Provider("SlowListing", "1.0", "Slow listing") {
+            {
+                put("TerminalFactory.PC/SC", SlowListingSpi.class.getName());
+            }
+        };
+        try (var mgr = new TerminalManager(TerminalFactory.getInstance("PC/SC", slow, provider))) {
+            Assert.assertTrue(mgr.awaitInitialScan(Duration.ofSeconds(5)));
+            var taps = new LinkedBlockingQueue<String>();
+            Readers.select(mgr).onCard((reader, bibo) -> taps.add(reader.name()));
+            terminal.presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+            Assert.assertEquals(taps.poll(5, TimeUnit.SECONDS), "Swap Reader");
+            var events = new LinkedBlockingQueue<ReaderEvent>();
+            mgr.events().subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(ReaderEvent item) {
+                    if (item.reader().name().equals("Swap Reader")) {
+                        events.add(item);
+                    }
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            });
+
+            // Another card of the same kind, swapped while the monitor lists: nothing in the
+            // listing differs, only the insertion tells
+            slow.delay = 2000;
+            sim.addTerminal(new SynthesizedCardTerminal("Other Reader"));
+            Thread.sleep(300);
+            terminal.yank();
+            terminal.presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+            Assert.assertEquals(taps.poll(5, TimeUnit.SECONDS), "Swap Reader");
+            Assert.assertTrue(events.poll(5, TimeUnit.SECONDS) instanceof ReaderEvent.CardRemoved);
+            Assert.assertTrue(events.poll(5, TimeUnit.SECONDS) instanceof ReaderEvent.CardInserted);
+            slow.delay = 0;
+        }
+    }
+
+    @Test
+    void testInsertionSeenByListingIsProbedOnce() throws Exception {
+        var sim = new SynthesizedCardTerminals();
+        var terminal = new SynthesizedCardTerminal("Once Reader");
+        sim.addTerminal(terminal);
+        var slow = new SlowListing(sim);
+        var provider = new Provider("SlowListing", "1.0", "Slow listing") {
+            {
+                put("TerminalFactory.PC/SC", SlowListingSpi.class.getName());
+            }
+        };
+        try (var mgr = new TerminalManager(TerminalFactory.getInstance("PC/SC", slow, provider))) {
+            Assert.assertTrue(mgr.awaitInitialScan(Duration.ofSeconds(5)));
+            Thread.sleep(300);
+
+            // Inserted while the monitor lists: that listing probes it, the next wait reports it
+            slow.delay = 1000;
+            var listed = slow.listings.get();
+            sim.addTerminal(new SynthesizedCardTerminal("Other Reader"));
+            Thread.sleep(300);
+            terminal.presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+            slow.delay = 0;
+            awaitTrue(() -> slow.listings.get() >= listed + 2);
+            Assert.assertTrue(mgr.readers().stream().anyMatch(r -> r.name().equals("Once Reader") && r.present()));
+            Assert.assertEquals(terminal.connectCount(), 1);
+        }
+    }
 }
@@ -3,23 +3,34 @@
 package apdu4j.pcsc;
 
 import apdu4j.core.*;
+import apdu4j.pcsc.sim.FileSystemCard;
 import apdu4j.pcsc.sim.SynthesizedCardTerminal;
 import apdu4j.pcsc.sim.SynthesizedCardTerminals;
+import apdu4j.pcsc.terminals.InstrumentedTerminalFactory;
 import apdu4j.prefs.Preference;
 import apdu4j.prefs.PreferenceProvider;
 import apdu4j.prefs.Preferences;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import javax.smartcardio.CardException;
+import javax.smartcardio.CardTerminal;
 import javax.smartcardio.CardTerminals;
 import javax.smartcardio.CommandAPDU;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class SimTests {
@@ -214,6 +225,27 @@ public class SimTests {
         Assert.assertEquals(terminals.list(CardTerminals.State.CARD_REMOVAL).size(), 1);
     }
 
+    @Test
+    void testInsertionsOfLatestWait() throws Exception {
+        var terminals = new SynthesizedCardTerminals();
+        var swapped = new SynthesizedCardTerminal("Swapped Reader");
+        var untouched = new SynthesizedCardTerminal("Untouched Reader");
+        swapped.presentFactory(p -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+        untouched.presentFactory(p -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+        terminals.addTerminal(swapped);
+        terminals.addTerminal(untouched);
+        Assert.assertTrue(terminals.waitForChange(100));
+        Assert.assertFalse(terminals.waitForChange(100));
+        Assert.assertTrue(terminals.list(CardTerminals.State.CARD_INSERTION).isEmpty());
+
+        // Same presence before and after, but an insertion in between
+        swapped.yank();
+        swapped.presentFactory(p -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+        Assert.assertTrue(terminals.waitForChange(100));
+        Assert.assertEquals(terminals.list(CardTerminals.State.CARD_INSERTION).stream().map(CardTerminal::getName).toList(), List.of("Swapped Reader"));
+        Assert.assertEquals(terminals.list(CardTerminals.State.CARD_PRESENT).size(), 2);
+    }
+
     @Test(expectedExceptions = IllegalArgumentException.class)
     void testDuplicateTerminalNameRejected() {
         var terminals = new SynthesizedCardTerminals();
@@ -264,6 +296,30 @@ public class SimTests {
                 new CommandAPDU(HexUtils.hex2bin("00A4040000"))).getSW(), 0x9000);
     }
 
+    @Test
+    void testParallelListingKeepsReaderOrder() throws Exception {
+        var terminals = new SynthesizedCardTerminal[20];
+        for (int i = 0; i < terminals.length; i++) {
+            terminals[i] = new SynthesizedCardTerminal("Rack Reader %02d".formatted(i));
+            if (i % 3 == 0) {
+                terminals[i].present(MockBIBO.of("9000"), HexUtils.hex2bin("3B0" + (i % 10)));
+            }
+        }
+        try (var mgr = TerminalManager.managerOf(terminals)) {
+            var log = new ByteArrayOutputStream();
+            var parallel = mgr.listReaders(log, false);
+            Assert.assertEquals(parallel, TerminalManager.listPCSC(mgr.terminals().list(), null, false));
+            Assert.assertEquals(parallel.size(), 20);
+            Assert.assertEquals(parallel.get(3).name(), "Rack Reader 03");
+            Assert.assertEquals(parallel.get(3).getATR().orElseThrow(), HexUtils.hex2bin("3B03"));
+            Assert.assertFalse(parallel.get(4).present());
+            // Probe logs are not interleaved: readers appear in order
+            var text = log.toString();
+            Assert.assertTrue(text.indexOf("Rack Reader 03") < text.indexOf("Rack Reader 06"), text);
+            Assert.assertTrue(terminals[0].isCardPresent(), "probing must not consume the card");
+        }
+    }
+
     @Test
     void testNegativeTimeoutsRejected() throws Exception {
         var terminal = new SynthesizedCardTerminal("Timeout Reader");
@@ -417,4 +473,687 @@ public class SimTests {
         Assert.assertTrue(dumpStr.contains("# ATR:"), "Dump header written before transceive");
         Assert.assertTrue(dumpStr.contains("00A4040000"), "Failed command logged before error");
     }
+
+    // === ISO 7816-4 file system card ===
+
+    static final byte[] AID = HexUtils.hex2bin("A000000062810101");
+
+    static FileSystemCard.Builder fileSystem() {
+        return FileSystemCard.builder()
+                .binary(0x2F00, HexUtils.hex2bin("61094F07A0000000628101"))
+                .df(0x5000, AID, app -> app
+                        .binary(0x5001, HexUtils.hex2bin("0102030405060708090A"))
+                        .records(0x5002, List.of(HexUtils.hex2bin("AA"), HexUtils.hex2bin("BBBB"))));
+    }
+
+    static String hex(BIBO bibo, String command) {
+        return HexUtils.bin2hex(bibo.transceive(HexUtils.hex2bin(command)));
+    }
+
+    @Test
+    void testFileSystemCard() {
+        var image = fileSystem().build();
+        var card = image.newCard();
+        // SELECT by partial DF name returns FCI, EF by FID without response data
+        Assert.assertEquals(hex(card, "00A4040005A00000006200"), "6F11830250008201388408A0000000628101019000");
+        Assert.assertEquals(hex(card, "00A4020C025001"), "9000");
+        Assert.assertEquals(hex(card, "00B0000004"), "010203049000");
+        Assert.assertEquals(hex(card, "00B0000810"), "090A6282");
+        Assert.assertEquals(hex(card, "00B0000B00"), "6B00");
+        // READ RECORD by SFI 2, record out of range
+        Assert.assertEquals(hex(card, "00B2021400"), "BBBB9000");
+        Assert.assertEquals(hex(card, "00B2031400"), "6A83");
+        Assert.assertEquals(hex(card, "00B0000000"), "6981");
+        // Path from MF, parent, unknown file
+        Assert.assertEquals(hex(card, "00A4080C022F00"), "9000");
+        Assert.assertEquals(hex(card, "00B0000000"), "61094F07A00000006281019000");
+        Assert.assertEquals(hex(card, "00A4000C025001"), "6A82");
+        Assert.assertEquals(hex(card, "00A4090C0450005001"), "9000");
+        Assert.assertEquals(hex(card, "00A4030C"), "9000");
+        Assert.assertEquals(hex(card, "00CA9F7F00"), "6D00");
+
+        // UPDATE BINARY (SFI 1) is private to the card instance
+        Assert.assertEquals(hex(card, "00A4040C08A000000062810101"), "9000");
+        Assert.assertEquals(hex(card, "00D6810002CAFE"), "9000");
+        Assert.assertEquals(hex(card, "00D6000902CAFE"), "6A84");
+        Assert.assertEquals(hex(card, "00B0000003"), "CAFE039000");
+        var other = image.newCard();
+        Assert.assertEquals(hex(other, "00A4040C08A000000062810101"), "9000");
+        Assert.assertEquals(hex(other, "00B0810003"), "0102039000");
+    }
+
+    @Test
+    void testFileSystemImageIsACopy() {
+        var builder = fileSystem();
+        var image = builder.build();
+        var card = image.newCard();
+        Assert.assertEquals(hex(card, "00A4040C08A000000062810101"), "9000");
+        // Added after build(): neither existing nor new cards of the image see it
+        builder.binary(0x2F01, HexUtils.hex2bin("CAFE"))
+                .df(0x6000, HexUtils.hex2bin("A000000062810102"), app -> app.binary(0x6001, HexUtils.hex2bin("01")));
+        Assert.assertEquals(hex(card, "00A4000C022F01"), "6A82");
+        var fresh = image.newCard();
+        Assert.assertEquals(hex(fresh, "00A4000C022F01"), "6A82");
+        Assert.assertEquals(hex(fresh, "00A4040C08A000000062810102"), "6A82");
+        var rebuilt = builder.build().newCard();
+        Assert.assertEquals(hex(rebuilt, "00A4000C022F01"), "9000");
+        Assert.assertEquals(hex(rebuilt, "00A4040C08A000000062810102"), "9000");
+        // Selection still walks up from the copy
+        Assert.assertEquals(hex(fresh, "00A4040C08A000000062810101"), "9000");
+        Assert.assertEquals(hex(fresh, "00A4030C"), "9000");
+        Assert.assertEquals(hex(fresh, "00A4020C022F00"), "9000");
+    }
+
+    @Test
+    void testFileSystemCardLimits() {
+        // Short responses chained with 61 XX, reassembled by T0Engine
+        var card = fileSystem().maxResponseData(4).maxCommandData(8).build().newCard();
+        Assert.assertEquals(hex(card, "00A4080C045000500100"), "9000");
+        Assert.assertEquals(hex(card, "00B0000000"), "010203046106");
+        Assert.assertEquals(hex(card, "00C0000006"), "050607086102");
+        Assert.assertEquals(hex(card, "00C0000002"), "090A9000");
+        Assert.assertEquals(hex(card, "00C0000002"), "6985");
+        Assert.assertEquals(hex(T0Engine.wrap(card), "00B0000000"), "0102030405060708090A9000");
+        // Too long and extended length commands
+        Assert.assertEquals(hex(card, "00D6000009010203040506070809"), "6700");
+        Assert.assertEquals(hex(card, "00B00000000004"), "6700");
+
+        // T=0: Case 4 data only via GET RESPONSE
+        var t0 = fileSystem().t0(true).build().newCard();
+        Assert.assertEquals(hex(t0, "00A4040008A00000006281010100"), "6113");
+        Assert.assertEquals(hex(T0Engine.wrap(t0), "00A4040008A00000006281010100"), "6F11830250008201388408A0000000628101019000");
+    }
+
+    @Test
+    void testTransparentT0ChainsOnHost() throws Exception {
+        var rounds = new AtomicInteger();
+        var fs = new SynthesizedCardTerminal("T0 Reader", "T=0");
+        var image = fileSystem().t0(true).maxResponseData(4).build();
+        fs.presentFactory(p -> {
+            var card = image.newCard();
+            return (BIBO) cmd -> {
+                rounds.incrementAndGet();
+                return card.transceive(cmd);
+            };
+        }, SynthesizedCardTerminal.defaultAtr());
+        var wrong = new SynthesizedCardTerminal("T0 Wrong Le", "T=0");
+        wrong.presentFactory(p -> {
+            var card = MockBIBO.with("00CA9F7F00", "6C03").then("00CA9F7F03", "0102039000");
+            return (BIBO) cmd -> {
+                rounds.incrementAndGet();
+                return card.transceive(cmd);
+            };
+        }, SynthesizedCardTerminal.defaultAtr());
+        try (var mgr = TerminalManager.managerOf(fs, wrong)) {
+            // 61 13: SELECT, then GET RESPONSE in parts of 4 until 9000
+            var fci = Readers.select(mgr).select("T0 Reader").with(Readers.TRANSPARENT, true)
+                    .run(bibo -> hex(bibo, "00A4040008A00000006281010100"));
+            Assert.assertEquals(fci, "6F11830250008201388408A0000000628101019000");
+            Assert.assertEquals(rounds.getAndSet(0), 6);
+
+            // 6C 03: the same command again with Le 03
+            var data = Readers.select(mgr).select("T0 Wrong Le").with(Readers.TRANSPARENT, true)
+                    .run(bibo -> hex(bibo, "00CA9F7F00"));
+            Assert.assertEquals(data, "0102039000");
+            Assert.assertEquals(rounds.get(), 2);
+        }
+    }
+
+    @Test
+    void testFileSystemCardChannels() throws Exception {
+        var terminal = new SynthesizedCardTerminal("FS Reader");
+        var image = fileSystem().channels(2).build();
+        terminal.presentFactory(p -> image.newCard(), SynthesizedCardTerminal.defaultAtr());
+        var card = terminal.connect("*");
+        var basic = card.getBasicChannel();
+        var logical = card.openLogicalChannel();
+        Assert.assertEquals(logical.getChannelNumber(), 1);
+        Assert.assertThrows(CardException.class, card::openLogicalChannel);
+
+        // Independent selection per channel
+        basic.transmit(new CommandAPDU(HexUtils.hex2bin("00A4080C022F00")));
+        logical.transmit(new CommandAPDU(HexUtils.hex2bin("00A4080C045000500100")));
+        Assert.assertEquals(basic.transmit(new CommandAPDU(HexUtils.hex2bin("00B0000002"))).getData(), HexUtils.hex2bin("6109"));
+        Assert.assertEquals(logical.transmit(new CommandAPDU(HexUtils.hex2bin("00B0000002"))).getData(), HexUtils.hex2bin("0102"));
+        logical.close();
+        Assert.assertEquals(hex(image.newCard(), "01B0000002"), "6881");
+        card.disconnect(true);
+        Assert.assertTrue(terminal.isCardPresent());
+    }
+
+    // === Reader health: quarantine and probation ===
+
+    @Test
+    void testReaderHealthQuarantine() throws Exception {
+        var now = new AtomicLong();
+        var health = new ReaderHealth(now::get, true, true);
+        var commError = new BIBOException("Failed", new CardException("SCARD_F_COMM_ERROR"));
+        var lenient = new ReaderHealth(now::get, true, false);
+        for (int i = 0; i < ReaderHealth.MIN_SAMPLES; i++) {
+            for (var h : List.of(health, lenient)) {
+                h.success("Good 1", 1_000_000);
+                h.success("Good 2", 1_100_000);
+                h.success("Slow", 9_000_000);
+                h.success("Flaky", 1_000_000);
+            }
+        }
+        Assert.assertTrue(health.isQuarantined("Slow"), "3x slower than fleet median");
+        Assert.assertFalse(lenient.isQuarantined("Slow"), "latency quarantine is opt-in");
+        Assert.assertFalse(health.isQuarantined("Flaky"));
+
+        // Contention and cards pulled early or gone bad are not faults, a communication error is
+        health.failure("Flaky", new BIBOException("Busy", new CardException("SCARD_E_SHARING_VIOLATION")));
+        for (var removed : List.of("SCARD_W_REMOVED_CARD", "SCARD_E_NO_SMARTCARD", "SCARD_E_NOT_TRANSACTED",
+                "SCARD_W_UNPOWERED_CARD", "SCARD_W_UNRESPONSIVE_CARD")) {
+            for (int i = 0; i < ReaderHealth.MIN_SAMPLES; i++) {
+                health.failure("Flaky", new BIBOException("Assuming tag removed", new CardException(removed)));
+            }
+        }
+        Assert.assertFalse(health.isQuarantined("Flaky"));
+        for (int i = 0; i < 3; i++) {
+            health.failure("Flaky", commError);
+        }
+        Assert.assertTrue(health.isQuarantined("Flaky"));
+
+        // Skipped by dwim() like an ignored reader, unless asked for
+        var readers = List.of(new PCSCReader("Good 1", null, true, false, null), new PCSCReader("Flaky", null, true, false, null));
+        Assert.assertEquals(Readers.dwim(health.annotate(readers), null, List.of(), r -> true), "Good 1");
+        Assert.assertEquals(Readers.dwim(health.annotate(readers), "Flaky", List.of(), r -> true), "Flaky");
+
+        Assert.assertEquals(health.quarantineLeft("Flaky"), ReaderHealth.QUARANTINE);
+        Assert.assertEquals(health.quarantineLeft("Good 1"), Duration.ZERO);
+
+        // Re-admitted on probation; failing again doubles the quarantine
+        now.addAndGet(ReaderHealth.QUARANTINE.toNanos());
+        Assert.assertFalse(health.isQuarantined("Flaky"));
+        for (int i = 0; i < ReaderHealth.MIN_SAMPLES; i++) {
+            health.failure("Flaky", commError);
+        }
+        Assert.assertTrue(health.isQuarantined("Flaky"));
+        now.addAndGet(ReaderHealth.QUARANTINE.toNanos());
+        Assert.assertTrue(health.isQuarantined("Flaky"));
+        now.addAndGet(ReaderHealth.QUARANTINE.toNanos());
+        Assert.assertFalse(health.isQuarantined("Flaky"));
+
+        // Too small a fleet: never quarantined
+        var desktop = new ReaderHealth(now::get, true, true);
+        for (int i = 0; i < ReaderHealth.MIN_SAMPLES; i++) {
+            desktop.failure("Only", commError);
+        }
+        Assert.assertFalse(desktop.isQuarantined("Only"));
+    }
+
+    // === Warm sessions: connection kept between managed sessions ===
+
+    @Test
+    void testWarmSessions() throws Exception {
+        var terminals = new SynthesizedCardTerminals();
+        var terminal = new SynthesizedCardTerminal("Warm Reader");
+        var image = fileSystem().build();
+        terminal.presentFactory(p -> image.newCard(), SynthesizedCardTerminal.defaultAtr());
+        terminals.addTerminal(terminal);
+
+        try (var mgr = new TerminalManager(terminals.toFactory())) {
+            // Monitor: reader list from snapshots, no probe connects per session
+            Assert.assertTrue(mgr.awaitInitialScan(Duration.ofSeconds(5)));
+            var warm = Readers.select(mgr).warm(true).with(Readers.WARM_SELECT, HexBytes.b(AID));
+            // Cold: the application is not selected yet
+            Assert.assertEquals(warm.run(bibo -> hex(bibo, "00A4020C025001")), "6A82");
+            var connects = terminal.connectCount();
+
+            // Same connection, application re-selected before reuse
+            Assert.assertEquals(warm.run(bibo -> hex(bibo, "00A4020C025001")), "9000");
+            // Re-select leaves no EF from the previous session selected
+            Assert.assertEquals(warm.run(bibo -> hex(bibo, "00B0000002")), "6986");
+            Assert.assertEquals(terminal.connectCount(), connects);
+            Assert.assertEquals(mgr.warm().size(), 1);
+
+            // A failed session does not give its connection back
+            Assert.assertThrows(BIBOException.class, () -> warm.run(bibo -> {
+                throw new IllegalStateException("job failed");
+            }));
+            Assert.assertEquals(mgr.warm().size(), 0);
+            warm.run(bibo -> hex(bibo, "00A4020C025001"));
+            Assert.assertEquals(terminal.connectCount(), connects + 1);
+
+            // A session that closed its BIBO has disconnected the card: nothing to keep
+            warm.run(bibo -> {
+                hex(bibo, "00A4020C025001");
+                bibo.close();
+                return null;
+            });
+            Assert.assertEquals(mgr.warm().size(), 0);
+            warm.run(bibo -> hex(bibo, "00A4020C025001"));
+            Assert.assertEquals(terminal.connectCount(), connects + 2);
+            Assert.assertEquals(mgr.warm().size(), 1);
+
+            // Application gone: cold connect
+            var other = Readers.select(mgr).warm(true).with(Readers.WARM_SELECT, HexBytes.v("A0000000010203"));
+            other.run(bibo -> hex(bibo, "00A4020C025001"));
+            Assert.assertEquals(terminal.connectCount(), connects + 3);
+
+            // Card removed: evicted, cold connect to the new card
+            Assert.assertEquals(mgr.warm().size(), 1);
+            terminal.yank();
+            Assert.assertTrue(mgr.awaitReaders(readers -> !readers.get(0).present(), Duration.ofSeconds(5)));
+            for (int i = 0; i < 500 && mgr.warm().size() > 0; i++) {
+                Thread.sleep(10); // eviction runs on the reader thread
+            }
+            Assert.assertEquals(mgr.warm().size(), 0);
+            terminal.presentFactory(p -> image.newCard(), SynthesizedCardTerminal.defaultAtr());
+            Assert.assertTrue(mgr.awaitReaders(readers -> readers.get(0).present(), Duration.ofSeconds(5)));
+            connects = terminal.connectCount();
+            warm.run(bibo -> hex(bibo, "00A4020C025001"));
+            Assert.assertEquals(terminal.connectCount(), connects + 1);
+        }
+    }
+
+    @Test
+    void testWarmEvictionAheadOfQueuedWork() throws Exception {
+        var terminals = new SynthesizedCardTerminals();
+        var terminal = new SynthesizedCardTerminal("Warm Reader");
+        var image = fileSystem().build();
+        terminal.presentFactory(p -> image.newCard(), SynthesizedCardTerminal.defaultAtr());
+        terminals.addTerminal(terminal);
+
+        try (var mgr = new TerminalManager(terminals.toFactory())) {
+            mgr.queueing(ReaderExecutor.Queueing.bounded(4));
+            Assert.assertTrue(mgr.awaitInitialScan(Duration.ofSeconds(5)));
+            Readers.select(mgr).warm(true).run(bibo -> hex(bibo, "00A4020C025001"));
+            Assert.assertEquals(mgr.warm().size(), 1);
+
+            // Reader busy, background work queued behind it; the removal goes first
+            var gate = new CountDownLatch(1);
+            var running = new CountDownLatch(1);
+            var executor = mgr.executor("Warm Reader");
+            executor.submit(() -> {
+                running.countDown();
+                return gate.await(5, TimeUnit.SECONDS);
+            });
+            Assert.assertTrue(running.await(5, TimeUnit.SECONDS));
+            var behind = executor.submit(ReaderExecutor.Lane.BACKGROUND, () -> mgr.warm().size());
+            terminal.yank();
+            for (int i = 0; i < 500 && executor.stats().queued() < 2; i++) {
+                Thread.sleep(10); // the monitor offers the eviction
+            }
+            gate.countDown();
+            Assert.assertEquals(behind.get(5, TimeUnit.SECONDS), 0);
+        }
+    }
+
+    // === Pinpad capability cache ===
+
+    @Test
+    void testPinPadCache() throws Exception {
+        var file = java.nio.file.Files.createTempDirectory("apdu4j").resolve("pinpads.properties");
+        var now = new AtomicLong(1_000_000);
+        var cache = new PinPadCache(file, Duration.ofHours(1), now::get);
+        Assert.assertTrue(cache.get("Reader 0").isEmpty());
+        cache.put("Reader 0", " M ", "076B:3A21:1.02");
+        Assert.assertEquals(cache.get("Reader 0").orElseThrow().vmd(), " M ");
+
+        // Survives a restart, leading spaces included
+        var reloaded = new PinPadCache(file, Duration.ofHours(1), now::get);
+        Assert.assertEquals(reloaded.get("Reader 0").orElseThrow(), new PinPadCache.Entry(" M ", "076B:3A21:1.02", 1_000_000));
+
+        // Expires after TTL
+        now.addAndGet(Duration.ofHours(2).toMillis());
+        Assert.assertTrue(reloaded.get("Reader 0").isEmpty());
+
+        // The sim does not do control commands: the failure is not cached
+        var terminal = new SynthesizedCardTerminal("Reader 0");
+        terminal.present(MockBIBO.of("9000"));
+        var card = terminal.connect("*");
+        Assert.assertEquals(reloaded.vmd(terminal, card), "EEE");
+        card.disconnect(false);
+        Assert.assertTrue(reloaded.get("Reader 0").isEmpty());
+
+        // Two processes on one file: each keeps the entry of the other
+        cache.put("Reader 2", "VMD", "");
+        reloaded.put("Reader 3", "V  ", "");
+        cache.invalidate("Reader 2");
+        var merged = new PinPadCache(file, Duration.ofHours(1), now::get);
+        Assert.assertTrue(merged.get("Reader 2").isEmpty());
+        Assert.assertEquals(merged.get("Reader 3").orElseThrow().vmd(), "V  ");
+        try (var files = java.nio.file.Files.list(file.getParent())) {
+            Assert.assertEquals(files.toList(), List.of(file));
+        }
+
+        // Disabled with a zero TTL
+        var disabled = new PinPadCache(file, Duration.ZERO, now::get);
+        disabled.put("Reader 1", "VMD", "");
+        Assert.assertTrue(disabled.get("Reader 1").isEmpty());
+    }
+
+    // === Reader index: selection on large hosts ===
+
+    @Test
+    void testReaderIndex() {
+        var readers = new java.util.ArrayList<PCSCReader>();
+        for (int i = 1; i <= 200; i++) {
+            readers.add(new PCSCReader("Rack %03d".formatted(i), null, i == 42, false, null));
+        }
+        readers.add(new PCSCReader("Virtual Reader", null, true, false, null));
+        var names = readers.stream().map(PCSCReader::name).toList();
+        var index = ReaderIndex.of(names);
+        Assert.assertSame(index.update(List.copyOf(names)), index, "same list, same index");
+        Assert.assertNotSame(ReaderIndex.of(names), index);
+
+        // Three-digit index within range
+        Assert.assertEquals(Readers.dwim(readers, "120", List.of(), r -> true), "Rack 120");
+        Assert.assertEquals(index.resolve("201"), java.util.Optional.of("Virtual Reader"));
+        // Out of range: a name fragment
+        Assert.assertEquals(index.resolve("300"), java.util.Optional.empty());
+        Assert.assertEquals(index.resolve("rack 042"), java.util.Optional.of("Rack 042"));
+
+        var ignores = List.of("virtual", "RACK 1");
+        Assert.assertTrue(index.isIgnored(ignores, "Virtual Reader"));
+        Assert.assertTrue(index.isIgnored(ignores, "Rack 199"));
+        Assert.assertFalse(index.isIgnored(ignores, "Rack 099"));
+        // Not in the index: matched directly
+        Assert.assertTrue(index.isIgnored(ignores, "Another Virtual"));
+        Assert.assertEquals(Readers.dwim(readers, null, ignores, r -> true), "Rack 042");
+    }
+
+    @Test
+    void testReaderIndexPerManager() throws Exception {
+        var alpha = new SynthesizedCardTerminal("Alpha Reader");
+        alpha.presentFactory(p -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+        try (var mgr = TerminalManager.managerOf(alpha)) {
+            Assert.assertEquals(Readers.select(mgr).select("1").run(bibo -> "alpha"), "alpha");
+            Assert.assertEquals(mgr.index().names(), List.of("Alpha Reader"));
+            // Selection from another reader list does not replace the index of the manager
+            var other = List.of(new PCSCReader("Beta Reader", null, true, false, null));
+            Assert.assertEquals(Readers.dwim(other, "beta", List.of(), r -> true), "Beta Reader");
+            Assert.assertEquals(mgr.index().names(), List.of("Alpha Reader"));
+        }
+    }
+
+    // === Name-only selection without the monitor ===
+
+    @Test
+    void testSelectionDoesNotProbeOtherReaders() throws Exception {
+        var terminals = new SynthesizedCardTerminals();
+        var rack = new java.util.ArrayList<SynthesizedCardTerminal>();
+        for (var name : List.of("Rack A", "Rack B", "Virtual C")) {
+            var t = new SynthesizedCardTerminal(name);
+            t.presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+            terminals.addTerminal(t);
+            rack.add(t);
+        }
+        try (var mgr = new TerminalManager(terminals.toFactory())) {
+            Assert.assertFalse(mgr.isMonitorRunning());
+            // By name fragment and by index: only the chosen reader sees a connect
+            Assert.assertEquals(Readers.select(mgr, "rack b").run(bibo -> hex(bibo, "00A40400")), "9000");
+            Assert.assertEquals(Readers.select(mgr, "3").run(bibo -> hex(bibo, "00A40400")), "9000");
+            Assert.assertEquals(rack.get(0).connectCount(), 0);
+            Assert.assertEquals(rack.get(1).connectCount(), 1);
+            Assert.assertEquals(rack.get(2).connectCount(), 1);
+
+            // Single eligible reader after ignores
+            Readers.select(mgr).ignore("Virtual", "Rack B").run(bibo -> hex(bibo, "00A40400"));
+            Assert.assertEquals(rack.get(0).connectCount(), 1);
+            Assert.assertEquals(rack.get(1).connectCount(), 1);
+
+            // Ambiguous: eligible readers with a card are probed, ignored ones are not
+            Assert.assertThrows(NoMatchingReaderException.class, () -> Readers.select(mgr).ignore("Virtual").run(bibo -> null));
+            Assert.assertEquals(rack.get(2).connectCount(), 1);
+            Assert.assertEquals(rack.get(0).connectCount(), 2);
+        }
+    }
+
+    // === Fan-out ===
+
+    @Test
+    void testFanOut() throws Exception {
+        var terminals = new SynthesizedCardTerminals();
+        for (var name : List.of("Rack A", "Rack B", "Rack C", "Rack D", "Rack E", "Virtual F")) {
+            var t = new SynthesizedCardTerminal(name);
+            if (name.equals("Rack D")) {
+                t.presentFactory(n -> MockBIBO.with("00CA9F7F00", "9000"), SynthesizedCardTerminal.defaultAtr());
+            } else if (!name.equals("Rack E")) {
+                t.presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+            }
+            terminals.addTerminal(t);
+        }
+        try (var mgr = new TerminalManager(terminals.toFactory())) {
+            var running = new AtomicInteger();
+            var peak = new AtomicInteger();
+            var results = Readers.select(mgr).ignore("Virtual").fanOut(2, Duration.ofSeconds(10), bibosa -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(100);
+                    return hex(bibosa, "00A40400");
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    running.decrementAndGet();
+                }
+            }).toList();
+            // Readers with a card, not ignored; a failing card is a result too
+            Assert.assertEquals(results.stream().map(FanOut.Result::reader).sorted().toList(), List.of("Rack A", "Rack B", "Rack C", "Rack D"));
+            Assert.assertEquals(peak.get(), 2);
+            for (var r : results) {
+                if (r.reader().equals("Rack D")) {
+                    Assert.assertTrue(r.error() instanceof BIBOException);
+                } else {
+                    Assert.assertEquals(r.value(), "9000");
+                }
+            }
+
+            // After the timeout: the running session and those not started are reported as timed out
+            var release = new CountDownLatch(1);
+            var started = new AtomicInteger();
+            var timedOut = Readers.select(mgr).ignore("Virtual").fanOut(1, Duration.ofMillis(200), bibosa -> {
+                started.incrementAndGet();
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }).toList();
+            release.countDown();
+            Assert.assertEquals(timedOut.size(), 4);
+            Assert.assertTrue(timedOut.stream().allMatch(r -> r.error() instanceof TimeoutException));
+            Assert.assertEquals(started.get(), 1);
+        }
+    }
+
+    // === Flight recorder ===
+
+    @Test
+    void testFlightRecorderOnFailedSession() throws Exception {
+        var terminals = new SynthesizedCardTerminals();
+        var terminal = new SynthesizedCardTerminal("Recorded Reader");
+        terminal.present(fileSystem().build().newCard());
+        terminals.addTerminal(terminal);
+        try (var mgr = new TerminalManager(terminals.toFactory())) {
+            // Opt-in, like dumps; reset(false) keeps the card for the next session
+            var plain = Assert.expectThrows(IllegalStateException.class, () -> Readers.select(mgr).reset(false).run(bibo -> {
+                hex(bibo, "00A4040C08A000000062810101");
+                throw new IllegalStateException("personalization failed");
+            }));
+            Assert.assertEquals(plain.getSuppressed().length, 0);
+
+            var e = Assert.expectThrows(IllegalStateException.class, () -> Readers.select(mgr).trace(true).run(bibo -> {
+                hex(bibo, "00A4040C08A000000062810101");
+                throw new IllegalStateException("personalization failed");
+            }));
+            Assert.assertEquals(e.getSuppressed().length, 1);
+            var trace = e.getSuppressed()[0].getMessage();
+            Assert.assertTrue(trace.contains("# ATR: "), trace);
+            Assert.assertTrue(trace.contains("\n9000\n"), trace);
+            // Only this session
+            Assert.assertEquals(trace.split("00A4040C08A000000062810101", -1).length, 2, trace);
+            Assert.assertEquals(mgr.recorder("Recorded Reader").orElseThrow().count(), 4); // 2 x session + SELECT
+        }
+    }
+
+    // === Instrumented PC/SC primitives ===
+
+    @Test
+    void testInstrumentedTimings() throws Exception {
+        var terminals = new SynthesizedCardTerminals();
+        var terminal = new SynthesizedCardTerminal("Timed Reader");
+        terminal.presentFactory(n -> MockBIBO.of("9000", "9000"), SynthesizedCardTerminal.defaultAtr());
+        terminals.addTerminal(terminal);
+        try (var mgr = new TerminalManager(terminals.toFactory())) {
+            Readers.select(mgr, "Timed").run(bibo -> {
+                hex(bibo, "00A40400");
+                return hex(bibo, "00B00000");
+            });
+            var timings = mgr.timings();
+            var transmit = timings.stream().filter(t -> t.operation() == InstrumentedTerminalFactory.Operation.TRANSMIT).findFirst().orElseThrow();
+            Assert.assertEquals(transmit.reader(), "Timed Reader");
+            Assert.assertEquals(transmit.protocol(), "T=1");
+            Assert.assertEquals(transmit.count(), 2);
+            Assert.assertEquals(transmit.errors(), 0);
+            Assert.assertTrue(transmit.p50().compareTo(transmit.max()) <= 0);
+            Assert.assertTrue(transmit.p99().compareTo(transmit.max()) <= 0);
+            for (var op : List.of(InstrumentedTerminalFactory.Operation.LIST, InstrumentedTerminalFactory.Operation.CONNECT,
+                    InstrumentedTerminalFactory.Operation.BEGIN_EXCLUSIVE, InstrumentedTerminalFactory.Operation.END_EXCLUSIVE,
+                    InstrumentedTerminalFactory.Operation.DISCONNECT)) {
+                Assert.assertTrue(timings.stream().anyMatch(t -> t.operation() == op), op + " in " + timings);
+            }
+
+            // Failures are counted
+            terminal.yank();
+            Assert.assertThrows(BIBOException.class, () -> Readers.select(mgr, "Timed").run(bibo -> null));
+            Assert.assertTrue(mgr.timings().stream().anyMatch(t -> t.operation() == InstrumentedTerminalFactory.Operation.CONNECT && t.errors() == 1));
+        }
+    }
+
+    // === PC/SC context pool ===
+
+    @Test
+    void testContextPool() throws Exception {
+        var made = new AtomicInteger();
+        var pool = new ContextPool(() -> {
+            made.incrementAndGet();
+            return new SynthesizedCardTerminals();
+        }, () -> 2);
+
+        // Many threads, two contexts
+        var threads = new ArrayList<Thread>();
+        for (var i = 0; i < 16; i++) {
+            threads.add(new Thread(() -> {
+                try (var lease = pool.lease()) {
+                    Assert.assertNotNull(lease.terminals());
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (var t : threads) {
+            t.join();
+        }
+        var stats = pool.stats();
+        Assert.assertEquals(made.get(), 2);
+        Assert.assertEquals(stats.leases(), 16);
+        Assert.assertTrue(stats.waits() > 0, stats.toString());
+        Assert.assertEquals(stats.leased(), 0);
+        Assert.assertEquals(stats.idle(), 2);
+
+        // Nested on the same thread: same context, no second lease
+        try (var outer = pool.lease(); var inner = pool.lease()) {
+            Assert.assertSame(inner.terminals(), outer.terminals());
+            Assert.assertEquals(pool.stats().leased(), 1);
+        }
+
+        // Invalid handle retires the one context, a stopped service all of them, pinned ones included
+        var pinned = pool.pin();
+        try (var lease = pool.lease()) {
+            lease.failed(new CardException("SCARD_E_INVALID_HANDLE"));
+        }
+        Assert.assertEquals(pool.stats().idle(), 1);
+        Assert.assertFalse(pool.stale(pinned));
+        pool.failed(new BIBOException("Failed to connect", new CardException("SCARD_E_SERVICE_STOPPED")));
+        Assert.assertEquals(pool.stats().idle(), 0);
+        Assert.assertTrue(pool.stale(pinned));
+        var before = made.get();
+        try (var lease = pool.lease()) {
+            Assert.assertNotNull(lease.terminals());
+        }
+        Assert.assertEquals(made.get(), before + 1);
+        pool.close();
+        Assert.assertThrows(IllegalStateException.class, pool::lease);
+    }
+
+    @Test
+    void testIdleContextIsChecked() throws Exception {
+        var broken = new AtomicBoolean();
+        var pool = new ContextPool(() -> new CardTerminals() {
+            @Override
+            public List<CardTerminal> list(State state) throws CardException {
+                if (broken.get()) {
+                    throw new CardException("SCARD_E_INVALID_HANDLE");
+                }
+                return List.of();
+            }
+
+            @Override
+            public boolean waitForChange(long timeout) {
+                return false;
+            }
+        }, () -> 1, 0);
+        CardTerminals first;
+        try (var lease = pool.lease()) {
+            first = lease.terminals();
+        }
+        try (var lease = pool.lease()) {
+            Assert.assertSame(lease.terminals(), first);
+        }
+        broken.set(true);
+        try (var lease = pool.lease()) {
+            Assert.assertNotSame(lease.terminals(), first);
+        }
+        Assert.assertEquals(pool.stats().retired(), 1);
+    }
+
+    @Test
+    void testCallerThreadsLeaseContexts() throws Exception {
+        var terminal = new SynthesizedCardTerminal("Busy Reader");
+        terminal.presentFactory(n -> MockBIBO.of("9000"), SynthesizedCardTerminal.defaultAtr());
+        try (var mgr = TerminalManager.managerOf(terminal)) {
+            var threads = new ArrayList<Thread>();
+            for (var i = 0; i < 32; i++) {
+                threads.add(new Thread(() -> Readers.select(mgr).run(bibo -> hex(bibo, "00A40400"))));
+            }
+            threads.forEach(Thread::start);
+            for (var t : threads) {
+                t.join();
+            }
+            var stats = mgr.contexts().stats();
+            Assert.assertTrue(stats.created() <= TerminalManager.CONTEXTS, stats.toString());
+            Assert.assertEquals(stats.pinned(), 0);
+
+            // Unmanaged: outside the limit, without waiting; the context goes back when the BIBO is closed
+            var waited = stats;
+            var bibos = new ArrayList<BIBO>();
+            for (var i = 0; i < TerminalManager.CONTEXTS + 2; i++) {
+                bibos.add(Readers.select(mgr).connect());
+            }
+            stats = mgr.contexts().stats();
+            Assert.assertEquals(stats.detached(), TerminalManager.CONTEXTS + 2);
+            Assert.assertEquals(stats.leased(), 0);
+            Assert.assertEquals(stats.waits(), waited.waits());
+            Assert.assertEquals(Readers.select(mgr).run(b -> hex(b, "00A40400")), "9000");
+            bibos.forEach(BIBO::close);
+            stats = mgr.contexts().stats();
+            Assert.assertEquals(stats.detached(), 0);
+            Assert.assertTrue(stats.idle() <= TerminalManager.CONTEXTS, stats.toString());
+
+            // Escape hatches lease too; the card keeps its context until disconnected
+            var select = Readers.select(mgr);
+            Assert.assertTrue(select.terminal().isCardPresent());
+            var card = select.card();
+            Assert.assertEquals(mgr.contexts().stats().detached(), 1);
+            card.disconnect(false);
+            stats = mgr.contexts().stats();
+            Assert.assertEquals(stats.detached(), 0);
+            Assert.assertEquals(stats.pinned(), 0);
+        }
+    }
 }
@@ -0,0 +1,131 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.remote;
+
+import apdu4j.core.BIBO;
+import apdu4j.core.BIBOException;
+import apdu4j.remote.Wire.Payload;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Session on a reader of a RemoteServer. A batch is one round trip, however many APDUs it has;
+// submit() sends it without waiting for the batches before it (they run in submission order),
+// blocking only while the window of the server is full. The session ends on close(), on the
+// first failing APDU (the rest of that batch is not sent to the card), on a batch without a
+// reply within the timeout of the client and after the idle timeout of the server.
+public final class RemoteBIBO implements BIBO {
+    private final RemoteClient client;
+    private final int id;
+    private final String reader;
+    private final byte[] atr;
+    private final String protocol;
+    private final Semaphore window;
+    private volatile String ended; // why, null while open
+
+    RemoteBIBO(RemoteClient client, int id, String reader, byte[] atr, String protocol, int window) {
+        this.client = client;
+        this.id = id;
+        this.reader = reader;
+        this.atr = atr;
+        this.protocol = protocol;
+        this.window = new Semaphore(window);
+    }
+
+    int id() {
+        return id;
+    }
+
+    public String reader() {
+        return reader;
+    }
+
+    public byte[] atr() {
+        return atr.clone();
+    }
+
+    public String protocol() {
+        return protocol;
+    }
+
+    @Override
+    public byte[] transceive(byte[] command) throws BIBOException {
+        return transceive(List.of(command)).get(0);
+    }
+
+    // One round trip for all of them
+    public List<byte[]> transceive(List<byte[]> commands) throws BIBOException {
+        return client.await(submit(commands));
+    }
+
+    public CompletableFuture<List<byte[]>> submit(List<byte[]> commands) throws BIBOException {
+        var reason = ended;
+        if (reason != null) {
+            throw new BIBOException("Session ended: " + reason);
+        }
+        try {
+            if (!window.tryAcquire(client.timeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new BIBOException("Window of %d batches still full after %dms".formatted(client.window(), client.timeout().toMillis()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BIBOException("Interrupted while waiting for the window", e);
+        }
+        // The slot may be that of a batch given up on meanwhile
+        reason = ended;
+        if (reason != null) {
+            window.release();
+            throw new BIBOException("Session ended: " + reason);
+        }
+        CompletableFuture<Wire.Frame> reply;
+        try {
+            reply = client.request(Wire.BATCH, id, new Payload().list(commands).build());
+        } catch (RuntimeException e) {
+            window.release();
+            throw e;
+        }
+        return reply.whenComplete((frame, error) -> {
+            if (error != null) {
+                // The batch may still be queued on the server: the session ends before its slot is
+                // free, so that nothing goes beyond the window of the server
+                abandon("No reply in %dms".formatted(client.timeout().toMillis()));
+            }
+            window.release();
+        }).thenApply(frame -> {
+            if (frame.type() == Wire.ERROR) {
+                ended(frame.reader().string());
+            }
+            return RemoteClient.expect(frame, Wire.RESULT).reader().list();
+        });
+    }
+
+    void ended(String reason) {
+        if (ended == null) {
+            ended = reason;
+        }
+        client.ended(this);
+    }
+
+    // Without waiting for the server, which has the card until its queued batches are done
+    private void abandon(String reason) {
+        if (ended == null) {
+            ended(reason);
+            client.closeQuietly(id);
+        }
+    }
+
+    // Waits for the batches before it; the card is disconnected when this returns
+    @Override
+    public void close() {
+        if (ended != null) {
+            return;
+        }
+        try {
+            RemoteClient.expect(client.await(client.request(Wire.CLOSE, id, new byte[0])), Wire.CLOSED);
+        } finally {
+            ended("closed");
+        }
+    }
+}
@@ -0,0 +1,266 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.remote;
+
+import apdu4j.core.BIBOException;
+import apdu4j.remote.Wire.Frame;
+import apdu4j.remote.Wire.Payload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Client of a RemoteServer: one TCP connection for any number of sessions. Requests are tagged
+// and sent without waiting for earlier replies, so sessions - and batches of one session, up to
+// the window of the server - overlap their round trips.
+//
+//   try (var client = RemoteClient.connect(new InetSocketAddress("edge-7", 7816), Duration.ofSeconds(10));
+//        var bibo = client.open("ACS")) {
+//       var responses = bibo.transceive(List.of(select, getData1, getData2));
+//   }
+public final class RemoteClient implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(RemoteClient.class);
+
+    public record Reader(String name, boolean present, boolean exclusive) {
+    }
+
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out; // guarded by itself
+    private final Duration timeout;
+    private final int window;
+    private final Duration idle;
+    private final Map<Integer, CompletableFuture<Frame>> pending = new ConcurrentHashMap<>();
+    private final Map<Integer, RemoteBIBO> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger tags = new AtomicInteger();
+    private final AtomicInteger ids = new AtomicInteger();
+    private volatile String lost; // why the connection is gone, null while up
+
+    private RemoteClient(Socket socket, DataInputStream in, Duration timeout, int window, Duration idle) throws IOException {
+        this.socket = socket;
+        this.in = in;
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        this.timeout = timeout;
+        this.window = window;
+        this.idle = idle;
+    }
+
+    // timeout applies to connecting and to every reply
+    public static RemoteClient connect(InetSocketAddress address, Duration timeout) throws IOException {
+        var socket = new Socket();
+        try {
+            socket.connect(address, (int) timeout.toMillis());
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout((int) timeout.toMillis());
+            var in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            var welcome = Wire.read(in);
+            if (welcome.type() != Wire.WELCOME) {
+                throw new ProtocolException("Expected WELCOME, got frame type " + welcome.type());
+            }
+            var p = welcome.reader();
+            var version = p.varint();
+            if (version != Wire.VERSION) {
+                throw new ProtocolException("Unsupported protocol version %d, expected %d".formatted(version, Wire.VERSION));
+            }
+            var window = p.varint();
+            p.varint(); // max frame of the server, same property as ours
+            var idle = Duration.ofMillis(p.varint());
+            socket.setSoTimeout(0);
+            var client = new RemoteClient(socket, in, timeout, window, idle);
+            var receiver = new Thread(client::receive, "Remote client " + address);
+            receiver.setDaemon(true);
+            receiver.start();
+            logger.debug("Connected to {}, window {}, idle {}ms", address, window, idle.toMillis());
+            return client;
+        } catch (IOException | IllegalArgumentException e) {
+            socket.close();
+            throw e instanceof IOException io ? io : new ProtocolException(e.getMessage());
+        }
+    }
+
+    public Duration timeout() {
+        return timeout;
+    }
+
+    // Batches of a session the server queues; submit() waits for a free slot beyond that
+    public int window() {
+        return window;
+    }
+
+    // Sessions without a batch for this long are ended by the server
+    public Duration idle() {
+        return idle;
+    }
+
+    public List<Reader> readers() {
+        var p = expect(await(request(Wire.LIST, 0, new byte[0])), Wire.READERS).reader();
+        var count = p.varint();
+        var readers = new ArrayList<Reader>(count);
+        for (var i = 0; i < count; i++) {
+            var name = p.string();
+            var flags = p.varint();
+            readers.add(new Reader(name, (flags & Wire.PRESENT) != 0, (flags & Wire.EXCLUSIVE) != 0));
+        }
+        return readers;
+    }
+
+    // Session on a reader with a card, by the usual hint (name fragment, alias, index; "" = dwim)
+    public RemoteBIBO open(String hint) {
+        return open(hint, "");
+    }
+
+    // protocol as with ReaderSelector.protocol(), "" = default
+    public RemoteBIBO open(String hint, String protocol) {
+        var id = ids.incrementAndGet();
+        var p = expect(await(request(Wire.OPEN, id, new Payload().string(hint).string(protocol).build())), Wire.OPENED).reader();
+        var session = new RemoteBIBO(this, id, p.string(), p.bytes(), p.string(), window);
+        sessions.put(id, session);
+        return session;
+    }
+
+    // The reply fails after the timeout of the client, and its tag is forgotten
+    CompletableFuture<Frame> request(byte type, int session, byte[] payload) {
+        var tag = tags.updateAndGet(t -> t == Integer.MAX_VALUE ? 1 : t + 1); // 0 is not a reply
+        var reply = new CompletableFuture<Frame>();
+        pending.put(tag, reply);
+        reply.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((frame, error) -> {
+            if (error != null) {
+                pending.remove(tag, reply);
+            }
+        });
+        try {
+            var frame = new Frame(type, session, tag, payload);
+            synchronized (out) {
+                if (lost != null) {
+                    throw new BIBOException("Connection lost: " + lost);
+                }
+                Wire.write(out, frame);
+            }
+        } catch (IOException e) {
+            pending.remove(tag);
+            lost(RemoteServer.message(e));
+            throw new BIBOException("Send failed", e);
+        } catch (RuntimeException e) {
+            pending.remove(tag);
+            throw e instanceof BIBOException b ? b : new BIBOException(RemoteServer.message(e), e);
+        }
+        return reply;
+    }
+
+    // Waits for a reply for at most the timeout of the client
+    <T> T await(CompletableFuture<T> reply) {
+        try {
+            return reply.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw noReply();
+            }
+            throw e.getCause() instanceof BIBOException b ? b : new BIBOException(RemoteServer.message(e.getCause()), e.getCause());
+        } catch (TimeoutException e) {
+            // Given up, unless the reply came in just now. request() forgets the tag.
+            if (reply.completeExceptionally(e)) {
+                throw noReply();
+            }
+            return await(reply);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BIBOException("Interrupted while waiting for a reply", e);
+        }
+    }
+
+    private BIBOException noReply() {
+        return new BIBOException("No reply from %s in %dms".formatted(socket.getRemoteSocketAddress(), timeout.toMillis()));
+    }
+
+    // Reply of the expected type, ERROR as BIBOException
+    static Frame expect(Frame reply, byte type) {
+        if (reply.type() == Wire.ERROR) {
+            throw new BIBOException(reply.reader().string());
+        }
+        if (reply.type() != type) {
+            throw new BIBOException("Expected frame type %d, got %d".formatted(type, reply.type()));
+        }
+        return reply;
+    }
+
+    void ended(RemoteBIBO session) {
+        sessions.remove(session.id(), session);
+    }
+
+    private void receive() {
+        try {
+            while (true) {
+                var frame = Wire.read(in);
+                var reply = pending.remove(frame.tag());
+                var session = sessions.get(frame.session());
+                if (reply != null) {
+                    reply.complete(frame);
+                } else if (frame.type() == Wire.ERROR && session != null) {
+                    // Not a reply: the server ended an idle session
+                    session.ended(frame.reader().string());
+                } else if (frame.type() == Wire.OPENED && session == null) {
+                    // open() gave up waiting; nobody would close the card
+                    logger.debug("Session {} opened after the timeout, closing", frame.session());
+                    closeQuietly(frame.session());
+                } else {
+                    logger.debug("Unexpected frame type {} for session {}, tag {}", frame.type(), frame.session(), frame.tag());
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            lost(lost == null ? RemoteServer.message(e) : lost);
+        }
+    }
+
+    // CLOSE without waiting for CLOSED
+    void closeQuietly(int session) {
+        try {
+            request(Wire.CLOSE, session, new byte[0]);
+        } catch (BIBOException e) {
+            logger.debug("Could not close session {}: {}", session, e.getMessage());
+        }
+    }
+
+    private void lost(String reason) {
+        synchronized (out) {
+            if (lost == null) {
+                lost = reason;
+                logger.debug("Connection to {} lost: {}", socket.getRemoteSocketAddress(), reason);
+            }
+        }
+        try {
+            socket.close();
+        } catch (IOException e) {
+            logger.debug("Close failed: {}", e.getMessage());
+        }
+        for (var tag : List.copyOf(pending.keySet())) {
+            var reply = pending.remove(tag);
+            if (reply != null) {
+                reply.completeExceptionally(new BIBOException("Connection lost: " + lost));
+            }
+        }
+        List.copyOf(sessions.values()).forEach(s -> s.ended("Connection lost: " + lost));
+    }
+
+    // Sessions are ended by the server when the connection goes
+    @Override
+    public void close() {
+        lost("closed");
+    }
+}
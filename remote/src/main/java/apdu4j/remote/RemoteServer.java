@@ -0,0 +1,362 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.remote;
+
+import apdu4j.core.BIBOException;
+import apdu4j.core.BIBOSA;
+import apdu4j.core.HexBytes;
+import apdu4j.pcsc.Readers;
+import apdu4j.pcsc.TerminalManager;
+import apdu4j.remote.Wire.Frame;
+import apdu4j.remote.Wire.Payload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Readers and sessions of a TerminalManager for RemoteClient, over TCP. A remote session is a
+// managed session (ReaderSelector.open()) that stays open until the client closes it, an APDU
+// fails or no batch arrives within the idle timeout. A batch is transceived in one go on the
+// reader and answered with one frame, so a WAN round trip is paid per batch, not per APDU.
+//
+// Flow control: at most `window` batches of a session may wait at the server (announced in
+// WELCOME, the client holds back the rest). A client that sends more is disconnected, so a
+// slow card never makes the server buffer without bounds.
+public final class RemoteServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(RemoteServer.class);
+
+    static final int WINDOW = Integer.getInteger("apdu4j.remote.window", 8);
+    static final int SESSIONS = Integer.getInteger("apdu4j.remote.sessions", 64); // per connection
+    static final Duration IDLE = Duration.ofMillis(Long.getLong("apdu4j.remote.idle", 60_000));
+    // Sessions still on a card when the server is closed get this long to finish
+    static final Duration DRAIN = Duration.ofSeconds(5);
+
+    // Queued to the sessions of a lost connection
+    private static final Frame GONE = new Frame(Wire.CLOSE, 0, 0, new byte[0]);
+
+    private final TerminalManager mgr;
+    private final ServerSocket socket;
+    private final Duration idle;
+    private final ExecutorService threads;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    private RemoteServer(TerminalManager mgr, ServerSocket socket, Duration idle) {
+        this.mgr = mgr;
+        this.socket = socket;
+        this.idle = idle;
+        var counter = new AtomicInteger();
+        this.threads = Executors.newCachedThreadPool(r -> {
+            var t = new Thread(r, "Remote " + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static RemoteServer start(TerminalManager mgr, InetSocketAddress address) throws IOException {
+        return start(mgr, address, IDLE);
+    }
+
+    public static RemoteServer start(TerminalManager mgr, InetSocketAddress address, Duration idle) throws IOException {
+        if (idle.isNegative() || idle.isZero()) {
+            throw new IllegalArgumentException("idle must be positive: " + idle);
+        }
+        var socket = new ServerSocket();
+        socket.bind(address);
+        var server = new RemoteServer(mgr, socket, idle);
+        server.threads.execute(server::accept);
+        logger.info("Serving readers on {}", server.address());
+        return server;
+    }
+
+    // The bound address, with the actual port when started on port 0
+    public InetSocketAddress address() {
+        return (InetSocketAddress) socket.getLocalSocketAddress();
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                var s = socket.accept();
+                s.setTcpNoDelay(true);
+                var connection = new Connection(s);
+                connections.add(connection);
+                threads.execute(connection::run);
+            } catch (IOException e) {
+                if (!closed) {
+                    logger.warn("Accept failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            socket.close();
+        } catch (IOException e) {
+            logger.debug("Close failed: {}", e.getMessage());
+        }
+        connections.forEach(Connection::close);
+        threads.shutdown();
+        try {
+            if (!threads.awaitTermination(DRAIN.toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Sessions still running after {}ms", DRAIN.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static String message(Throwable e) {
+        return e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+    }
+
+    private final class Connection {
+        private final Socket socket;
+        private final DataOutputStream out; // guarded by itself
+        private final Map<Integer, Session> sessions = new ConcurrentHashMap<>();
+        private final ArrayDeque<Frame> lists = new ArrayDeque<>(); // guarded by itself
+        private boolean listing; // guarded by lists
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        void run() {
+            var peer = socket.getRemoteSocketAddress();
+            logger.debug("Connection from {}", peer);
+            try (var in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+                send(new Frame(Wire.WELCOME, 0, 0, new Payload()
+                        .varint(Wire.VERSION).varint(WINDOW).varint(Wire.MAX_FRAME).varint((int) idle.toMillis()).build()));
+                while (true) {
+                    dispatch(Wire.read(in));
+                }
+            } catch (EOFException e) {
+                logger.debug("Connection from {} closed", peer);
+            } catch (IOException | RuntimeException e) {
+                if (!closed) {
+                    logger.warn("Dropping connection from {}: {}", peer, message(e));
+                }
+            } finally {
+                close();
+                connections.remove(this);
+            }
+        }
+
+        private void dispatch(Frame frame) throws IOException {
+            switch (frame.type()) {
+                case Wire.LIST -> list(frame);
+                case Wire.OPEN -> open(frame);
+                case Wire.BATCH, Wire.CLOSE -> {
+                    var session = sessions.get(frame.session());
+                    if (session == null || !session.offer(frame)) {
+                        error(frame.session(), frame.tag(), "No session " + frame.session());
+                    }
+                }
+                default -> throw new ProtocolException("Unknown frame type " + frame.type());
+            }
+        }
+
+        // One listing at a time per connection; LISTs that arrive meanwhile share the next one
+        private void list(Frame frame) {
+            synchronized (lists) {
+                lists.add(frame);
+                if (listing) {
+                    return;
+                }
+                listing = true;
+            }
+            threads.execute(this::listing);
+        }
+
+        private void listing() {
+            while (true) {
+                List<Frame> asked;
+                synchronized (lists) {
+                    if (lists.isEmpty()) {
+                        listing = false;
+                        return;
+                    }
+                    asked = List.copyOf(lists);
+                    lists.clear();
+                }
+                try {
+                    var readers = Readers.select(mgr).list();
+                    var payload = new Payload().varint(readers.size());
+                    for (var r : readers) {
+                        payload.string(r.name()).varint((r.present() ? Wire.PRESENT : 0) | (r.exclusive() ? Wire.EXCLUSIVE : 0));
+                    }
+                    var bytes = payload.build();
+                    asked.forEach(f -> send(new Frame(Wire.READERS, 0, f.tag(), bytes)));
+                } catch (RuntimeException e) {
+                    asked.forEach(f -> error(0, f.tag(), message(e)));
+                }
+            }
+        }
+
+        private void open(Frame frame) {
+            var p = frame.reader();
+            var hint = p.string();
+            var protocol = p.string();
+            if (sessions.size() >= SESSIONS) {
+                error(frame.session(), frame.tag(), "Too many sessions, max " + SESSIONS);
+                return;
+            }
+            var session = new Session(this, frame.session(), frame.tag());
+            if (sessions.putIfAbsent(frame.session(), session) != null) {
+                error(frame.session(), frame.tag(), "Session %d already open".formatted(frame.session()));
+                return;
+            }
+            threads.execute(() -> session.run(hint, protocol));
+        }
+
+        void send(Frame frame) {
+            synchronized (out) {
+                try {
+                    Wire.write(out, frame);
+                } catch (IOException e) {
+                    // The reading side notices as well and cleans up
+                    logger.debug("Send to {} failed: {}", socket.getRemoteSocketAddress(), e.getMessage());
+                    close();
+                }
+            }
+        }
+
+        void error(int session, int tag, String message) {
+            send(new Frame(Wire.ERROR, session, tag, new Payload().string(message).build()));
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                logger.debug("Close failed: {}", e.getMessage());
+            }
+            sessions.values().forEach(Session::gone);
+        }
+    }
+
+    private final class Session {
+        private final Connection connection;
+        private final int id;
+        private final LinkedBlockingQueue<Frame> queue = new LinkedBlockingQueue<>();
+        private int batches; // queued, guarded by this
+        private boolean ended; // guarded by this
+        private volatile int tag; // of the request being served
+
+        Session(Connection connection, int id, int tag) {
+            this.connection = connection;
+            this.id = id;
+            this.tag = tag;
+        }
+
+        // On the connection thread; false once the session has ended
+        synchronized boolean offer(Frame frame) throws ProtocolException {
+            if (ended) {
+                return false;
+            }
+            if (frame.type() == Wire.BATCH && ++batches > WINDOW) {
+                throw new ProtocolException("Session %d exceeded the window of %d batches".formatted(id, WINDOW));
+            }
+            queue.add(frame);
+            return true;
+        }
+
+        void gone() {
+            queue.add(GONE);
+        }
+
+        void run(String hint, String protocol) {
+            var selector = Readers.select(mgr);
+            if (!hint.isEmpty()) {
+                selector = selector.select(hint);
+            }
+            if (!protocol.isEmpty()) {
+                selector = selector.protocol(protocol);
+            }
+            try {
+                var closing = selector.open(this::serve);
+                if (closing != GONE) {
+                    connection.send(new Frame(Wire.CLOSED, id, closing.tag(), new byte[0]));
+                }
+            } catch (RuntimeException e) {
+                logger.debug("Session {} failed: {}", id, message(e));
+                connection.error(id, tag, message(e));
+            } finally {
+                end();
+            }
+        }
+
+        // The whole session, on the reader thread when the monitor runs. Returns the CLOSE frame.
+        private Frame serve(BIBOSA bibosa) {
+            var prefs = bibosa.preferences();
+            connection.send(new Frame(Wire.OPENED, id, tag, new Payload()
+                    .string(prefs.valueOf(Readers.READER_NAME).orElse(""))
+                    .bytes(prefs.valueOf(Readers.ATR).map(HexBytes::value).orElse(new byte[0]))
+                    .string(prefs.valueOf(Readers.NEGOTIATED_PROTOCOL).orElse("")).build()));
+            while (true) {
+                Frame frame;
+                try {
+                    frame = queue.poll(idle.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    frame = GONE;
+                }
+                if (frame == null) {
+                    tag = 0;
+                    throw new BIBOException("Session idle for %dms".formatted(idle.toMillis()));
+                }
+                if (frame.type() == Wire.CLOSE) {
+                    return frame;
+                }
+                synchronized (this) {
+                    batches--;
+                }
+                tag = frame.tag();
+                var commands = frame.reader().list();
+                var responses = new ArrayList<byte[]>(commands.size());
+                for (var command : commands) {
+                    responses.add(bibosa.transceive(command));
+                }
+                connection.send(new Frame(Wire.RESULT, id, tag, new Payload().list(responses).build()));
+            }
+        }
+
+        // Whatever was queued behind the end gets an answer
+        private void end() {
+            synchronized (this) {
+                ended = true;
+            }
+            connection.sessions.remove(id, this);
+            for (var frame = queue.poll(); frame != null; frame = queue.poll()) {
+                if (frame != GONE) {
+                    connection.error(id, frame.tag(), "Session %d has ended".formatted(id));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.remote;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Framing of the remote protocol. Every frame is
+//
+//   length:u32 type:u8 session:u32 tag:u32 payload
+//
+// with length counting everything after itself. The client picks session ids and tags, the
+// server answers on the same tag, so any number of sessions share one connection and replies
+// may come in any order. Counts and lengths inside payloads are varints (7 bits per byte, low
+// first), so a short APDU costs one byte of framing.
+final class Wire {
+    static final int VERSION = 1;
+    static final int HEADER = 9;
+    static final int MAX_FRAME = Integer.getInteger("apdu4j.remote.frame", 1 << 20);
+
+    // Client to server
+    static final byte LIST = 1; // -> READERS
+    static final byte OPEN = 2; // hint, protocol -> OPENED
+    static final byte BATCH = 3; // APDUs -> RESULT
+    static final byte CLOSE = 4; // -> CLOSED
+
+    // Server to client
+    static final byte WELCOME = 0x41; // version, window, max frame, idle ms; sent on accept
+    static final byte READERS = 0x42; // count, (name, flags)*
+    static final byte OPENED = 0x43; // reader, ATR, protocol
+    static final byte RESULT = 0x44; // count, responses*; a failing APDU is answered with ERROR
+    static final byte CLOSED = 0x45;
+    static final byte ERROR = 0x46; // message; the session is gone. Tag 0 = not a reply (idle timeout)
+
+    // Reader flags in READERS
+    static final int PRESENT = 1;
+    static final int EXCLUSIVE = 2;
+
+    private Wire() {
+    }
+
+    record Frame(byte type, int session, int tag, byte[] payload) {
+        Frame {
+            if (payload.length > MAX_FRAME - HEADER) {
+                throw new IllegalArgumentException("Frame too large: %d bytes, max %d".formatted(payload.length + HEADER, MAX_FRAME));
+            }
+        }
+
+        Payload.Reader reader() {
+            return new Payload.Reader(payload);
+        }
+    }
+
+    static Frame read(DataInputStream in) throws IOException {
+        var length = in.readInt();
+        if (length < HEADER || length > MAX_FRAME) {
+            throw new IOException("Invalid frame length " + length);
+        }
+        var type = in.readByte();
+        var session = in.readInt();
+        var tag = in.readInt();
+        var payload = new byte[length - HEADER];
+        in.readFully(payload);
+        return new Frame(type, session, tag, payload);
+    }
+
+    // Callers serialize writes to one stream
+    static void write(DataOutputStream out, Frame frame) throws IOException {
+        out.writeInt(HEADER + frame.payload().length);
+        out.writeByte(frame.type());
+        out.writeInt(frame.session());
+        out.writeInt(frame.tag());
+        out.write(frame.payload());
+        out.flush();
+    }
+
+    static final class Payload {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Payload varint(int v) {
+            if (v < 0) {
+                throw new IllegalArgumentException("Negative varint: " + v);
+            }
+            while (v >= 0x80) {
+                out.write((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            out.write(v);
+            return this;
+        }
+
+        Payload bytes(byte[] b) {
+            varint(b.length);
+            out.writeBytes(b);
+            return this;
+        }
+
+        Payload string(String s) {
+            return bytes(s.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Payload list(List<byte[]> items) {
+            varint(items.size());
+            items.forEach(this::bytes);
+            return this;
+        }
+
+        byte[] build() {
+            return out.toByteArray();
+        }
+
+        // Truncated or malformed payloads fail with IllegalArgumentException
+        static final class Reader {
+            private final byte[] payload;
+            private int pos;
+
+            Reader(byte[] payload) {
+                this.payload = payload;
+            }
+
+            int varint() {
+                var v = 0;
+                for (var shift = 0; shift < 32; shift += 7) {
+                    if (pos >= payload.length) {
+                        throw new IllegalArgumentException("Truncated payload");
+                    }
+                    var b = payload[pos++];
+                    v |= (b & 0x7F) << shift;
+                    if ((b & 0x80) == 0) {
+                        if (v < 0) {
+                            break;
+                        }
+                        return v;
+                    }
+                }
+                throw new IllegalArgumentException("Invalid varint");
+            }
+
+            byte[] bytes() {
+                var length = varint();
+                if (length > payload.length - pos) {
+                    throw new IllegalArgumentException("Truncated payload");
+                }
+                var b = Arrays.copyOfRange(payload, pos, pos + length);
+                pos += length;
+                return b;
+            }
+
+            String string() {
+                return new String(bytes(), StandardCharsets.UTF_8);
+            }
+
+            List<byte[]> list() {
+                var count = varint();
+                // Every item takes at least a byte, which bounds the allocation
+                if (count > payload.length - pos) {
+                    throw new IllegalArgumentException("Truncated payload");
+                }
+                var items = new ArrayList<byte[]>(count);
+                for (var i = 0; i < count; i++) {
+                    items.add(bytes());
+                }
+                return items;
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+module apdu4j.remote {
+    requires transitive apdu4j.pcsc;
+    requires org.slf4j;
+
+    exports apdu4j.remote;
+}
@@ -0,0 +1,196 @@
+// SPDX-FileCopyrightText: 2026 Martin Paljak <martin@martinpaljak.net>
+// SPDX-License-Identifier: MIT
+package apdu4j.remote;
+
+import apdu4j.core.BIBO;
+import apdu4j.core.BIBOException;
+import apdu4j.core.HexUtils;
+import apdu4j.pcsc.ReaderExecutor;
+import apdu4j.pcsc.TerminalManager;
+import apdu4j.pcsc.sim.SynthesizedCardTerminal;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RemoteTest {
+    private static final InetSocketAddress LOOPBACK = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    // Answers with INS and 9000, fails on INS FF, takes 400ms on INS 51
+    private static SynthesizedCardTerminal reader(String name, AtomicInteger apdus) {
+        var terminal = new SynthesizedCardTerminal(name);
+        terminal.presentFactory(protocol -> (BIBO) cmd -> {
+            apdus.incrementAndGet();
+            if (cmd[1] == (byte) 0xFF) {
+                throw new BIBOException("Card says no");
+            }
+            if (cmd[1] == (byte) 0x51) {
+                try {
+                    Thread.sleep(400);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new BIBOException("Interrupted", e);
+                }
+            }
+            return new byte[]{cmd[1], (byte) 0x90, 0x00};
+        }, SynthesizedCardTerminal.defaultAtr());
+        return terminal;
+    }
+
+    private static byte[] ins(int ins) {
+        return new byte[]{0x00, (byte) ins, 0x00, 0x00};
+    }
+
+    @Test
+    void testSessionsMultiplexedOnOneConnection() throws Exception {
+        var apdus = new AtomicInteger();
+        try (var mgr = TerminalManager.managerOf(reader("Reader A", apdus), reader("Reader B", apdus), new SynthesizedCardTerminal("Reader C"));
+             var server = RemoteServer.start(mgr, LOOPBACK);
+             var client = RemoteClient.connect(server.address(), TIMEOUT)) {
+            var readers = client.readers();
+            Assert.assertEquals(readers.size(), 3);
+            Assert.assertEquals(readers.stream().filter(RemoteClient.Reader::present).count(), 2);
+
+            try (var a = client.open("Reader A"); var b = client.open("Reader B")) {
+                Assert.assertEquals(a.reader(), "Reader A");
+                Assert.assertEquals(a.atr(), SynthesizedCardTerminal.defaultAtr());
+
+                // One batch, one round trip
+                var responses = a.transceive(List.of(ins(1), ins(2), ins(3)));
+                Assert.assertEquals(responses.stream().map(HexUtils::bin2hex).toList(), List.of("019000", "029000", "039000"));
+                Assert.assertEquals(b.transceive(ins(0x42)), HexUtils.hex2bin("429000"));
+
+                // Pipelined: more batches than the window, on both sessions, without waiting
+                var pending = new ArrayList<CompletableFuture<List<byte[]>>>();
+                for (var i = 0; i < client.window() * 2; i++) {
+                    pending.add(a.submit(List.of(ins(i), ins(i + 1))));
+                    pending.add(b.submit(List.of(ins(i))));
+                }
+                for (var i = 0; i < pending.size(); i++) {
+                    var batch = client.await(pending.get(i));
+                    Assert.assertEquals(batch.get(0)[0], (byte) (i / 2), "batch " + i);
+                }
+            }
+            Assert.assertEquals(apdus.get(), 3 + 1 + client.window() * 2 * 3);
+
+            // No card
+            Assert.assertThrows(BIBOException.class, () -> client.open("Reader C"));
+        }
+    }
+
+    @Test
+    void testFailedAndIdleSessionsEnd() throws Exception {
+        var apdus = new AtomicInteger();
+        try (var mgr = TerminalManager.managerOf(reader("Reader A", apdus));
+             var server = RemoteServer.start(mgr, LOOPBACK, Duration.ofMillis(200));
+             var client = RemoteClient.connect(server.address(), TIMEOUT)) {
+            // The rest of a failing batch is not sent, nor anything after it
+            var failing = client.open("Reader A");
+            var e = Assert.expectThrows(BIBOException.class, () -> failing.transceive(List.of(ins(1), ins(0xFF), ins(2))));
+            Assert.assertTrue(e.getMessage().contains("Card says no"), e.getMessage());
+            Assert.assertEquals(apdus.get(), 2);
+            Assert.assertThrows(BIBOException.class, () -> failing.transceive(ins(3)));
+
+            var idle = client.open("Reader A");
+            Assert.assertEquals(idle.transceive(ins(4)), HexUtils.hex2bin("049000"));
+            Thread.sleep(600);
+            e = Assert.expectThrows(BIBOException.class, () -> idle.transceive(ins(5)));
+            Assert.assertTrue(e.getMessage().contains("idle"), e.getMessage());
+            Assert.assertEquals(apdus.get(), 3);
+
+            // The connection is still good for new sessions
+            try (var again = client.open("Reader A")) {
+                Assert.assertEquals(again.transceive(ins(6)), HexUtils.hex2bin("069000"));
+            }
+        }
+    }
+
+    @Test
+    void testLateOpenIsClosed() throws Exception {
+        var apdus = new AtomicInteger();
+        try (var mgr = TerminalManager.managerOf(reader("Reader A", apdus));
+             var server = RemoteServer.start(mgr, LOOPBACK);
+             var client = RemoteClient.connect(server.address(), Duration.ofMillis(300))) {
+            Assert.assertTrue(mgr.awaitInitialScan(TIMEOUT));
+            // The reader is busy for longer than the client waits; the session queues behind it
+            var executor = mgr.executor("Reader A");
+            executor.queueing(ReaderExecutor.Queueing.bounded(4));
+            var gate = new CountDownLatch(1);
+            var busy = executor.run(() -> {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            var e = Assert.expectThrows(BIBOException.class, () -> client.open("Reader A"));
+            Assert.assertTrue(e.getMessage().startsWith("No reply"), e.getMessage());
+            gate.countDown();
+            busy.get(5, TimeUnit.SECONDS);
+
+            // Opened after all and closed by the client, or it would hold the reader until idle
+            var deadline = System.nanoTime() + TIMEOUT.toNanos();
+            while (true) {
+                try (var again = client.open("Reader A")) {
+                    Assert.assertEquals(again.transceive(ins(1)), HexUtils.hex2bin("019000"));
+                    break;
+                } catch (BIBOException retry) {
+                    Assert.assertTrue(System.nanoTime() < deadline, retry.getMessage());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testBatchWithoutReplyEndsSession() throws Exception {
+        var apdus = new AtomicInteger();
+        try (var mgr = TerminalManager.managerOf(reader("Reader A", apdus), reader("Reader B", apdus));
+             var server = RemoteServer.start(mgr, LOOPBACK);
+             var client = RemoteClient.connect(server.address(), Duration.ofMillis(300))) {
+            // A full window of batches on a slow card, none answered in time
+            var slow = client.open("Reader A");
+            var pending = new ArrayList<CompletableFuture<List<byte[]>>>();
+            for (var i = 0; i < client.window(); i++) {
+                pending.add(slow.submit(List.of(ins(0x51))));
+            }
+            for (var batch : pending) {
+                var e = Assert.expectThrows(BIBOException.class, () -> client.await(batch));
+                Assert.assertTrue(e.getMessage().startsWith("No reply"), e.getMessage());
+            }
+            // The server still has them queued: nothing more goes out on this session
+            var e = Assert.expectThrows(BIBOException.class, () -> slow.submit(List.of(ins(1))));
+            Assert.assertTrue(e.getMessage().startsWith("Session ended"), e.getMessage());
+
+            // The connection was not dropped for going past the window
+            Assert.assertEquals(client.readers().size(), 2);
+            try (var other = client.open("Reader B")) {
+                Assert.assertEquals(other.transceive(ins(2)), HexUtils.hex2bin("029000"));
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentListings() throws Exception {
+        var apdus = new AtomicInteger();
+        try (var mgr = TerminalManager.managerOf(reader("Reader A", apdus), new SynthesizedCardTerminal("Reader B"));
+             var server = RemoteServer.start(mgr, LOOPBACK);
+             var client = RemoteClient.connect(server.address(), TIMEOUT)) {
+            var listings = new ArrayList<CompletableFuture<List<RemoteClient.Reader>>>();
+            for (var i = 0; i < 20; i++) {
+                listings.add(CompletableFuture.supplyAsync(client::readers));
+            }
+            for (var listing : listings) {
+                Assert.assertEquals(listing.get(5, TimeUnit.SECONDS).size(), 2);
+            }
+        }
+    }
+}
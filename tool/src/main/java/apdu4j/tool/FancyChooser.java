@@ -53,8 +53,6 @@ public final class FancyChooser implements Callable<Optional<CardTerminal>>, PCS
     final String preferred;
     final List<String> ignoreFragments;
 
-    final ReaderAliases aliases = ReaderAliases.getDefault();
-
     static {
         // Force the text based terminal on macOS
         if (TerminalManager.isMacOS() && System.console() != null) {
@@ -76,9 +74,8 @@ public final class FancyChooser implements Callable<Optional<CardTerminal>>, PCS
             var dwimified = Readers.dwimify(readers, preferred, ignoreFragments);
             var hasPreferred = dwimified.stream().anyMatch(PCSCReader::preferred);
 
-            // Update aliases
-            List<String> names = dwimified.stream().map(PCSCReader::name).toList();
-            var alias = aliases.apply(names);
+            // Aliases of this reader list
+            var alias = ReaderIndex.of(dwimified.stream().map(PCSCReader::name).toList()).aliases();
             var current = 0;
             for (PCSCReader r : dwimified) {
                 var i = current++;
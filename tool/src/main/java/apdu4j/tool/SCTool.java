@@ -98,7 +98,7 @@ public class SCTool implements Callable<Integer>, IVersionProvider {
             to.println("No readers found");
             return;
         }
-        var aliases = ReaderAliases.getDefault().apply(readers.stream().map(PCSCReader::name).toList());
+        var aliases = ReaderIndex.of(readers.stream().map(PCSCReader::name).toList()).aliases();
 
         ATRList atrList = null;
         var atrListPath = Optional.ofNullable(System.getenv(ENV_SMARTCARD_LIST)).or(ATRList::locate);
@@ -148,7 +148,7 @@ public class SCTool implements Callable<Integer>, IVersionProvider {
             }
         }
         try {
-            var result = TerminalManager.listPCSC(getTerminalManager().terminals().list(), debug ? System.out : null, beVerbose);
+            var result = getTerminalManager().listReaders(debug ? System.out : null, beVerbose);
             var prefs = Preferences.fromEnvironment();
             var hint = prefs.get(READER);
             result = Readers.dwimify(result, hint.isEmpty() ? null : hint,